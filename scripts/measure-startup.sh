@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Starts the application a few times and reports, for each start, how long it took until the health endpoint
+# answered and how much resident memory the process had at that point.
+#
+#   scripts/measure-startup.sh [-n runs] [-e environments] [-u health-url] -- command...
+#
+#   ./gradlew shadowJar
+#   scripts/measure-startup.sh -- java -jar build/libs/library-0.1-all.jar
+#   scripts/measure-startup.sh -e fast-start -- java -jar build/libs/library-0.1-all.jar
+#   ./gradlew nativeCompile
+#   scripts/measure-startup.sh -e fast-start -- build/native/nativeCompile/library
+#
+# The command has to be the application process itself (not ./gradlew run), since its RSS is what gets measured.
+# The database it points at must already be migrated when running with fast-start.
+set -euo pipefail
+
+runs=5
+environments=""
+url="http://localhost:8081/health"
+while getopts "n:e:u:" opt; do
+  case $opt in
+    n) runs=$OPTARG ;;
+    e) environments=$OPTARG ;;
+    u) url=$OPTARG ;;
+    *) exit 2 ;;
+  esac
+done
+shift $((OPTIND - 1))
+if [ $# -eq 0 ]; then
+  sed -n '5,6p' "$0" >&2
+  exit 2
+fi
+
+now_ms() { perl -MTime::HiRes=time -e 'printf "%d\n", time * 1000'; }
+
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+times=()
+rss=()
+for run in $(seq 1 "$runs"); do
+  start=$(now_ms)
+  env ${environments:+MICRONAUT_ENVIRONMENTS=$environments} "$@" >"$log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$url"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "The application exited before it became healthy:" >&2
+      tail -20 "$log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$(($(now_ms) - start))
+  kb=$(ps -o rss= -p "$pid" | tr -d ' ')
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  times+=("$elapsed")
+  rss+=("$kb")
+  printf 'run %d: healthy after %d ms, RSS %d MB\n' "$run" "$elapsed" $((kb / 1024))
+done
+
+median() { printf '%s\n' "$@" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+printf 'median: healthy after %d ms, RSS %d MB\n' "$(median "${times[@]}")" $(($(median "${rss[@]}") / 1024))
@@ -0,0 +1,102 @@
+package com.harshit.benchmark;
+
+import com.harshit.report.ActiveLoanIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ActiveLoanIndex} against the boxed {@code Map<Long, List<Long>>} pair it replaces, for {@code loans} open
+ * loans spread over {@code loans / 4} books and {@code loans / 10} members. No database involved.
+ * <p>
+ * The {@code build*} benchmarks load every loan into an empty index. The heap each structure retains once built,
+ * measured around a full GC, is printed at setup; run with {@code -prof gc} for the allocation side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ActiveLoanIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int loans;
+
+    private long[] bookIds;
+    private long[] memberIds;
+    private String[] titles;
+    private String[] names;
+    private ActiveLoanIndex primitive;
+    private Map<Long, List<Long>> boxedHolders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int books = Math.max(loans / 4, 1);
+        int members = Math.max(loans / 10, 1);
+        titles = new String[books];
+        names = new String[members];
+        for (int i = 0; i < books; i++) titles[i] = LibraryState.title(i);
+        for (int i = 0; i < members; i++) names[i] = LibraryState.memberName(i);
+        bookIds = new long[loans];
+        memberIds = new long[loans];
+        for (int i = 0; i < loans; i++) {
+            bookIds[i] = 1 + ThreadLocalRandom.current().nextInt(books);
+            memberIds[i] = 1 + ThreadLocalRandom.current().nextInt(members);
+        }
+        long before = usedHeap();
+        primitive = buildPrimitive();
+        long primitiveBytes = usedHeap() - before;
+        before = usedHeap();
+        List<Map<Long, List<Long>>> boxed = buildBoxed();
+        long boxedBytes = usedHeap() - before;
+        boxedHolders = boxed.get(0);
+        System.out.printf("%nRetained for %d loans: ActiveLoanIndex %,d bytes (arrays %,d), boxed maps %,d bytes%n",
+                loans, primitiveBytes, primitive.footprintBytes(), boxedBytes);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ActiveLoanIndex buildPrimitive() {
+        ActiveLoanIndex index = new ActiveLoanIndex();
+        for (int i = 0; i < loans; i++) {
+            index.add(bookIds[i], titles[(int) bookIds[i] - 1], memberIds[i], names[(int) memberIds[i] - 1]);
+        }
+        return index;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Map<Long, List<Long>>> buildBoxed() {
+        Map<Long, List<Long>> holders = new HashMap<>();
+        Map<Long, List<Long>> books = new HashMap<>();
+        for (int i = 0; i < loans; i++) {
+            holders.computeIfAbsent(bookIds[i], k -> new ArrayList<>()).add(memberIds[i]);
+            books.computeIfAbsent(memberIds[i], k -> new ArrayList<>()).add(bookIds[i]);
+        }
+        return List.of(holders, books);
+    }
+
+    @Benchmark
+    public List<String> holdersPrimitive() {
+        return primitive.holders(bookIds[ThreadLocalRandom.current().nextInt(loans)]);
+    }
+
+    @Benchmark
+    public List<Long> holdersBoxed() {
+        return boxedHolders.get(bookIds[ThreadLocalRandom.current().nextInt(loans)]);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,47 @@
+package com.harshit.benchmark;
+
+import io.micronaut.http.HttpResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The four {@code BookService.search*} operations against the seeded catalog. Every invocation picks a random query
+ * so results are not served from one hot posting list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class BookSearchBenchmark {
+
+    @Benchmark
+    public HttpResponse<Map<String, Object>> searchByTitle(LibraryState state) {
+        return state.bookService.searchBooksByTitle(word() + " " + word());
+    }
+
+    @Benchmark
+    public HttpResponse<Map<String, Object>> searchByAuthor(LibraryState state) {
+        String author = LibraryState.AUTHORS[ThreadLocalRandom.current().nextInt(LibraryState.AUTHORS.length)];
+        return state.bookService.searchBooksByAuthor(author.substring(0, author.indexOf(' ')));
+    }
+
+    @Benchmark
+    public HttpResponse<Map<String, Object>> searchByYearRange(LibraryState state) {
+        int start = 1900 + ThreadLocalRandom.current().nextInt(120);
+        return state.bookService.searchBooksByYearRange(start, start + 2);
+    }
+
+    @Benchmark
+    public HttpResponse<Map<String, Object>> searchByTitleAndYearRange(LibraryState state) {
+        int start = 1900 + ThreadLocalRandom.current().nextInt(100);
+        return state.bookService.searchBooksByTitleAndYearRange(word(), start, start + 20);
+    }
+
+    private static String word() {
+        return LibraryState.WORDS[ThreadLocalRandom.current().nextInt(LibraryState.WORDS.length)];
+    }
+}
@@ -0,0 +1,41 @@
+package com.harshit.benchmark;
+
+import com.harshit.entity.Borrowing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BorrowingService.borrowBook} on its own and followed by {@code returnBook}. Each invocation works on a
+ * (book, member) pair of its own, so a return always finds exactly one loan and no title runs out of copies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class BorrowingBenchmark {
+
+    @Benchmark
+    public Borrowing borrow(LibraryState state) {
+        long loan = state.nextLoan.getAndIncrement();
+        return state.borrowingService.borrowBook(book(state, loan), member(state, loan));
+    }
+
+    @Benchmark
+    public Borrowing borrowAndReturn(LibraryState state) {
+        long loan = state.nextLoan.getAndIncrement();
+        String book = book(state, loan);
+        String member = member(state, loan);
+        state.borrowingService.borrowBook(book, member);
+        return state.borrowingService.returnBook(book, member);
+    }
+
+    private static String book(LibraryState state, long loan) {
+        return LibraryState.title((int) (loan % state.rows));
+    }
+
+    private static String member(LibraryState state, long loan) {
+        return LibraryState.memberName((int) ((loan / state.rows) % state.members));
+    }
+}
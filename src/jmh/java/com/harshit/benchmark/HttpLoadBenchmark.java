@@ -0,0 +1,102 @@
+package com.harshit.benchmark;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The running HTTP server under concurrent load, once per {@code library.execution.mode} and
+ * {@code library.reads.mode}. A few threads keep the slow title search busy while the rest do cheap lookups by
+ * title; compare the lookup percentiles across modes to see how much the slow queries hold the fast ones up. Runs as
+ * a JMH group, so the throughput and sample-time results are reported per method.
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class HttpLoadBenchmark {
+
+    @Param({"event-loop", "platform", "virtual"})
+    public String executionMode;
+
+    // reactive moves the read endpoints to R2DBC, where executionMode no longer applies to them
+    @Param({"blocking", "reactive"})
+    public String readsMode;
+
+    @Param({"100000"})
+    public int rows;
+
+    private ApplicationContext context;
+    private HttpClient client;
+    private URI base;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        Map<String, Object> properties = LibraryState.properties();
+        properties.put("library.execution.mode", executionMode);
+        properties.put("library.reads.mode", readsMode);
+        if ("reactive".equals(readsMode)) {
+            properties.put("r2dbc.datasources.reactive.url", System.getProperty("bench.r2dbc.url",
+                    "r2dbc:h2:mem:///bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+            properties.put("r2dbc.datasources.reactive.username", System.getProperty("bench.datasource.username", "sa"));
+            properties.put("r2dbc.datasources.reactive.password", System.getProperty("bench.datasource.password", ""));
+        }
+        properties.put("micronaut.server.port", -1);
+        properties.put("endpoints.all.port", -1);
+        context = ApplicationContext.builder().properties(properties).start();
+        LibraryState.seed(context, rows);
+
+        EmbeddedServer server = context.getBean(EmbeddedServer.class).start();
+        base = server.getURI();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(16)
+    public int searchByTitle() throws IOException, InterruptedException {
+        return get("/books/search/title/" + encode(word() + " " + word()));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(48)
+    public int lookupByTitle() throws IOException, InterruptedException {
+        return get("/books/" + encode(LibraryState.title(ThreadLocalRandom.current().nextInt(rows))));
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve(path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static String word() {
+        return LibraryState.WORDS[ThreadLocalRandom.current().nextInt(LibraryState.WORDS.length)];
+    }
+}
@@ -0,0 +1,64 @@
+package com.harshit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import io.micronaut.jackson.ObjectMapperFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialising {@code Book} and {@code Member} lists with the same Micronaut-configured {@link ObjectMapper} the
+ * HTTP server uses. No database involved; the list sizes cover a page, a large page and a full dump.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapperFactory().objectMapper(null, null);
+        books = new ArrayList<>(size);
+        members = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setTitle(LibraryState.title(i));
+            book.setAuthor(LibraryState.AUTHORS[i % LibraryState.AUTHORS.length]);
+            book.setQuantity(1 + i % 5);
+            book.setPublishedYear(1900 + i % 125);
+            books.add(book);
+
+            Member member = new Member();
+            member.setId((long) i + 1);
+            member.setName(LibraryState.memberName(i));
+            member.setEmail("reader" + i + "@example.com");
+            members.add(member);
+        }
+    }
+
+    @Benchmark
+    public byte[] books() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] members() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(members);
+    }
+}
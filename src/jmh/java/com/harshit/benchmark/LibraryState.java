@@ -0,0 +1,138 @@
+package com.harshit.benchmark;
+
+import com.harshit.importer.CatalogImporter;
+import com.harshit.importer.ImportFormat;
+import com.harshit.service.BookService;
+import com.harshit.service.BorrowingService;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The whole application wired against an embedded H2 database (PostgreSQL mode) and seeded with {@code rows} books
+ * and {@code rows / 10} members through the regular bulk importer.
+ * <p>
+ * Point it at a real PostgreSQL with {@code -Dbench.datasource.url=jdbc:postgresql://...} (plus
+ * {@code bench.datasource.username}/{@code password}) to measure the native pg_trgm search fallback as well.
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    static final String[] WORDS = {
+            "shadow", "river", "garden", "empire", "silent", "winter", "golden", "night", "storm", "island",
+            "secret", "broken", "crown", "forest", "glass", "hidden", "iron", "last", "light", "lost",
+            "moon", "ocean", "paper", "queen", "road", "salt", "stone", "summer", "tide", "wolf",
+            "micronaut", "testing", "history", "kitchen", "journey", "letters", "machine", "mountain", "orchard", "signal"
+    };
+    static final String[] AUTHORS = {
+            "Jane Austen", "Harshit Sharma", "Leo Tolstoy", "Toni Morrison", "Haruki Murakami", "Chinua Achebe",
+            "Ursula Le Guin", "Gabriel Garcia Marquez", "Virginia Woolf", "Kazuo Ishiguro", "Octavia Butler",
+            "Jorge Luis Borges", "Zadie Smith", "Italo Calvino", "Mary Shelley", "James Baldwin"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    ApplicationContext context;
+    BookService bookService;
+    BorrowingService borrowingService;
+
+    int members;
+    // Every borrow/return invocation uses a (book, member) pair that has never been used before
+    final AtomicLong nextLoan = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = ApplicationContext.builder().properties(contextProperties()).start();
+        members = seed(context, rows);
+        bookService = context.getBean(BookService.class);
+        borrowingService = context.getBean(BorrowingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) context.close();
+    }
+
+    // Extension point for states that benchmark a configuration switch
+    Map<String, Object> contextProperties() {
+        return properties();
+    }
+
+    static Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("datasources.default.url", System.getProperty("bench.datasource.url",
+                "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        properties.put("datasources.default.username", System.getProperty("bench.datasource.username", "sa"));
+        properties.put("datasources.default.password", System.getProperty("bench.datasource.password", ""));
+        if (!System.getProperties().containsKey("bench.datasource.url")) {
+            properties.put("datasources.default.driver-class-name", "org.h2.Driver");
+            properties.put("datasources.default.dialect", "H2");
+            // The trigram and partial indexes in db/postgres need PostgreSQL
+            properties.put("flyway.datasources.default.locations", "classpath:db/migration");
+        }
+        properties.put("library.import.progress-interval", Integer.MAX_VALUE);
+        return properties;
+    }
+
+    /**
+     * Imports {@code rows} books and {@code rows / 10} members, returning the number of members.
+     */
+    static int seed(ApplicationContext context, int rows) throws IOException {
+        int members = Math.max(rows / 10, 1);
+        CatalogImporter importer = context.getBean(CatalogImporter.class);
+        Path books = Files.createTempFile("bench-books", ".csv");
+        Path people = Files.createTempFile("bench-members", ".csv");
+        try {
+            writeBooks(books, rows);
+            writeMembers(people, members);
+            try (InputStream input = Files.newInputStream(books)) {
+                importer.importBooks(input, ImportFormat.CSV);
+            }
+            try (InputStream input = Files.newInputStream(people)) {
+                importer.importMembers(input, ImportFormat.CSV);
+            }
+        } finally {
+            Files.deleteIfExists(books);
+            Files.deleteIfExists(people);
+        }
+        return members;
+    }
+
+    static String title(int i) {
+        return WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + WORDS[(i * 7 + 3) % WORDS.length] + " " + i;
+    }
+
+    static String memberName(int i) {
+        return "Reader " + i;
+    }
+
+    private static void writeBooks(Path file, int count) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("title,author,quantity,publishedYear\n");
+            for (int i = 0; i < count; i++) {
+                // Plenty of copies so a benchmark run never exhausts a title
+                out.write(title(i) + "," + AUTHORS[random.nextInt(AUTHORS.length)] + ",1000000," + (1900 + random.nextInt(125)) + "\n");
+            }
+        }
+    }
+
+    private static void writeMembers(Path file, int count) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("name,email\n");
+            for (int i = 0; i < count; i++) {
+                out.write(memberName(i) + ",reader" + i + "@example.com\n");
+            }
+        }
+    }
+}
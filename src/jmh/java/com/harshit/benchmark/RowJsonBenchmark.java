@@ -0,0 +1,85 @@
+package com.harshit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harshit.json.RowJsonWriter;
+import io.micronaut.http.HttpResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of books and a title search, rendered into a pooled buffer by Jackson databind over the loaded entities
+ * (what the server does with {@code library.json.direct: false}) and by {@link RowJsonWriter} straight from the
+ * rows. The interesting number is the allocation per operation, so run it with the GC profiler:
+ * <pre>
+ * ./gradlew jmh -PjmhIncludes=RowJsonBenchmark -PjmhProfilers=gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class RowJsonBenchmark {
+
+    @Param({"100", "500"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private RowJsonWriter rowJsonWriter;
+
+    @Setup(Level.Trial)
+    public void setUp(LibraryState state) {
+        objectMapper = state.context.getBean(ObjectMapper.class);
+        rowJsonWriter = state.context.getBean(RowJsonWriter.class);
+    }
+
+    @Benchmark
+    public int booksPageDatabind(LibraryState state) throws IOException {
+        return databind(state.bookService.getBooksPage(after(state), pageSize));
+    }
+
+    @Benchmark
+    public int booksPageDirect(LibraryState state) {
+        return release(rowJsonWriter.booksPage(after(state), pageSize));
+    }
+
+    @Benchmark
+    public int searchByTitleDatabind(LibraryState state) throws IOException {
+        return databind(state.bookService.searchBooksByTitle(word() + " " + word()).body());
+    }
+
+    @Benchmark
+    public int searchByTitleDirect(LibraryState state) {
+        HttpResponse<?> response = state.bookService.searchBooksByTitleJson(word() + " " + word());
+        return release((ByteBuf) response.body());
+    }
+
+    // Into the same kind of buffer the direct path fills, so only the serialisation differs
+    private int databind(Object value) throws IOException {
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+        objectMapper.writeValue((OutputStream) new ByteBufOutputStream(buffer), value);
+        return release(buffer);
+    }
+
+    private static int release(ByteBuf buffer) {
+        int size = buffer.readableBytes();
+        buffer.release();
+        return size;
+    }
+
+    private long after(LibraryState state) {
+        return ThreadLocalRandom.current().nextInt(Math.max(state.rows - pageSize, 1));
+    }
+
+    private static String word() {
+        return LibraryState.WORDS[ThreadLocalRandom.current().nextInt(LibraryState.WORDS.length)];
+    }
+}
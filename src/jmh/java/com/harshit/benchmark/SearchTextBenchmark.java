@@ -0,0 +1,55 @@
+package com.harshit.benchmark;
+
+import com.harshit.search.SearchText;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search term sanitising as {@code BookService} used to do it, with {@code String.matches} and {@code replaceAll}
+ * compiling a regex on every call, against {@link SearchText}. Half of the terms are clean and half carry
+ * punctuation, as typed into the OPAC search box. No database involved; run with {@code -prof gc} to see the
+ * allocation per term.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchTextBenchmark {
+
+    private static final String[] TERMS = {
+            "lord of the rings", "Lord of the Rings: The Two Towers", "dune", "Dune (Deluxe Edition)",
+            "micronaut in action", "C++ Primer, 5th ed.", "harshit sharma", "O'Reilly & Associates"
+    };
+
+    @Benchmark
+    public String cleanRegex() {
+        String term = term();
+        if (term.matches("^[a-zA-Z0-9 ]+$")) return term;
+        return term.replaceAll("[^a-zA-Z0-9 ]", "");
+    }
+
+    @Benchmark
+    public String cleanSinglePass() {
+        return SearchText.clean(term());
+    }
+
+    // What the REGEXP_REPLACE(LOWER(...)) on the query side used to compute, now done once in Java per search
+    @Benchmark
+    public String normalizeRegex() {
+        return term().replaceAll("[^a-zA-Z0-9]+", "").toLowerCase(Locale.ROOT);
+    }
+
+    @Benchmark
+    public String normalizeSinglePass() {
+        return SearchText.normalize(term());
+    }
+
+    private static String term() {
+        return TERMS[ThreadLocalRandom.current().nextInt(TERMS.length)];
+    }
+}
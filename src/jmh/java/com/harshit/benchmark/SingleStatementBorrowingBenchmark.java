@@ -0,0 +1,49 @@
+package com.harshit.benchmark;
+
+import com.harshit.entity.Borrowing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A borrow followed by its return, through the JPA path and through the single-statement CTE path. The JPA path
+ * makes two round trips per borrow and three per return, the CTE path one each; the difference grows with the
+ * latency to the database.
+ * <p>
+ * The CTE statements need PostgreSQL, so run this with {@code -Dbench.datasource.url=jdbc:postgresql://...}.
+ * Against the embedded H2 database only {@code singleStatement=false} runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class SingleStatementBorrowingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Library extends LibraryState {
+
+        @Param({"false", "true"})
+        public boolean singleStatement;
+
+        @Override
+        Map<String, Object> contextProperties() {
+            if (singleStatement && !System.getProperty("bench.datasource.url", "").startsWith("jdbc:postgresql:")) {
+                throw new IllegalStateException("singleStatement=true needs -Dbench.datasource.url=jdbc:postgresql://...");
+            }
+            Map<String, Object> properties = properties();
+            properties.put("library.borrowing.single-statement", singleStatement);
+            return properties;
+        }
+    }
+
+    @Benchmark
+    public Borrowing borrowAndReturn(Library state) {
+        long loan = state.nextLoan.getAndIncrement();
+        String book = LibraryState.title((int) (loan % state.rows));
+        String member = LibraryState.memberName((int) ((loan / state.rows) % state.members));
+        state.borrowingService.borrowBook(book, member);
+        return state.borrowingService.returnBook(book, member);
+    }
+}
@@ -0,0 +1,38 @@
+package com.harshit.benchmark;
+
+import com.harshit.dto.Suggestion;
+import com.harshit.search.SuggestionIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /books/suggest} lookups against the seeded catalog, sampled so the report carries p99 and p99.9. Prefixes
+ * are one to six characters of a random title word, the way a search box sends them while someone types.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class SuggestionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SuggestionState {
+        SuggestionIndex suggestionIndex;
+
+        @Setup(Level.Trial)
+        public void setUp(LibraryState library) {
+            suggestionIndex = library.context.getBean(SuggestionIndex.class);
+        }
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest(SuggestionState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String word = LibraryState.WORDS[random.nextInt(LibraryState.WORDS.length)];
+        return state.suggestionIndex.suggest(word.substring(0, 1 + random.nextInt(Math.min(6, word.length()))), null);
+    }
+}
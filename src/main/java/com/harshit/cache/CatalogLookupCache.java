@@ -0,0 +1,90 @@
+package com.harshit.cache;
+
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.MemberRepository;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.SyncCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of {@code findByTitle} / {@code findByName}.
+ * <p>
+ * Both caches are Caffeine caches configured under {@code micronaut.caches} (size bound, TTL, stats), so eviction is
+ * W-TinyLFU and the hit/miss/eviction counters are published through Micrometer as {@code cache.*} meters. Misses
+ * are not cached, so a newly saved book or member is visible straight away; anything that changes a cached row
+ * must call the matching {@code evict} method once its transaction has committed.
+ * <p>
+ * Cached entities are detached and shared between callers: use them for reads and as references, and load a fresh
+ * copy from the repository before changing one.
+ */
+@Singleton
+public class CatalogLookupCache {
+
+    public static final String BOOKS_BY_TITLE = "books-by-title";
+    public static final String MEMBERS_BY_NAME = "members-by-name";
+
+    @Inject
+    private CacheManager<?> cacheManager;
+
+    @Inject
+    private BookRepository bookRepository;
+
+    @Inject
+    private MemberRepository memberRepository;
+
+    private SyncCache<?> books;
+    private SyncCache<?> members;
+
+    @PostConstruct
+    void init() {
+        books = cacheManager.getCache(BOOKS_BY_TITLE);
+        members = cacheManager.getCache(MEMBERS_BY_NAME);
+    }
+
+    public Optional<Book> findBookByTitle(String title) {
+        if (title == null) return Optional.empty();
+        // A null from the loader is not stored, so unknown titles always go to the database
+        return Optional.ofNullable(books.get(title, Book.class, () -> bookRepository.findByTitle(title).orElse(null)));
+    }
+
+    public Optional<Member> findMemberByName(String name) {
+        if (name == null) return Optional.empty();
+        return Optional.ofNullable(members.get(name, Member.class, () -> memberRepository.findByName(name).orElse(null)));
+    }
+
+    // Cache-only lookups and fills, for callers that load rows themselves without blocking
+    public Optional<Book> cachedBook(String title) {
+        return title == null ? Optional.empty() : books.get(title, Book.class);
+    }
+
+    public Optional<Member> cachedMember(String name) {
+        return name == null ? Optional.empty() : members.get(name, Member.class);
+    }
+
+    public void cacheBook(Book book) {
+        if (book.getTitle() != null) books.put(book.getTitle(), book);
+    }
+
+    public void cacheMember(Member member) {
+        if (member.getName() != null) members.put(member.getName(), member);
+    }
+
+    public void evictBook(String title) {
+        if (title != null) books.invalidate(title);
+    }
+
+    public void evictMember(String name) {
+        if (name != null) members.invalidate(name);
+    }
+
+    public void evictAll() {
+        books.invalidateAll();
+        members.invalidateAll();
+    }
+}
@@ -0,0 +1,177 @@
+package com.harshit.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.harshit.replica.ReadReplica;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.SyncCache;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.*;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Server-side cache of the rendered catalog reads: {@code /books/{name}}, {@code /books/getAll} and the searches.
+ * <p>
+ * Responses are cached as JSON bytes, keyed by path and query (parameters sorted), together with the
+ * {@link CatalogVersion} that was current before the handler read anything. An entry is served while that is still
+ * the current version; any book write moves the version on, and the next request renders afresh. Only 200 responses
+ * are stored, and not those read from the replica within {@code library.replica.max-lag} of a write, which may
+ * predate it.
+ * <p>
+ * Every response carries a strong ETag, a digest of the body, and {@code Cache-Control: no-cache} so clients come
+ * back with {@code If-None-Match} and get a 304 while nothing has changed. The ETag depends on the body alone, so it
+ * holds across restarts and instances, where the version counter starts over.
+ * <p>
+ * {@code catalog-responses} is a Caffeine cache under {@code micronaut.caches}, bounded by the bytes it holds, and
+ * its hit ratio is published with the other {@code cache.*} meters. The version only moves for writes made through
+ * this instance, so entries also expire after a short {@code expire-after-write}, which bounds how long a write made
+ * through another instance goes unseen.
+ */
+@Filter(patterns = {"/books/*", "/books/getAll", "/books/search/**"}, methods = HttpMethod.GET)
+@Requires(property = "library.response-cache.enabled", notEquals = "false")
+public class CatalogResponseCache implements HttpServerFilter {
+
+    public static final String CATALOG_RESPONSES = "catalog-responses";
+
+    // Matched by /books/* but not cached: health is not a catalog read, and every typed prefix would take an entry
+    private static final String HEALTH = "/books/health";
+    private static final String SUGGEST = "/books/suggest";
+
+    @Inject
+    private CacheManager<?> cacheManager;
+
+    @Inject
+    private CatalogVersion catalogVersion;
+
+    @Inject
+    private ObjectMapper objectMapper;
+
+    @Value("${library.replica.max-lag:5s}")
+    private Duration replicaMaxLag;
+
+    private SyncCache<?> responses;
+
+    @PostConstruct
+    void init() {
+        responses = cacheManager.getCache(CATALOG_RESPONSES);
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        if (HEALTH.equals(request.getPath()) || SUGGEST.equals(request.getPath())) return chain.proceed(request);
+
+        String key = key(request.getUri());
+        long version = catalogVersion.current();
+        Optional<Entry> cached = responses.get(key, Entry.class);
+        if (cached.isPresent() && cached.get().version == version) {
+            return Mono.just(respond(request, cached.get()));
+        }
+        return Flux.from(chain.proceed(request)).map(response -> {
+            if (response.status() != HttpStatus.OK || response.getBody().isEmpty()) return response;
+            // Read from the replica so soon after a write that it may not have had the change yet
+            if (request.getAttribute(ReadReplica.SERVED_ATTRIBUTE).isPresent() && catalogVersion.changedWithin(replicaMaxLag)) {
+                return response;
+            }
+            Entry entry = new Entry(version, bytes(response.getBody().get()));
+            responses.put(key, entry);
+            return respond(request, entry);
+        });
+    }
+
+    private MutableHttpResponse<?> respond(HttpRequest<?> request, Entry entry) {
+        MutableHttpResponse<?> response = matches(request.getHeaders().getAll(HttpHeaders.IF_NONE_MATCH), entry.etag)
+                ? HttpResponse.notModified()
+                : HttpResponse.ok(Unpooled.wrappedBuffer(entry.body)).contentType(MediaType.APPLICATION_JSON_TYPE);
+        return response.header(HttpHeaders.ETAG, entry.etag).header(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    // The direct JSON path already rendered into a buffer; anything else is serialised here instead of by the codec
+    private byte[] bytes(Object body) {
+        if (body instanceof ByteBuf buffer) {
+            try {
+                return ByteBufUtil.getBytes(buffer);
+            } finally {
+                buffer.release();
+            }
+        }
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String key(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty()) return uri.getRawPath();
+        String[] parameters = query.split("&");
+        Arrays.sort(parameters);
+        return uri.getRawPath() + '?' + String.join("&", parameters);
+    }
+
+    // If-None-Match compares weakly, so a W/ prefix added by a proxy still matches
+    static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) tag = tag.substring(2);
+                if (tag.equals("*") || tag.equals(etag)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry {
+        final long version;
+        final byte[] body;
+        final String etag;
+
+        Entry(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+            this.etag = '"' + HexFormat.of().formatHex(sha256(body), 0, 16) + '"';
+        }
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Lets maximum-weight bound the cache by the size of the bodies it holds
+    @Singleton
+    @Named(CATALOG_RESPONSES)
+    static class EntryWeigher implements Weigher<Object, Object> {
+        @Override
+        public int weigh(Object key, Object value) {
+            return ((String) key).length() + ((Entry) value).body.length;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.harshit.cache;
+
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter that moves whenever a book row is added, changed or removed, quantity included. Anything cached from the
+ * catalog is good for as long as the version it was read at is still the current one (see
+ * {@link CatalogResponseCache}).
+ * <p>
+ * Writers bump it once their transaction has committed, so a reader that takes the version before reading the rows
+ * can only ever store a response under a version that is already stale, never the other way round.
+ */
+@Singleton
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile long changedAt = System.nanoTime();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        changedAt = System.nanoTime();
+        version.incrementAndGet();
+    }
+
+    public boolean changedWithin(Duration period) {
+        return System.nanoTime() - changedAt < period.toNanos();
+    }
+}
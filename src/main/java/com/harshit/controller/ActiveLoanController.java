@@ -0,0 +1,44 @@
+package com.harshit.controller;
+
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.service.BorrowingService;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Optional;
+
+// Answered from the in-memory ActiveLoanIndex; only resolving a name that isn't cached reaches the database
+@Controller
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
+@Tag(name = "Borrowing Operations", description = "Operations related to borrowing and returning books")
+public class ActiveLoanController {
+
+    @Inject
+    private BorrowingService borrowingService;
+
+    @Operation(summary = "Books a member has on loan", description = "Titles of the member's open loans, most recent first. A title borrowed twice is listed twice.")
+    @ApiResponse(responseCode = "200", description = "Open loans of the member")
+    @ApiResponse(responseCode = "404", description = "Member not found")
+    @Get("/members/{name}/loans")
+    public HttpResponse<List<String>> getMemberLoans(@Parameter(description = "Name of the member") @PathVariable("name") String name) {
+        Optional<List<String>> loans = borrowingService.getMemberLoans(name);
+        return loans.isPresent() ? HttpResponse.ok(loans.get()) : HttpResponse.notFound();
+    }
+
+    @Operation(summary = "Members holding a book", description = "Names of the members who currently have a copy of the book, most recent first.")
+    @ApiResponse(responseCode = "200", description = "Current holders of the book")
+    @ApiResponse(responseCode = "404", description = "Book not found")
+    @Get("/books/{name}/holders")
+    public HttpResponse<List<String>> getBookHolders(@Parameter(description = "Title of the book") @PathVariable("name") String title) {
+        Optional<List<String>> holders = borrowingService.getBookHolders(title);
+        return holders.isPresent() ? HttpResponse.ok(holders.get()) : HttpResponse.notFound();
+    }
+}
@@ -0,0 +1,33 @@
+package com.harshit.controller;
+
+import com.harshit.dto.AvailabilityChange;
+import com.harshit.inventory.AvailabilityFeed;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.*;
+import io.micronaut.http.sse.Event;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import org.reactivestreams.Publisher;
+
+import java.util.List;
+
+// Push alternative to polling /books/{name}; nothing here blocks, so subscriptions stay on the event loop
+@Controller("/availability")
+@Tag(name = "Book Management", description = "APIs related to managing books in the library")
+public class AvailabilityController {
+
+    @Inject
+    private AvailabilityFeed availabilityFeed;
+
+    @Operation(summary = "Stream availability changes", description = "Server-sent events for every committed change to a title's stock: added, updated, deleted, borrowed and returned, named after the change. Pass `title` once or more to follow only those titles. A client that falls behind receives a `resync` event and is disconnected; read the titles again and reconnect.")
+    @ApiResponse(responseCode = "200", description = "Event stream")
+    @Get(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM)
+    public Publisher<Event<AvailabilityChange>> streamChanges(
+            @Parameter(description = "Titles to follow, all titles when omitted") @Nullable @QueryValue List<String> title) {
+        return availabilityFeed.subscribe(title)
+                .map(change -> Event.of(change).name(change.getType().name().toLowerCase()));
+    }
+}
@@ -1,40 +1,49 @@
 package com.harshit.controller;
 
 import com.harshit.entity.Book;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.importer.CatalogImporter;
+import com.harshit.importer.ImportFormat;
 import com.harshit.service.BookService;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
+import org.reactivestreams.Publisher;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
 
 import static io.micronaut.http.MediaType.APPLICATION_JSON;
+import static io.micronaut.http.MediaType.APPLICATION_JSON_STREAM;
+import static io.micronaut.http.MediaType.TEXT_PLAIN;
 
 @Controller(value = "/books")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
 @Tag(name = "Book Management", description = "APIs related to managing books in the library")
 public class BookController {
 
     @Inject
     BookService bookService;
 
+    @Inject
+    CatalogImporter catalogImporter;
+
     @Operation(summary = "Check the health of the Book API", description = "Returns a simple status message")
     @Get(value = "/health", produces = APPLICATION_JSON)
     public String health() {
         return "OK";
     }
 
-    @Operation(summary = "Retrieve all books", description = "Fetches all books from the library")
-    @Get(value = "/getAll")
-    public Iterable<Book> getAllBooks() {
-        return bookService.getListOfBooks();
-    }
-
-    @Operation(summary = "Fetch a specific book by name", description = "Retrieves a book by its title")
-    @Get(value = "/{name}")
-    public HttpResponse<Book> getSpecificBook(@PathVariable("name") String title) {
-        return bookService.getBookByName(title);
+    @Operation(summary = "Stream all books", description = "Streams every book, as NDJSON for `application/x-json-stream` or as a chunked JSON array for `application/json`")
+    @Get(value = "/getAll/stream", produces = {APPLICATION_JSON_STREAM, APPLICATION_JSON})
+    public Publisher<Book> streamAllBooks() {
+        return bookService.streamBooks();
     }
 
     @Operation(summary = "Add a new book to the library", description = "Creates a new book record")
@@ -43,6 +52,19 @@ public class BookController {
         return bookService.saveBook(book);
     }
 
+    @Operation(summary = "Bulk import books", description = "Streams a CSV (with a title,author,quantity,publishedYear header) or NDJSON body into the catalog, skipping titles that already exist")
+    @ExecuteOn(TaskExecutors.IO)
+    @Post(value = "/import", consumes = {"text/csv", "application/x-ndjson", APPLICATION_JSON_STREAM, TEXT_PLAIN})
+    public HttpResponse<?> importBooks(@Body InputStream body, @QueryValue(defaultValue = "csv") String format) throws IOException {
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+        return HttpResponse.ok(catalogImporter.importBooks(body, importFormat));
+    }
+
     @Operation(summary = "Update an existing book", description = "Updates the information of an existing book")
     @Put("/update/{name}")
     public HttpResponse<String> updateBook(@PathVariable("name") String title, @Body Book book, @QueryValue(defaultValue = "false") boolean confirm) {
@@ -54,28 +76,4 @@ public class BookController {
     public HttpResponse<String> deleteBook(@PathVariable("name") String title) {
         return bookService.deleteBook(title);
     }
-
-    @Operation(summary = "Search books by author name", description = "Fetches all books that match the given author name")
-    @Get("/search/author/{author}")
-    public HttpResponse<Map<String, Object>> searchBooksByAuthor(@PathVariable("author") String author) {
-        return bookService.searchBooksByAuthor(author);
-    }
-
-    @Operation(summary = "Search books by title", description = "Fetches books that match the given title, with warning for invalid input.")
-    @Get("/search/title/{title}")
-    public HttpResponse<Map<String, Object>> searchBooksByTitle(@PathVariable("title") String title) {
-        return bookService.searchBooksByTitle(title);
-    }
-
-    @Operation(summary = "Search books by year range", description = "Fetches all books published within the given start and end year")
-    @Get("/search/yearRange")
-    public HttpResponse<Map<String, Object>> searchBooksByYearRange(@QueryValue int startYear, @QueryValue int endYear) {
-        return bookService.searchBooksByYearRange(startYear, endYear);
-    }
-
-    @Operation(summary = "Search books by title and year range", description = "Fetches all books that match the title and fall within the given year range")
-    @Get("/search/titleYearRange")
-    public HttpResponse<Map<String, Object>> searchBooksByTitleAndYearRange(@QueryValue String title, @QueryValue int startYear, @QueryValue int endYear) {
-        return bookService.searchBooksByTitleAndYearRange(title, startYear, endYear);
-    }
 }
@@ -0,0 +1,71 @@
+package com.harshit.controller;
+
+import com.harshit.entity.Book;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.json.RowJsonWriter;
+import com.harshit.service.BookService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+// Book lookups and searches over JPA; ReactiveBookReadController serves the same routes when library.reads.mode is reactive
+@Controller(value = "/books")
+@Requires(property = "library.reads.mode", notEquals = "reactive")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
+@Tag(name = "Book Management", description = "APIs related to managing books in the library")
+public class BookReadController {
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    RowJsonWriter rowJsonWriter;
+
+    @Operation(summary = "Retrieve all books", description = "Fetches one page of books ordered by id. Pass the returned `nextCursor` as `after` to get the next page.")
+    @Get(value = "/getAll")
+    public HttpResponse<?> getAllBooks(@Nullable @QueryValue Long after, @Nullable @QueryValue Integer size) {
+        if (rowJsonWriter.isEnabled()) return bookService.getBooksPageJson(after, size);
+        return HttpResponse.ok(bookService.getBooksPage(after, size));
+    }
+
+    @Operation(summary = "Fetch a specific book by name", description = "Retrieves a book by its title")
+    @Get(value = "/{name}")
+    public HttpResponse<Book> getSpecificBook(@PathVariable("name") String title) {
+        return bookService.getBookByName(title);
+    }
+
+    @Operation(summary = "Search books by author name", description = "Fetches all books that match the given author name")
+    @Get("/search/author/{author}")
+    public HttpResponse<?> searchBooksByAuthor(@PathVariable("author") String author) {
+        if (rowJsonWriter.isEnabled()) return bookService.searchBooksByAuthorJson(author);
+        return bookService.searchBooksByAuthor(author);
+    }
+
+    @Operation(summary = "Search books by title", description = "Fetches books that match the given title, with warning for invalid input.")
+    @Get("/search/title/{title}")
+    public HttpResponse<?> searchBooksByTitle(@PathVariable("title") String title) {
+        if (rowJsonWriter.isEnabled()) return bookService.searchBooksByTitleJson(title);
+        return bookService.searchBooksByTitle(title);
+    }
+
+    @Operation(summary = "Search books by year range", description = "Fetches all books published within the given start and end year")
+    @Get("/search/yearRange")
+    public HttpResponse<?> searchBooksByYearRange(@QueryValue int startYear, @QueryValue int endYear) {
+        if (rowJsonWriter.isEnabled()) return bookService.searchBooksByYearRangeJson(startYear, endYear);
+        return bookService.searchBooksByYearRange(startYear, endYear);
+    }
+
+    @Operation(summary = "Search books by title and year range", description = "Fetches all books that match the title and fall within the given year range")
+    @Get("/search/titleYearRange")
+    public HttpResponse<?> searchBooksByTitleAndYearRange(@QueryValue String title, @QueryValue int startYear, @QueryValue int endYear) {
+        if (rowJsonWriter.isEnabled()) return bookService.searchBooksByTitleAndYearRangeJson(title, startYear, endYear);
+        return bookService.searchBooksByTitleAndYearRange(title, startYear, endYear);
+    }
+}
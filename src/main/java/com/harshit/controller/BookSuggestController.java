@@ -0,0 +1,28 @@
+package com.harshit.controller;
+
+import com.harshit.dto.Suggestion;
+import com.harshit.search.SuggestionIndex;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+// Answered from memory alone, so it stays on the event loop in every execution and read mode
+@Controller(value = "/books")
+@Tag(name = "Book Management", description = "APIs related to managing books in the library")
+public class BookSuggestController {
+
+    @Inject
+    SuggestionIndex suggestionIndex;
+
+    @Operation(summary = "Suggest titles and authors", description = "Completions for search-as-you-type: titles and authors starting with the prefix, most borrowed first. Case, spaces and punctuation are ignored.")
+    @Get("/suggest")
+    public List<Suggestion> suggest(@QueryValue String prefix,
+                                    @Parameter(description = "Number of suggestions, up to library.suggest.max-results") @Nullable @QueryValue Integer limit) {
+        return suggestionIndex.suggest(prefix, limit);
+    }
+}
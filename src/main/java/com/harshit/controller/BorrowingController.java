@@ -1,12 +1,17 @@
 package com.harshit.controller;
 
+import com.harshit.dto.BorrowingOutcome;
+import com.harshit.dto.BorrowingRequest;
 import com.harshit.entity.Borrowing;
 import com.harshit.exception.BookNotAvailableException;
 import com.harshit.exception.EntityNotFoundException;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
 import com.harshit.service.BorrowingService;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.http.HttpResponse;
-import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.*;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,16 +19,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
 
-import java.time.LocalDate;
 import java.util.List;
 
 @Controller("/borrowing")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
 @Tag(name = "Borrowing Operations", description = "Operations related to borrowing and returning books")
 public class BorrowingController {
 
     @Inject
     private BorrowingService borrowingService;
 
+    @Value("${library.borrowing.batch.max-items:1000}")
+    private int maxBatchItems;
+
     @Operation(summary = "Borrow a book", description = "Allows a library member to borrow a book if it is available.")
     @ApiResponse(
             responseCode = "200",
@@ -79,25 +88,25 @@ public class BorrowingController {
         }
     }
 
-    @Operation(summary = "Generate report of currently borrowed books")
-    @ApiResponse(
-            responseCode = "200",
-            description = "Report generated successfully"
-    )
-    @Get("/report/currently-borrowed")
-    public MutableHttpResponse<List<Object[]>> getCurrentlyBorrowedBooks(LocalDate currentDate) {
-        List<Object[]> borrowedBooks = borrowingService.getCurrentlyBorrowedBooks(currentDate);
-        return HttpResponse.ok(borrowedBooks);
+    @Operation(summary = "Borrow books in bulk", description = "Borrows a list of (bookName, memberName) pairs and reports the outcome of every item, in request order.")
+    @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item outcomes")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    @Post("/borrow/batch")
+    public HttpResponse<List<BorrowingOutcome>> borrowBooks(@Body List<BorrowingRequest> requests) {
+        if (requests.isEmpty() || requests.size() > maxBatchItems) {
+            return HttpResponse.badRequest();
+        }
+        return HttpResponse.ok(borrowingService.borrowBooks(requests));
     }
 
-    @Operation(summary = "Generate report of overdue books")
-    @ApiResponse(
-            responseCode = "200",
-            description = "Overdue report generated successfully"
-    )
-    @Get("/report/overdue")
-    public MutableHttpResponse<List<Object[]>> getOverdueBooks() {
-        List<Object[]> overdueBooks = borrowingService.getOverdueBooks();
-        return HttpResponse.ok(overdueBooks);
+    @Operation(summary = "Return books in bulk", description = "Returns a list of (bookName, memberName) pairs and reports the outcome of every item, in request order.")
+    @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item outcomes")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    @Post("/return/batch")
+    public HttpResponse<List<BorrowingOutcome>> returnBooks(@Body List<BorrowingRequest> requests) {
+        if (requests.isEmpty() || requests.size() > maxBatchItems) {
+            return HttpResponse.badRequest();
+        }
+        return HttpResponse.ok(borrowingService.returnBooks(requests));
     }
 }
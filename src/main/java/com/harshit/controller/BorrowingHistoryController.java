@@ -0,0 +1,40 @@
+package com.harshit.controller;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanHistoryEntry;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.service.BorrowingService;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+// Returned loans, read from borrowing and borrowing_history in either read mode
+@Controller("/borrowing")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
+@Tag(name = "Borrowing Operations", description = "Operations related to borrowing and returning books")
+public class BorrowingHistoryController {
+
+    @Inject
+    private BorrowingService borrowingService;
+
+    @Operation(summary = "Borrowing history", description = "Returned loans in the order they were borrowed, including those already archived. Pass `nextCursor` back as `after` for the next page.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "History page returned successfully"
+    )
+    @Get("/history")
+    public HttpResponse<CursorPage<LoanHistoryEntry>> getBorrowingHistory(
+            @Parameter(description = "Only loans of this member") @Nullable @QueryValue String memberName,
+            @Parameter(description = "Only loans of this book") @Nullable @QueryValue String bookName,
+            @Parameter(description = "Cursor returned by the previous page") @Nullable @QueryValue Long after,
+            @Parameter(description = "Page size") @Nullable @QueryValue Integer size) {
+        return HttpResponse.ok(borrowingService.getBorrowingHistory(memberName, bookName, after, size));
+    }
+}
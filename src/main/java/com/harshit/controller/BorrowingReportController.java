@@ -0,0 +1,69 @@
+package com.harshit.controller;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.json.RowJsonWriter;
+import com.harshit.service.BorrowingService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+
+// Loan reports; ReactiveBorrowingReportController serves the same routes when library.reads.mode is reactive
+@Controller("/borrowing")
+@Requires(property = "library.reads.mode", notEquals = "reactive")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
+@Tag(name = "Borrowing Operations", description = "Operations related to borrowing and returning books")
+public class BorrowingReportController {
+
+    @Inject
+    private BorrowingService borrowingService;
+
+    @Inject
+    private RowJsonWriter rowJsonWriter;
+
+    @Operation(summary = "Generate report of currently borrowed books", description = "Open loans due after the given date (default today), earliest due date first. Pass `nextCursor` back as `after` for the next page.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Report generated successfully"
+    )
+    @Get("/report/currently-borrowed")
+    public HttpResponse<?> getCurrentlyBorrowedBooks(
+            @Parameter(description = "Report date, defaults to today") @Nullable @QueryValue LocalDate currentDate,
+            @Parameter(description = "Only loans of this member") @Nullable @QueryValue String memberName,
+            @Parameter(description = "Only loans of this book") @Nullable @QueryValue String bookName,
+            @Parameter(description = "Cursor returned by the previous page") @Nullable @QueryValue Long after,
+            @Parameter(description = "Page size") @Nullable @QueryValue Integer size) {
+        CursorPage<LoanReportEntry> borrowedBooks = borrowingService.getCurrentlyBorrowedBooks(currentDate, memberName, bookName, after, size);
+        return respond(borrowedBooks);
+    }
+
+    @Operation(summary = "Generate report of overdue books", description = "Open loans past their due date, oldest first. Pass `nextCursor` back as `after` for the next page.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Overdue report generated successfully"
+    )
+    @Get("/report/overdue")
+    public HttpResponse<?> getOverdueBooks(
+            @Parameter(description = "Only loans of this member") @Nullable @QueryValue String memberName,
+            @Parameter(description = "Only loans of this book") @Nullable @QueryValue String bookName,
+            @Parameter(description = "Cursor returned by the previous page") @Nullable @QueryValue Long after,
+            @Parameter(description = "Page size") @Nullable @QueryValue Integer size) {
+        CursorPage<LoanReportEntry> overdueBooks = borrowingService.getOverdueBooks(memberName, bookName, after, size);
+        return respond(overdueBooks);
+    }
+
+    private HttpResponse<?> respond(CursorPage<LoanReportEntry> page) {
+        return rowJsonWriter.isEnabled() ? RowJsonWriter.ok(rowJsonWriter.loans(page)) : HttpResponse.ok(page);
+    }
+}
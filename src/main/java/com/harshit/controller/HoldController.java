@@ -0,0 +1,65 @@
+package com.harshit.controller;
+
+import com.harshit.dto.HoldPosition;
+import com.harshit.exception.EntityNotFoundException;
+import com.harshit.exception.HoldNotAllowedException;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.service.HoldService;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+
+@Controller("/borrowing/hold")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
+@Tag(name = "Borrowing Operations", description = "Operations related to borrowing and returning books")
+public class HoldController {
+
+    @Inject
+    private HoldService holdService;
+
+    @Operation(summary = "Place a hold", description = "Queues the member for the next copy of a book that has none on the shelf. A returned copy is kept for the first member in the queue, who can then borrow it as usual.")
+    @ApiResponse(responseCode = "200", description = "Hold placed, with its position in the queue")
+    @ApiResponse(responseCode = "400", description = "Book or member not found, a copy is available, or the member already has a hold")
+    @Post
+    public HttpResponse<?> placeHold(
+            @Parameter(description = "Name of the book") @QueryValue String bookName,
+            @Parameter(description = "Name of the member") @QueryValue String memberName,
+            @Parameter(description = "Holds with a higher priority are served first") @Nullable @QueryValue Integer priority) {
+        try {
+            holdService.placeHold(bookName, memberName, priority != null ? priority : 0);
+        } catch (EntityNotFoundException | HoldNotAllowedException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+        return HttpResponse.ok(holdService.getHoldPosition(bookName, memberName).orElse(null));
+    }
+
+    @Operation(summary = "Position of a hold", description = "Answered from the in-memory queue.")
+    @ApiResponse(responseCode = "200", description = "Status and position of the hold")
+    @ApiResponse(responseCode = "404", description = "The member has no active hold on the book")
+    @Get
+    public HttpResponse<HoldPosition> getHoldPosition(
+            @Parameter(description = "Name of the book") @QueryValue String bookName,
+            @Parameter(description = "Name of the member") @QueryValue String memberName) {
+        Optional<HoldPosition> position = holdService.getHoldPosition(bookName, memberName);
+        return position.isPresent() ? HttpResponse.ok(position.get()) : HttpResponse.notFound();
+    }
+
+    @Operation(summary = "Cancel a hold", description = "A copy already kept for the member passes to the next in the queue.")
+    @ApiResponse(responseCode = "200", description = "Hold cancelled")
+    @ApiResponse(responseCode = "404", description = "The member has no active hold on the book")
+    @Delete
+    public HttpResponse<String> cancelHold(
+            @Parameter(description = "Name of the book") @QueryValue String bookName,
+            @Parameter(description = "Name of the member") @QueryValue String memberName) {
+        return holdService.cancelHold(bookName, memberName) ? HttpResponse.ok("Hold cancelled.") : HttpResponse.notFound();
+    }
+}
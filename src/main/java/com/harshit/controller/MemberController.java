@@ -1,26 +1,38 @@
 package com.harshit.controller;
 
 import com.harshit.entity.Member;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.importer.CatalogImporter;
+import com.harshit.importer.ImportFormat;
 import com.harshit.service.MemberService;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.*;
-import io.swagger.v3.oas.annotations.media.Content;
-import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
+import org.reactivestreams.Publisher;
 
-import java.util.Optional;
+import java.io.IOException;
+import java.io.InputStream;
 
 import static io.micronaut.http.MediaType.APPLICATION_JSON;
+import static io.micronaut.http.MediaType.APPLICATION_JSON_STREAM;
+import static io.micronaut.http.MediaType.TEXT_PLAIN;
 
 @Controller("/members")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
 @Tag(name = "Member Management", description = "Operations related to library members")  // Swagger Tag for grouping
 public class MemberController {
 
     @Inject private MemberService memberService;
 
+    @Inject private CatalogImporter catalogImporter;
+
     @Operation(summary = "Health Check", description = "Check if the service is running")
     @ApiResponse(responseCode = "200", description = "Service is healthy")
     @Get(value = "/health", produces = APPLICATION_JSON)
@@ -28,24 +40,11 @@ public class MemberController {
         return "OK";
     }
 
-    @Operation(summary = "Get all Members", description = "Retrieve all members from the library")
-    @ApiResponse(responseCode = "200", description = "All Members retrieved successfully")
-    @Get(value = "/getAll")
-    public Iterable<Member> getAllMembers() {
-        return memberService.getAllMembers();
-    }
-
-    @Operation(summary = "Get a Member by Name", description = "Retrieve a specific member by their name")
-    @ApiResponse(
-            responseCode = "200",
-            description = "Member found",
-            content = @Content(mediaType = APPLICATION_JSON, schema = @Schema(implementation = Member.class))
-    )
-    @ApiResponse(responseCode = "404", description = "Member not found")
-    @Get(value = "/{name}")
-    public HttpResponse<Member> getSpecificMember(@PathVariable("name") String name) {
-        Optional<Member> member = memberService.getMemberByName(name);
-        return member.isPresent() ? HttpResponse.ok(member.get()) : HttpResponse.notFound();
+    @Operation(summary = "Stream all Members", description = "Stream every member, as NDJSON for `application/x-json-stream` or as a chunked JSON array for `application/json`")
+    @ApiResponse(responseCode = "200", description = "Members streamed successfully")
+    @Get(value = "/getAll/stream", produces = {APPLICATION_JSON_STREAM, APPLICATION_JSON})
+    public Publisher<Member> streamAllMembers() {
+        return memberService.streamMembers();
     }
 
     @Operation(summary = "Add a New Member", description = "Add a new member to the library")
@@ -56,6 +55,21 @@ public class MemberController {
         return memberService.saveMember(member);
     }
 
+    @Operation(summary = "Bulk import Members", description = "Stream a CSV (with a name,email header) or NDJSON body into the library, skipping names that already exist")
+    @ApiResponse(responseCode = "200", description = "Import finished, see the report for counts")
+    @ApiResponse(responseCode = "400", description = "Unknown format")
+    @ExecuteOn(TaskExecutors.IO)
+    @Post(value = "/import", consumes = {"text/csv", "application/x-ndjson", APPLICATION_JSON_STREAM, TEXT_PLAIN})
+    public HttpResponse<?> importMembers(@Body InputStream body, @QueryValue(defaultValue = "csv") String format) throws IOException {
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+        return HttpResponse.ok(catalogImporter.importMembers(body, importFormat));
+    }
+
     @Operation(summary = "Update a Member", description = "Update an existing member or conditionally add a new one")
     @ApiResponse(responseCode = "200", description = "Member updated successfully")
     @ApiResponse(responseCode = "404", description = "Member not found")
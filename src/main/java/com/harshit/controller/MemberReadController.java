@@ -0,0 +1,56 @@
+package com.harshit.controller;
+
+import com.harshit.entity.Member;
+import com.harshit.execution.BlockingExecutorFactory;
+import com.harshit.execution.DatabaseBound;
+import com.harshit.json.RowJsonWriter;
+import com.harshit.service.MemberService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+
+import static io.micronaut.http.MediaType.APPLICATION_JSON;
+
+// Member lookups over JPA; ReactiveMemberReadController serves the same routes when library.reads.mode is reactive
+@Controller("/members")
+@Requires(property = "library.reads.mode", notEquals = "reactive")
+@ExecuteOn(BlockingExecutorFactory.NAME)
+@DatabaseBound
+@Tag(name = "Member Management", description = "Operations related to library members")
+public class MemberReadController {
+
+    @Inject private MemberService memberService;
+
+    @Inject private RowJsonWriter rowJsonWriter;
+
+    @Operation(summary = "Get all Members", description = "Retrieve one page of members ordered by id. Pass the returned `nextCursor` as `after` to get the next page.")
+    @ApiResponse(responseCode = "200", description = "Members retrieved successfully")
+    @Get(value = "/getAll")
+    public HttpResponse<?> getAllMembers(@Nullable @QueryValue Long after, @Nullable @QueryValue Integer size) {
+        if (rowJsonWriter.isEnabled()) return memberService.getMembersPageJson(after, size);
+        return HttpResponse.ok(memberService.getMembersPage(after, size));
+    }
+
+    @Operation(summary = "Get a Member by Name", description = "Retrieve a specific member by their name")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Member found",
+            content = @Content(mediaType = APPLICATION_JSON, schema = @Schema(implementation = Member.class))
+    )
+    @ApiResponse(responseCode = "404", description = "Member not found")
+    @Get(value = "/{name}")
+    public HttpResponse<Member> getSpecificMember(@PathVariable("name") String name) {
+        Optional<Member> member = memberService.getMemberByName(name);
+        return member.isPresent() ? HttpResponse.ok(member.get()) : HttpResponse.notFound();
+    }
+}
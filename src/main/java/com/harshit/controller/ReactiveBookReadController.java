@@ -0,0 +1,61 @@
+package com.harshit.controller;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.entity.Book;
+import com.harshit.service.ReactiveBookService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Same routes as BookReadController over R2DBC; nothing here blocks, so handlers stay on the event loop
+@Controller(value = "/books")
+@Requires(property = "library.reads.mode", value = "reactive")
+@Tag(name = "Book Management", description = "APIs related to managing books in the library")
+public class ReactiveBookReadController {
+
+    @Inject
+    ReactiveBookService reactiveBookService;
+
+    @Operation(summary = "Retrieve all books", description = "Fetches one page of books ordered by id. Pass the returned `nextCursor` as `after` to get the next page.")
+    @Get(value = "/getAll")
+    public Mono<CursorPage<Book>> getAllBooks(@Nullable @QueryValue Long after, @Nullable @QueryValue Integer size) {
+        return reactiveBookService.getBooksPage(after, size);
+    }
+
+    @Operation(summary = "Fetch a specific book by name", description = "Retrieves a book by its title")
+    @Get(value = "/{name}")
+    public Mono<HttpResponse<Book>> getSpecificBook(@PathVariable("name") String title) {
+        return reactiveBookService.getBookByName(title);
+    }
+
+    @Operation(summary = "Search books by author name", description = "Fetches all books that match the given author name")
+    @Get("/search/author/{author}")
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByAuthor(@PathVariable("author") String author) {
+        return reactiveBookService.searchBooksByAuthor(author);
+    }
+
+    @Operation(summary = "Search books by title", description = "Fetches books that match the given title, with warning for invalid input.")
+    @Get("/search/title/{title}")
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByTitle(@PathVariable("title") String title) {
+        return reactiveBookService.searchBooksByTitle(title);
+    }
+
+    @Operation(summary = "Search books by year range", description = "Fetches all books published within the given start and end year")
+    @Get("/search/yearRange")
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByYearRange(@QueryValue int startYear, @QueryValue int endYear) {
+        return reactiveBookService.searchBooksByYearRange(startYear, endYear);
+    }
+
+    @Operation(summary = "Search books by title and year range", description = "Fetches all books that match the title and fall within the given year range")
+    @Get("/search/titleYearRange")
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByTitleAndYearRange(@QueryValue String title, @QueryValue int startYear, @QueryValue int endYear) {
+        return reactiveBookService.searchBooksByTitleAndYearRange(title, startYear, endYear);
+    }
+}
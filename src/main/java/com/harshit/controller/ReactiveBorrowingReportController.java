@@ -0,0 +1,56 @@
+package com.harshit.controller;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.service.BorrowingService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.*;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// Reports come from the in-memory LoanReportIndex, so on the reactive path they are answered on the event loop
+@Controller("/borrowing")
+@Requires(property = "library.reads.mode", value = "reactive")
+@Tag(name = "Borrowing Operations", description = "Operations related to borrowing and returning books")
+public class ReactiveBorrowingReportController {
+
+    @Inject
+    private BorrowingService borrowingService;
+
+    @Operation(summary = "Generate report of currently borrowed books", description = "Open loans due after the given date (default today), earliest due date first. Pass `nextCursor` back as `after` for the next page.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Report generated successfully"
+    )
+    @Get("/report/currently-borrowed")
+    public Mono<MutableHttpResponse<CursorPage<LoanReportEntry>>> getCurrentlyBorrowedBooks(
+            @Parameter(description = "Report date, defaults to today") @Nullable @QueryValue LocalDate currentDate,
+            @Parameter(description = "Only loans of this member") @Nullable @QueryValue String memberName,
+            @Parameter(description = "Only loans of this book") @Nullable @QueryValue String bookName,
+            @Parameter(description = "Cursor returned by the previous page") @Nullable @QueryValue Long after,
+            @Parameter(description = "Page size") @Nullable @QueryValue Integer size) {
+        return Mono.fromSupplier(() -> HttpResponse.ok(borrowingService.getCurrentlyBorrowedBooks(currentDate, memberName, bookName, after, size)));
+    }
+
+    @Operation(summary = "Generate report of overdue books", description = "Open loans past their due date, oldest first. Pass `nextCursor` back as `after` for the next page.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Overdue report generated successfully"
+    )
+    @Get("/report/overdue")
+    public Mono<MutableHttpResponse<CursorPage<LoanReportEntry>>> getOverdueBooks(
+            @Parameter(description = "Only loans of this member") @Nullable @QueryValue String memberName,
+            @Parameter(description = "Only loans of this book") @Nullable @QueryValue String bookName,
+            @Parameter(description = "Cursor returned by the previous page") @Nullable @QueryValue Long after,
+            @Parameter(description = "Page size") @Nullable @QueryValue Integer size) {
+        return Mono.fromSupplier(() -> HttpResponse.ok(borrowingService.getOverdueBooks(memberName, bookName, after, size)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.harshit.controller;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.entity.Member;
+import com.harshit.service.ReactiveMemberService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Mono;
+
+import static io.micronaut.http.MediaType.APPLICATION_JSON;
+
+// Same routes as MemberReadController over R2DBC
+@Controller("/members")
+@Requires(property = "library.reads.mode", value = "reactive")
+@Tag(name = "Member Management", description = "Operations related to library members")
+public class ReactiveMemberReadController {
+
+    @Inject private ReactiveMemberService reactiveMemberService;
+
+    @Operation(summary = "Get all Members", description = "Retrieve one page of members ordered by id. Pass the returned `nextCursor` as `after` to get the next page.")
+    @ApiResponse(responseCode = "200", description = "Members retrieved successfully")
+    @Get(value = "/getAll")
+    public Mono<CursorPage<Member>> getAllMembers(@Nullable @QueryValue Long after, @Nullable @QueryValue Integer size) {
+        return reactiveMemberService.getMembersPage(after, size);
+    }
+
+    @Operation(summary = "Get a Member by Name", description = "Retrieve a specific member by their name")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Member found",
+            content = @Content(mediaType = APPLICATION_JSON, schema = @Schema(implementation = Member.class))
+    )
+    @ApiResponse(responseCode = "404", description = "Member not found")
+    @Get(value = "/{name}")
+    public Mono<HttpResponse<Member>> getSpecificMember(@PathVariable("name") String name) {
+        return reactiveMemberService.getMemberByName(name)
+                .<HttpResponse<Member>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+}
@@ -0,0 +1,35 @@
+package com.harshit.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed change to a title's stock, as pushed by {@code /availability/stream}. {@code delta} is the change in
+ * copies; {@code quantity} is the new total where the writer knows it, i.e. everything except borrows and returns.
+ */
+@Introspected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityChange {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        // Also sent for the old title when a book is renamed
+        DELETED,
+        BORROWED,
+        RETURNED,
+        // Last event to a subscriber that fell too far behind: changes were lost, re-read and reconnect
+        RESYNC
+    }
+
+    private Type type;
+    private String title;
+    private int delta;
+    @Nullable
+    private Integer quantity;
+}
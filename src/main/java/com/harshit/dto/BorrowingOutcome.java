@@ -0,0 +1,27 @@
+package com.harshit.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one item of a batch borrow/return request, reported in the same order as the request.
+ */
+@Introspected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BorrowingOutcome {
+
+    public enum Status { BORROWED, RETURNED, NOT_FOUND, NOT_AVAILABLE, NO_RECORD }
+
+    private String bookName;
+    private String memberName;
+    private Status status;
+    private String message;
+
+    public static BorrowingOutcome of(BorrowingRequest request, Status status, String message) {
+        return new BorrowingOutcome(request.getBookName(), request.getMemberName(), status, message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.harshit.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BorrowingRequest {
+    private String bookName;
+    private String memberName;
+}
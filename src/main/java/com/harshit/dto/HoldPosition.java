@@ -0,0 +1,24 @@
+package com.harshit.dto;
+
+import com.harshit.entity.Hold;
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Where a member's hold stands. {@code position} is 1 for the next in line, and 0 once a copy is waiting to be
+ * borrowed, until {@code readyUntil}.
+ */
+@Introspected
+@Data
+@AllArgsConstructor
+public class HoldPosition {
+    private String bookName;
+    private String memberName;
+    private Hold.Status status;
+    private int position;
+    private int waiting;
+    private LocalDate readyUntil;
+}
@@ -0,0 +1,19 @@
+package com.harshit.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    private long read;
+    private long imported;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+}
@@ -0,0 +1,27 @@
+package com.harshit.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One returned loan as listed by {@code /borrowing/history}, whether it is still in {@code borrowing} or has been
+ * archived to {@code borrowing_history}.
+ */
+@Introspected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanHistoryEntry {
+    private Long borrowingId;
+    private Long bookId;
+    private String bookName;
+    private Long memberId;
+    private String memberName;
+    private LocalDate borrowDate;
+    private LocalDate dueDate;
+    private LocalDate returnedDate;
+}
@@ -0,0 +1,28 @@
+package com.harshit.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.annotation.ReflectiveAccess;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One open loan as reported by {@code /borrowing/report/*}. The JPQL constructor expressions in
+ * {@code BorrowingRepository} build it reflectively, so the native image has to keep its constructors.
+ */
+@Introspected
+@ReflectiveAccess
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReportEntry {
+    private Long borrowingId;
+    private Long bookId;
+    private String bookName;
+    private Long memberId;
+    private String memberName;
+    private LocalDate borrowDate;
+    private LocalDate dueDate;
+}
@@ -0,0 +1,23 @@
+package com.harshit.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One completion from {@code /books/suggest}: a title or an author, with the number of times it has been borrowed
+ * (summed over the author's books for an author).
+ */
+@Introspected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+    public enum Type { TITLE, AUTHOR }
+
+    private String text;
+    private Type type;
+    private long borrows;
+}
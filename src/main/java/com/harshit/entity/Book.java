@@ -1,12 +1,19 @@
 package com.harshit.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.harshit.search.SearchText;
+import io.micronaut.configuration.hibernate.jpa.proxy.GenerateProxy;
 import io.micronaut.core.annotation.Introspected;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import javax.persistence.*;
 
 @Introspected //During the compilation phase, Micronaut generates metadata about this class (using the micronaut-inject-java processor).
 @Entity   // This annotation is handled by the JPA provider (like Hibernate).
 @Table(name = "books")
+// Borrowing's lazy book reference is this compile-time proxy when jpa.default.compile-time-hibernate-proxies is on
+@GenerateProxy
 @Data  //This is not directly read by Micronaut but is processed by Lombok at compile time.
 public class Book {
     @Id  //Micronaut delegates this annotation’s handling to the JPA provider (e.g., Hibernate)
@@ -17,4 +24,23 @@ public class Book {
     private String author;
     private  int quantity;
     private int publishedYear;
+
+    // Lower-cased alphanumeric title and author, compared by the searches instead of running a regex over each row.
+    // Derived from the fields above whenever the entity is written; JDBC inserts have to fill them themselves
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String titleNorm;
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String authorNorm;
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        titleNorm = SearchText.normalize(title);
+        authorNorm = SearchText.normalize(author);
+    }
 }
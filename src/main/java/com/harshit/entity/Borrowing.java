@@ -2,6 +2,8 @@ package com.harshit.entity;
 
 import io.micronaut.core.annotation.Introspected;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import javax.persistence.*;
 import java.time.LocalDate;
 
@@ -15,16 +17,23 @@ public class Borrowing {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Lazy so that loading a loan doesn't select its member and book as well; queries that need them join-fetch
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "member_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Member member;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Book book;
 
     private LocalDate borrowDate;
     private LocalDate returnDate;
+    // Null while the loan is open
+    private LocalDate returnedDate;
 
     private String bookName;
     private String memberName;
@@ -0,0 +1,47 @@
+package com.harshit.entity;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A member's place in the queue for a book. Ids rather than associations: the queue is kept in memory and only ever
+ * needs the keys and the names it reports.
+ */
+@Introspected
+@Entity
+@Table(name = "holds")
+@Data
+public class Hold {
+
+    public enum Status {
+        // In the queue
+        WAITING,
+        // A returned copy is set aside for the member until readyUntil
+        READY,
+        FULFILLED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long bookId;
+    private Long memberId;
+    private String bookName;
+    private String memberName;
+
+    // Higher goes first; equal priorities are served in the order the holds were placed
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private LocalDateTime placedAt;
+    private LocalDate readyUntil;
+}
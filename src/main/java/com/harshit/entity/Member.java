@@ -1,5 +1,6 @@
 package com.harshit.entity;
 
+import io.micronaut.configuration.hibernate.jpa.proxy.GenerateProxy;
 import io.micronaut.core.annotation.Introspected;
 import lombok.Data;
 import javax.persistence.*;
@@ -7,6 +8,8 @@ import javax.persistence.*;
 @Introspected
 @Entity
 @Table(name="member")
+// Borrowing's lazy member reference is this compile-time proxy when jpa.default.compile-time-hibernate-proxies is on
+@GenerateProxy
 @Data
 public class Member {
 
@@ -0,0 +1,116 @@
+package com.harshit.execution;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor the controllers offload their blocking JDBC work to ({@code @ExecuteOn(BlockingExecutorFactory.NAME)}),
+ * picked by {@code library.execution.mode}. How many of those handlers may hold a database connection at once is
+ * capped separately by {@link DatabaseBound}.
+ */
+@Factory
+public class BlockingExecutorFactory {
+
+    public static final String NAME = "jdbc";
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlockingExecutorFactory.class);
+
+    @Named(NAME)
+    @Singleton
+    @Bean(preDestroy = "shutdown")
+    public ExecutorService blockingExecutor(@Value("${library.execution.mode:virtual}") String mode,
+                                            @Value("${library.execution.threads:50}") int threads) {
+        switch (parse(mode)) {
+            case EVENT_LOOP:
+                return new CallerRunsExecutor();
+            case PLATFORM:
+                return platform(threads);
+            default:
+                ExecutorService virtual = virtual();
+                if (virtual != null) return virtual;
+                LOG.warn("Virtual threads need JDK 21 (running {}), using {} platform threads instead",
+                        Runtime.version(), threads);
+                return platform(threads);
+        }
+    }
+
+    static ExecutionMode parse(String mode) {
+        return ExecutionMode.valueOf(mode.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    private static ExecutorService platform(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, NAME + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    // The build targets Java 17, so the JDK 21 API is looked up rather than linked against. The native image keeps
+    // the method through META-INF/native-image/com.harshit/execution/reflect-config.json
+    private static ExecutorService virtual() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs each task on the thread that submitted it, i.e. the event loop. Keeps the old behaviour available for
+     * comparison.
+     */
+    static final class CallerRunsExecutor extends AbstractExecutorService {
+
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
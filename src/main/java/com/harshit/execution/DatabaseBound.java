@@ -0,0 +1,18 @@
+package com.harshit.execution;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+
+import java.lang.annotation.*;
+
+/**
+ * Caps how many calls to the annotated bean (or method) can use the database at once, see
+ * {@link DatabaseConcurrencyGuard}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+@Type(DatabaseConcurrencyGuard.class)
+public @interface DatabaseBound {
+}
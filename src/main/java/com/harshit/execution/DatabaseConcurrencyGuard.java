@@ -0,0 +1,60 @@
+package com.harshit.execution;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.exceptions.HttpStatusException;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backs {@link DatabaseBound}. With virtual threads there is no pool to bound how many requests hit the database at
+ * once, so this semaphore does it instead. It is sized to the Hikari pool by default, so callers queue here, cheaply,
+ * rather than inside Hikari holding a thread. A caller that can't get a permit within
+ * {@code library.execution.acquire-timeout} gets a 503.
+ */
+@Singleton
+public class DatabaseConcurrencyGuard implements MethodInterceptor<Object, Object> {
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public DatabaseConcurrencyGuard(
+            @Value("${library.execution.max-concurrency:10}") int maxConcurrency,
+            @Value("${library.execution.acquire-timeout:5s}") Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (Publisher.class.isAssignableFrom(context.getReturnType().getType())) {
+            // Streams pull their rows long after the handler returns; holding a permit here would guard nothing
+            return context.proceed();
+        }
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the database");
+        }
+        if (!acquired) {
+            throw new HttpStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The library is busy, please retry shortly");
+        }
+        try {
+            return context.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,13 @@
+package com.harshit.execution;
+
+/**
+ * Where the blocking (JDBC) controller handlers run, see {@code library.execution.mode}.
+ */
+public enum ExecutionMode {
+    /** Inline on the Netty event loop, the way handlers ran before they were offloaded. */
+    EVENT_LOOP,
+    /** A fixed pool of platform threads. */
+    PLATFORM,
+    /** One virtual thread per request; needs JDK 21, otherwise falls back to {@link #PLATFORM}. */
+    VIRTUAL
+}
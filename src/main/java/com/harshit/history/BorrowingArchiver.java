@@ -0,0 +1,73 @@
+package com.harshit.history;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Moves loans returned more than {@code library.borrowing.archive.retain-after-return} ago from {@code borrowing} to
+ * {@code borrowing_history}, every {@code library.borrowing.archive.interval}. Each batch is its own transaction, so
+ * a long backlog never holds locks on the hot table for longer than one batch takes.
+ */
+@Singleton
+@Requires(property = "library.borrowing.archive.enabled", notEquals = "false")
+public class BorrowingArchiver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BorrowingArchiver.class);
+
+    @Inject
+    private BorrowingHistory borrowingHistory;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Value("${library.borrowing.archive.retain-after-return:30d}")
+    private Duration retainAfterReturn;
+
+    @Value("${library.borrowing.archive.batch-size:1000}")
+    private int batchSize;
+
+    private Counter archived;
+
+    @PostConstruct
+    void init() {
+        archived = Counter.builder("library.borrowing.archived")
+                .description("Returned loans moved to borrowing_history")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelay = "${library.borrowing.archive.interval:1h}", initialDelay = "1m")
+    void run() {
+        try {
+            archive(LocalDate.now().minusDays(retainAfterReturn.toDays()));
+        } catch (RuntimeException e) {
+            // The loans stay where they are and the next run picks them up
+            LOG.warn("Archiving returned loans failed", e);
+        }
+    }
+
+    /**
+     * Archives every loan returned before {@code returnedBefore}, one batch at a time, and returns how many moved.
+     */
+    public long archive(LocalDate returnedBefore) {
+        long total = 0;
+        int moved;
+        do {
+            moved = borrowingHistory.archive(returnedBefore, batchSize);
+            archived.increment(moved);
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) LOG.info("Archived {} loans returned before {}", total, returnedBefore);
+        return total;
+    }
+}
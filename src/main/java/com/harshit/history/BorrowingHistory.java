@@ -0,0 +1,159 @@
+package com.harshit.history;
+
+import com.harshit.dto.LoanHistoryEntry;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Returned loans, in two places: {@code borrowing} keeps them until they are older than the archive cut-off, and
+ * {@link #archive} then moves them in batches to {@code borrowing_history}, which on PostgreSQL is range partitioned
+ * by {@code borrow_date} with one partition per year. The borrow and return paths and the open-loan queries only
+ * ever see {@code borrowing}, which stays the size of the open loans plus the retention window.
+ * <p>
+ * Both tables are read with JDBC; Hibernate validates every mapped table, and a partitioned table is not one the
+ * JDBC metadata reports as a {@code TABLE}.
+ */
+@Singleton
+public class BorrowingHistory {
+
+    private static final String COLUMNS = "id, member_id, book_id, borrow_date, return_date, returned_date, book_name, member_name";
+
+    private static final String SELECT_RETURNED = "SELECT id, borrow_date FROM borrowing WHERE returned_date < ? AND borrow_date IS NOT NULL ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String COPY_TO_HISTORY = "INSERT INTO borrowing_history (" + COLUMNS + ") SELECT " + COLUMNS + " FROM borrowing WHERE id = ANY (?)";
+    private static final String DELETE_RETURNED = "DELETE FROM borrowing WHERE id = ANY (?)";
+    private static final String IS_PARTITIONED = "SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('borrowing_history')";
+    private static final String CREATE_PARTITION = "CREATE TABLE IF NOT EXISTS borrowing_history_y%1$d PARTITION OF borrowing_history FOR VALUES FROM ('%1$d-01-01') TO ('%2$d-01-01')";
+
+    @Inject
+    private EntityManager entityManager;
+
+    private volatile Boolean partitioned;
+
+    /**
+     * Moves up to {@code limit} loans returned before {@code returnedBefore} to {@code borrowing_history}, oldest id
+     * first, and returns how many were moved. The rows are locked while they are copied, so two archivers running
+     * at once never move the same loan twice.
+     */
+    @Transactional
+    public int archive(LocalDate returnedBefore, int limit) {
+        return session().doReturningWork(connection -> {
+            List<Long> ids = new ArrayList<>();
+            SortedSet<Integer> years = new TreeSet<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_RETURNED)) {
+                statement.setDate(1, Date.valueOf(returnedBefore));
+                statement.setInt(2, limit);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        ids.add(rows.getLong(1));
+                        years.add(rows.getDate(2).toLocalDate().getYear());
+                    }
+                }
+            }
+            if (ids.isEmpty()) return 0;
+
+            if (isPartitioned(connection)) {
+                try (Statement statement = connection.createStatement()) {
+                    for (int year : years) statement.execute(String.format(CREATE_PARTITION, year, year + 1));
+                }
+            }
+            Array idArray = connection.createArrayOf("BIGINT", ids.toArray());
+            try (PreparedStatement copy = connection.prepareStatement(COPY_TO_HISTORY);
+                 PreparedStatement delete = connection.prepareStatement(DELETE_RETURNED)) {
+                copy.setArray(1, idArray);
+                copy.executeUpdate();
+                delete.setArray(1, idArray);
+                return delete.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Up to {@code limit} returned loans with an id above {@code after}, in id order, from both tables.
+     * {@code borrowing} is read first: a batch archived in between then shows up in both results rather than in
+     * neither, and the copies are dropped when the two are merged.
+     */
+    @Transactional
+    public List<LoanHistoryEntry> returnedLoans(long after, @Nullable String memberName, @Nullable String bookName, int limit) {
+        return session().doReturningWork(connection -> {
+            List<LoanHistoryEntry> recent = query(connection, "borrowing", "returned_date IS NOT NULL AND ", after, memberName, bookName, limit);
+            List<LoanHistoryEntry> archived = query(connection, "borrowing_history", "", after, memberName, bookName, limit);
+            return merge(recent, archived, limit);
+        });
+    }
+
+    private static List<LoanHistoryEntry> query(Connection connection, String table, String condition, long after,
+                                                @Nullable String memberName, @Nullable String bookName, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM ").append(table)
+                .append(" WHERE ").append(condition).append("id > ?");
+        if (memberName != null) sql.append(" AND member_name = ?");
+        if (bookName != null) sql.append(" AND book_name = ?");
+        sql.append(" ORDER BY id LIMIT ?");
+
+        List<LoanHistoryEntry> loans = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int parameter = 1;
+            statement.setLong(parameter++, after);
+            if (memberName != null) statement.setString(parameter++, memberName);
+            if (bookName != null) statement.setString(parameter++, bookName);
+            statement.setInt(parameter, limit);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    loans.add(new LoanHistoryEntry(rows.getLong(1), rows.getLong(3), rows.getString(7), rows.getLong(2),
+                            rows.getString(8), localDate(rows.getDate(4)), localDate(rows.getDate(5)), localDate(rows.getDate(6))));
+                }
+            }
+        }
+        return loans;
+    }
+
+    static List<LoanHistoryEntry> merge(List<LoanHistoryEntry> a, List<LoanHistoryEntry> b, int limit) {
+        List<LoanHistoryEntry> merged = new ArrayList<>(Math.min(a.size() + b.size(), limit));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            LoanHistoryEntry next;
+            if (j == b.size() || i < a.size() && a.get(i).getBorrowingId() <= b.get(j).getBorrowingId()) {
+                next = a.get(i++);
+                if (j < b.size() && b.get(j).getBorrowingId().equals(next.getBorrowingId())) j++;
+            } else {
+                next = b.get(j++);
+            }
+            merged.add(next);
+        }
+        return merged;
+    }
+
+    // Only a database that ran db/postgres has the partitioned table; anywhere else the history is a plain table
+    private boolean isPartitioned(Connection connection) throws SQLException {
+        Boolean known = partitioned;
+        if (known != null) return known;
+        boolean result = false;
+        if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(IS_PARTITIONED)) {
+                result = rows.next();
+            }
+        }
+        partitioned = result;
+        return result;
+    }
+
+    private static LocalDate localDate(@Nullable Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
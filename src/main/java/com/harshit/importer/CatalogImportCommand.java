@@ -0,0 +1,37 @@
+package com.harshit.importer;
+
+import com.harshit.dto.ImportReport;
+import io.micronaut.context.ApplicationContext;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command line entry point for large imports that should not go through HTTP:
+ * <pre>
+ * ./gradlew importCatalog --args="books catalog.csv"
+ * ./gradlew importCatalog --args="members members.ndjson ndjson"
+ * </pre>
+ */
+public class CatalogImportCommand {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || !(args[0].equals("books") || args[0].equals("members"))) {
+            System.err.println("Usage: CatalogImportCommand <books|members> <file> [csv|ndjson]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[1]);
+        ImportFormat format = args.length > 2 ? ImportFormat.parse(args[2])
+                : file.toString().endsWith(".ndjson") ? ImportFormat.NDJSON : ImportFormat.CSV;
+
+        try (ApplicationContext context = ApplicationContext.run();
+             InputStream input = Files.newInputStream(file)) {
+            CatalogImporter importer = context.getBean(CatalogImporter.class);
+            ImportReport report = args[0].equals("books")
+                    ? importer.importBooks(input, format)
+                    : importer.importMembers(input, format);
+            System.out.println(report);
+        }
+    }
+}
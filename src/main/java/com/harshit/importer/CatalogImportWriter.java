@@ -0,0 +1,92 @@
+package com.harshit.importer;
+
+import com.harshit.cache.CatalogVersion;
+import com.harshit.dto.AvailabilityChange;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.inventory.AvailabilityFeed;
+import com.harshit.metrics.Instrumented;
+import com.harshit.search.BookSearchIndex;
+import com.harshit.search.SearchText;
+import com.harshit.search.SuggestionIndex;
+import com.harshit.service.TransactionCallbacks;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Writes one import chunk per transaction as a single JDBC batch on the transaction's connection.
+ */
+@Instrumented
+@Singleton
+public class CatalogImportWriter {
+
+    private static final String INSERT_BOOK = "INSERT INTO books (title, author, quantity, published_year, title_norm, author_norm) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEMBER = "INSERT INTO member (name, email) VALUES (?, ?)";
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private BookSearchIndex bookSearchIndex;
+
+    @Inject
+    private CatalogVersion catalogVersion;
+
+    @Inject
+    private AvailabilityFeed availabilityFeed;
+
+    @Inject
+    private SuggestionIndex suggestionIndex;
+
+    @Transactional
+    public void insertBooks(List<Book> books) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOK, new String[]{"id"})) {
+                for (Book book : books) {
+                    statement.setString(1, book.getTitle());
+                    statement.setString(2, book.getAuthor());
+                    statement.setInt(3, book.getQuantity());
+                    statement.setInt(4, book.getPublishedYear());
+                    statement.setString(5, SearchText.normalize(book.getTitle()));
+                    statement.setString(6, SearchText.normalize(book.getAuthor()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; i < books.size() && keys.next(); i++) {
+                        books.get(i).setId(keys.getLong(1));
+                    }
+                }
+            }
+        });
+        TransactionCallbacks.afterCommit(() -> {
+            books.forEach(bookSearchIndex::index);
+            books.forEach(suggestionIndex::index);
+            catalogVersion.bump();
+            for (Book book : books) {
+                availabilityFeed.publish(AvailabilityChange.Type.ADDED, book.getTitle(), book.getQuantity(), book.getQuantity());
+            }
+        });
+    }
+
+    @Transactional
+    public void insertMembers(List<Member> members) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_MEMBER)) {
+                for (Member member : members) {
+                    statement.setString(1, member.getName());
+                    statement.setString(2, member.getEmail());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
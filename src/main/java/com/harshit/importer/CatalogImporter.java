@@ -0,0 +1,156 @@
+package com.harshit.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harshit.dto.ImportReport;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.MemberRepository;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streaming bulk import of books and members from CSV or NDJSON.
+ * <p>
+ * Input is parsed one line at a time and written in chunks of {@code library.import.chunk-size} rows, each in its
+ * own transaction. The next chunk is only read once the previous one is in the database, so a slow database slows
+ * the reader down instead of letting rows pile up in memory. Rows whose title/name already exists, in the database
+ * or earlier in the same file, are skipped using a hash set loaded up front.
+ */
+@Singleton
+public class CatalogImporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogImporter.class);
+
+    @Inject
+    private BookRepository bookRepository;
+
+    @Inject
+    private MemberRepository memberRepository;
+
+    @Inject
+    private CatalogImportWriter writer;
+
+    @Inject
+    private ObjectMapper objectMapper;
+
+    @Value("${library.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${library.import.progress-interval:100000}")
+    private int progressInterval;
+
+    public ImportReport importBooks(InputStream input, ImportFormat format) throws IOException {
+        return run("books", input, format, new HashSet<>(bookRepository.findAllTitles()), this::toBook,
+                Book::getTitle, writer::insertBooks);
+    }
+
+    public ImportReport importMembers(InputStream input, ImportFormat format) throws IOException {
+        return run("members", input, format, new HashSet<>(memberRepository.findAllNames()), this::toMember,
+                Member::getName, writer::insertMembers);
+    }
+
+    private <T> ImportReport run(String entity, InputStream input, ImportFormat format, Set<String> existing,
+                                 Function<Map<String, String>, T> mapper, Function<T, String> key,
+                                 Consumer<List<T>> sink) throws IOException {
+        long started = System.nanoTime();
+        long read = 0, imported = 0, duplicates = 0, invalid = 0;
+        List<T> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RecordReader records = RecordReader.of(format, reader, objectMapper);
+        while (true) {
+            T row;
+            try {
+                Map<String, String> record = records.next();
+                if (record == null) break;
+                row = mapper.apply(record);
+            } catch (IllegalArgumentException e) {
+                read++;
+                invalid++;
+                if (invalid <= 10) LOG.warn("Skipping invalid {} row {}: {}", entity, read, e.getMessage());
+                continue;
+            }
+            read++;
+
+            if (!existing.add(key.apply(row))) {
+                duplicates++;
+            } else {
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    sink.accept(chunk);
+                    imported += chunk.size();
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (read % progressInterval == 0) {
+                LOG.info("Imported {} of {} {} rows read ({} rows/s)", imported, read, entity, rate(read, started));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            sink.accept(chunk);
+            imported += chunk.size();
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        LOG.info("Import of {} finished: {} read, {} imported, {} duplicates, {} invalid in {} ms",
+                entity, read, imported, duplicates, invalid, elapsedMillis);
+        return new ImportReport(read, imported, duplicates, invalid, elapsedMillis, rate(read, started));
+    }
+
+    // Same defaults as BookService.saveBook
+    private Book toBook(Map<String, String> record) {
+        String title = record.get("title");
+        if (title == null || title.isBlank()) throw new IllegalArgumentException("Book name is required");
+
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(blankToDefault(record.get("author"), "Unknown Author"));
+        int quantity = number(record, "quantity");
+        book.setQuantity(quantity == 0 ? 1 : quantity);
+        book.setPublishedYear(number(record, record.containsKey("publishedyear") ? "publishedyear" : "published_year"));
+        return book;
+    }
+
+    // Same defaults as MemberService.saveMember
+    private Member toMember(Map<String, String> record) {
+        String name = record.get("name");
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("Member name is required");
+
+        Member member = new Member();
+        member.setName(name);
+        member.setEmail(blankToDefault(record.get("email"), "No Email"));
+        return member;
+    }
+
+    private static int number(Map<String, String> record, String field) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) return 0;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static String blankToDefault(String value, String defaultValue) {
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static long rate(long rows, long startedNanos) {
+        long elapsedNanos = Math.max(System.nanoTime() - startedNanos, 1);
+        return rows * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,23 @@
+package com.harshit.importer;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * @throws IllegalArgumentException naming the accepted formats if {@code value} is none of them
+     */
+    public static ImportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown import format '" + value + "', expected one of " + Arrays.stream(values())
+                    .map(format -> format.name().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+}
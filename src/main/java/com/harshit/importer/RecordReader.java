@@ -0,0 +1,134 @@
+package com.harshit.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Pulls one record at a time from a CSV (with a header row) or NDJSON stream, so an import never holds more than
+ * the current line in memory. Field names are matched case-insensitively.
+ */
+abstract class RecordReader {
+
+    protected final BufferedReader reader;
+
+    RecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static RecordReader of(ImportFormat format, BufferedReader reader, ObjectMapper objectMapper) {
+        return format == ImportFormat.CSV ? new Csv(reader) : new Ndjson(reader, objectMapper);
+    }
+
+    /**
+     * Returns the next record, or null at the end of the input.
+     *
+     * @throws IllegalArgumentException if the current line cannot be parsed; the reader can keep going after it
+     */
+    abstract Map<String, String> next() throws IOException;
+
+    protected String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    static final class Csv extends RecordReader {
+        private List<String> header;
+
+        Csv(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        Map<String, String> next() throws IOException {
+            if (header == null) {
+                String first = nextLine();
+                if (first == null) return null;
+                header = new ArrayList<>();
+                for (String column : split(first)) {
+                    header.add(column.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+            String line = nextLine();
+            if (line == null) return null;
+
+            List<String> values = split(line);
+            if (values.size() > header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " columns but got " + values.size());
+            }
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                record.put(header.get(i), values.get(i));
+            }
+            return record;
+        }
+
+        // RFC 4180 quoting within a single line: "a, b" and doubled "" quotes
+        static List<String> split(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+            values.add(current.toString());
+            return values;
+        }
+    }
+
+    static final class Ndjson extends RecordReader {
+        private final ObjectMapper objectMapper;
+
+        Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Map<String, String> next() throws IOException {
+            String line = nextLine();
+            if (line == null) return null;
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) throw new IllegalArgumentException("Expected a JSON object per line");
+
+            Map<String, String> record = new HashMap<>();
+            node.fields().forEachRemaining(field -> {
+                if (!field.getValue().isNull()) {
+                    record.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue().asText());
+                }
+            });
+            return record;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.harshit.inventory;
+
+import com.harshit.entity.Book;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-book copy counters for the borrow/return hot path.
+ * <p>
+ * Each title gets its own CAS-based counter, so borrows of different books never contend and borrows of the same
+ * book never block. A borrow first takes a {@link Reservation} here; only requests holding one go on to the
+ * conditional {@code UPDATE books SET quantity = quantity - 1 WHERE ... AND quantity > 0}, which stays the source of
+ * truth. When a title runs out, the remaining callers are turned away in memory instead of queueing on the row lock.
+ * <p>
+ * A returned copy that goes to a member waiting on a hold is set aside instead of put back on the shelf: it still
+ * counts in {@code quantity}, but only that member's borrow can take it (see {@link HoldQueue}).
+ */
+@Singleton
+public class AvailabilityEngine {
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    // Kept apart from the counters so that dropping a stale counter doesn't give the held copies away
+    private final ConcurrentHashMap<Long, AtomicInteger> setAside = new ConcurrentHashMap<>();
+
+    /**
+     * Takes one copy of the book, or returns null when none is left. Counters are seeded lazily from the row the
+     * caller has just read.
+     */
+    public Reservation reserve(Book book) {
+        Counter counter = counter(book);
+        if (counter.tryTake()) {
+            return new Reservation(book.getId(), counter, null);
+        }
+        // Copies may have come back through another instance; the row we were given is newer than our counter
+        if (counter.resync(book.getQuantity() - heldFor(book.getId())) && counter.tryTake()) {
+            return new Reservation(book.getId(), counter, null);
+        }
+        return null;
+    }
+
+    /**
+     * Copies on the shelf, seeding the counter from {@code book} if it has none yet.
+     */
+    public int onShelf(Book book) {
+        return counter(book).available.get();
+    }
+
+    /**
+     * A copy has been returned and committed, and is set aside for a hold instead of going back on the shelf.
+     */
+    public void setAside(Long bookId) {
+        setAside.computeIfAbsent(bookId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Takes a copy set aside by {@link #setAside}, or returns null when there is none. Cancelling the reservation
+     * sets the copy aside again.
+     */
+    public Reservation takeSetAside(Long bookId) {
+        AtomicInteger held = setAside.get(bookId);
+        if (held == null) return null;
+        for (;;) {
+            int current = held.get();
+            if (current <= 0) return null;
+            if (held.compareAndSet(current, current - 1)) return new Reservation(bookId, null, held);
+        }
+    }
+
+    /**
+     * The hold a copy was set aside for has lapsed; the copy goes back on the shelf.
+     */
+    public void releaseSetAside(Long bookId) {
+        AtomicInteger held = setAside.get(bookId);
+        if (held != null && held.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+            release(bookId);
+        }
+    }
+
+    /**
+     * The book was deleted; the copies set aside for its holds went with it.
+     */
+    public void dropSetAside(Long bookId) {
+        setAside.remove(bookId);
+    }
+
+    /**
+     * Copies of the book currently set aside for holds.
+     */
+    public int heldFor(Long bookId) {
+        AtomicInteger held = setAside.get(bookId);
+        return held != null ? held.get() : 0;
+    }
+
+    private Counter counter(Book book) {
+        return counters.computeIfAbsent(book.getId(), id -> new Counter(book.getQuantity() - heldFor(id)));
+    }
+
+    /**
+     * A copy has been returned and committed.
+     */
+    public void release(Long bookId) {
+        Counter counter = counters.get(bookId);
+        if (counter != null) {
+            counter.available.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forgets the counter so it is re-seeded from the database on the next borrow, e.g. after the quantity was
+     * edited or the book deleted.
+     */
+    public void invalidate(Long bookId) {
+        counters.remove(bookId);
+    }
+
+    /**
+     * Copies currently believed to be on the shelf, or -1 if the book has no counter yet.
+     */
+    public int available(Long bookId) {
+        Counter counter = counters.get(bookId);
+        return counter != null ? counter.available.get() : -1;
+    }
+
+    public final class Reservation {
+        private final Long bookId;
+        // Exactly one of these: the shelf counter, or the set-aside copies of the book
+        private final Counter counter;
+        private final AtomicInteger held;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(Long bookId, Counter counter, AtomicInteger held) {
+            this.bookId = bookId;
+            this.counter = counter;
+            this.held = held;
+        }
+
+        public Long getBookId() {
+            return bookId;
+        }
+
+        /**
+         * Whether this is a copy that was set aside for a hold rather than taken from the shelf.
+         */
+        public boolean isSetAside() {
+            return held != null;
+        }
+
+        /**
+         * The loan was committed; the copy stays taken.
+         */
+        public void confirm() {
+            if (settled.compareAndSet(false, true) && counter != null) {
+                counter.pending.decrementAndGet();
+            }
+        }
+
+        /**
+         * The loan did not go through; put the copy back.
+         */
+        public void cancel() {
+            if (!settled.compareAndSet(false, true)) return;
+            if (counter != null) {
+                counter.pending.decrementAndGet();
+                counter.available.incrementAndGet();
+            } else {
+                held.incrementAndGet();
+            }
+        }
+
+        /**
+         * The database had no copy left even though the counter did, so the counter is stale and gets dropped. A
+         * set-aside copy is set aside again, as on {@link #cancel}, so it is not lost.
+         */
+        public void reject() {
+            if (!settled.compareAndSet(false, true)) return;
+            if (counter != null) {
+                counter.pending.decrementAndGet();
+                counters.remove(bookId, counter);
+            } else {
+                held.incrementAndGet();
+            }
+        }
+    }
+
+    static final class Counter {
+        final AtomicInteger available;
+        // Reservations taken but not yet confirmed or cancelled
+        final AtomicInteger pending = new AtomicInteger();
+
+        Counter(int available) {
+            this.available = new AtomicInteger(Math.max(available, 0));
+        }
+
+        boolean tryTake() {
+            pending.incrementAndGet();
+            for (;;) {
+                int current = available.get();
+                if (current <= 0) {
+                    pending.decrementAndGet();
+                    return false;
+                }
+                if (available.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        // Only safe while nothing is in flight, otherwise the committed quantity and the counter legitimately differ
+        boolean resync(int quantity) {
+            if (pending.get() != 0) return false;
+            int current = available.get();
+            return current < quantity && available.compareAndSet(current, quantity);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.harshit.inventory;
+
+import com.harshit.dto.AvailabilityChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Fan-out of committed stock changes to the {@code /availability/stream} subscribers.
+ * <p>
+ * Writers publish from their after-commit callbacks. {@link #publish} hands the change to every subscriber's own
+ * bounded buffer and returns; it never waits for a client. A subscriber whose buffer fills up, because its client
+ * reads slower than the catalog changes, gets a {@link AvailabilityChange.Type#RESYNC} event and is disconnected, so
+ * one slow client costs at most {@code library.availability.buffer-size} events of memory.
+ */
+@Singleton
+public class AvailabilityFeed {
+
+    private final Sinks.Many<AvailabilityChange> changes = Sinks.many().multicast().directBestEffort();
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Value("${library.availability.buffer-size:256}")
+    int bufferSize;
+
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        dropped = Counter.builder("library.availability.dropped")
+                .description("Availability subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        meterRegistry.gauge("library.availability.subscribers", changes, Sinks.Many::currentSubscriberCount);
+    }
+
+    public void publish(AvailabilityChange.Type type, String title, int delta, @Nullable Integer quantity) {
+        if (changes.currentSubscriberCount() == 0) return;
+        AvailabilityChange change = new AvailabilityChange(type, title, delta, quantity);
+        // The sink only takes one emission at a time; each one just enqueues, so the wait is short
+        synchronized (changes) {
+            changes.tryEmitNext(change);
+        }
+    }
+
+    /**
+     * Changes to the given titles, or to every title when there are none, from now on.
+     */
+    public Flux<AvailabilityChange> subscribe(@Nullable Collection<String> titles) {
+        Flux<AvailabilityChange> feed = changes.asFlux();
+        if (titles != null && !titles.isEmpty()) {
+            Set<String> wanted = Set.copyOf(titles);
+            feed = feed.filter(change -> wanted.contains(change.getTitle()));
+        }
+        return feed.onBackpressureBuffer(bufferSize)
+                .onErrorResume(Exceptions::isOverflow, overflow -> {
+                    dropped.increment();
+                    return Flux.just(new AvailabilityChange(AvailabilityChange.Type.RESYNC, null, 0, null));
+                });
+    }
+
+    public int subscribers() {
+        return changes.currentSubscriberCount();
+    }
+}
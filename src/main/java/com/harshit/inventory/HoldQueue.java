@@ -0,0 +1,141 @@
+package com.harshit.inventory;
+
+import com.harshit.entity.Hold;
+import jakarta.inject.Singleton;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The active holds, in memory: per book, the waiting holds ordered by priority and then by id, plus the holds a
+ * returned copy has been set aside for. Handing the next copy out is a {@code pollFirst} on the book's queue, and a
+ * member's place in it is answered without the database.
+ * <p>
+ * Only state that has been committed to {@code holds} is put here; {@code HoldService} does the writes and calls in
+ * once they commit. Each book's queue is guarded by its own lock.
+ */
+@Singleton
+public class HoldQueue {
+
+    private static final Comparator<Hold> ORDER = Comparator.comparingInt(Hold::getPriority).reversed()
+            .thenComparing(Hold::getId);
+
+    private final Map<Long, NavigableSet<Hold>> waiting = new ConcurrentHashMap<>();
+    // (book id, member id) to the member's active hold on the book, waiting or ready
+    private final Map<Key, Hold> active = new ConcurrentHashMap<>();
+
+    public void clear() {
+        waiting.clear();
+        active.clear();
+    }
+
+    /**
+     * A hold that is waiting, or ready, as its status says.
+     */
+    public void add(Hold hold) {
+        active.put(new Key(hold.getBookId(), hold.getMemberId()), hold);
+        if (hold.getStatus() == Hold.Status.WAITING) {
+            NavigableSet<Hold> queue = queue(hold.getBookId());
+            synchronized (queue) {
+                queue.add(hold);
+            }
+        }
+    }
+
+    /**
+     * Takes the hold at the head of the book's queue, or returns null if nobody is waiting. The hold stays active
+     * until it is {@link #remove removed}; {@link #requeue} puts it back in place.
+     */
+    public Hold pollNext(Long bookId) {
+        NavigableSet<Hold> queue = waiting.get(bookId);
+        if (queue == null) return null;
+        synchronized (queue) {
+            return queue.pollFirst();
+        }
+    }
+
+    public void requeue(Hold hold) {
+        hold.setStatus(Hold.Status.WAITING);
+        hold.setReadyUntil(null);
+        add(hold);
+    }
+
+    public void markReady(Hold hold, LocalDate readyUntil) {
+        hold.setStatus(Hold.Status.READY);
+        hold.setReadyUntil(readyUntil);
+    }
+
+    public void remove(Hold hold) {
+        active.remove(new Key(hold.getBookId(), hold.getMemberId()), hold);
+        NavigableSet<Hold> queue = waiting.get(hold.getBookId());
+        if (queue == null) return;
+        synchronized (queue) {
+            queue.remove(hold);
+        }
+    }
+
+    public Optional<Hold> find(Long bookId, Long memberId) {
+        return Optional.ofNullable(active.get(new Key(bookId, memberId)));
+    }
+
+    /**
+     * 1-based place of the hold among those waiting on its book, or 0 once a copy is set aside for it.
+     */
+    public int position(Hold hold) {
+        if (hold.getStatus() != Hold.Status.WAITING) return 0;
+        NavigableSet<Hold> queue = waiting.get(hold.getBookId());
+        if (queue == null) return 0;
+        synchronized (queue) {
+            return queue.contains(hold) ? queue.headSet(hold, false).size() + 1 : 0;
+        }
+    }
+
+    public int waiting(Long bookId) {
+        NavigableSet<Hold> queue = waiting.get(bookId);
+        if (queue == null) return 0;
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * The active holds on the book.
+     */
+    public List<Hold> forBook(Long bookId) {
+        List<Hold> holds = new ArrayList<>();
+        for (Hold hold : active.values()) {
+            if (hold.getBookId().equals(bookId)) holds.add(hold);
+        }
+        return holds;
+    }
+
+    /**
+     * The member's active holds.
+     */
+    public List<Hold> forMember(Long memberId) {
+        List<Hold> holds = new ArrayList<>();
+        for (Hold hold : active.values()) {
+            if (hold.getMemberId().equals(memberId)) holds.add(hold);
+        }
+        return holds;
+    }
+
+    /**
+     * Ready holds whose copy was not collected by {@code today}.
+     */
+    public List<Hold> lapsed(LocalDate today) {
+        List<Hold> lapsed = new ArrayList<>();
+        for (Hold hold : active.values()) {
+            if (hold.getStatus() == Hold.Status.READY && hold.getReadyUntil().isBefore(today)) lapsed.add(hold);
+        }
+        return lapsed;
+    }
+
+    private NavigableSet<Hold> queue(Long bookId) {
+        return waiting.computeIfAbsent(bookId, id -> new TreeSet<>(ORDER));
+    }
+
+    private record Key(Long bookId, Long memberId) {
+    }
+}
@@ -0,0 +1,309 @@
+package com.harshit.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of borrow and return events, kept in memory-mapped segment files named after the sequence
+ * number of their first record.
+ * <p>
+ * {@link #append} returns once the record is on disk. Appenders don't fsync themselves. A flusher thread forces
+ * the segment for everything written since its last pass and wakes every appender it covered, so concurrent
+ * appends share one fsync (group commit). Durable entries are handed to the sink in sequence order.
+ * <p>
+ * A record is {@code [length][crc32][seq, type, book name, member name]}. On open, the journal continues after the
+ * last record whose checksum and sequence number check out, so a torn write at the tail is overwritten. Everything
+ * after that point is zeroed first: otherwise a new record the same length as the torn one would line the old
+ * records behind it up again, and the next recovery would replay them.
+ */
+public class BorrowingJournal implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+    // length and CRC32 of the body
+    private static final int HEADER = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Consumer<JournalEntry> sink;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    // Appended but not yet forced, in sequence order
+    private final ArrayDeque<JournalEntry> unflushed = new ArrayDeque<>();
+    private final Thread flusher;
+
+    private MappedByteBuffer segment;
+    private int position;
+    private long lastSeq;
+    private long durableSeq;
+    private boolean closed;
+    private IOException failure;
+
+    public BorrowingJournal(Path directory, int segmentSize, Consumer<JournalEntry> sink) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sink = sink;
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            open(1, 0);
+        } else {
+            Path tail = segments.get(segments.size() - 1);
+            long first = firstSeq(tail);
+            List<JournalEntry> entries = new ArrayList<>();
+            int end = read(tail, first, entries);
+            lastSeq = first - 1 + entries.size();
+            open(first, end);
+            clearTail();
+        }
+        durableSeq = lastSeq;
+
+        flusher = new Thread(this::flushLoop, "journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Appends the entry, assigns its sequence number and waits until it is durable.
+     */
+    public long append(JournalEntry entry) throws IOException {
+        byte[] book = entry.getBookName().getBytes(StandardCharsets.UTF_8);
+        byte[] member = entry.getMemberName().getBytes(StandardCharsets.UTF_8);
+        if (book.length > Short.MAX_VALUE || member.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Book and member names must fit in " + Short.MAX_VALUE + " bytes");
+        }
+        int length = 8 + 1 + 2 + book.length + 2 + member.length;
+        if (HEADER + length > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit in a segment");
+        }
+
+        lock.lock();
+        try {
+            if (closed) throw new IOException("Journal is closed");
+            if (failure != null) throw failure;
+            if (position + HEADER + length > segment.capacity()) roll();
+
+            long seq = lastSeq + 1;
+            byte[] body = ByteBuffer.allocate(length)
+                    .putLong(seq)
+                    .put((byte) entry.getType().ordinal())
+                    .putShort((short) book.length).put(book)
+                    .putShort((short) member.length).put(member)
+                    .array();
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            segment.put(position + HEADER, body);
+            segment.putInt(position + 4, (int) crc.getValue());
+            segment.putInt(position, length);
+            position += HEADER + length;
+
+            lastSeq = seq;
+            entry.setSeq(seq);
+            unflushed.add(entry);
+            written.signal();
+            while (durableSeq < seq && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durableSeq < seq) throw failure;
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Every entry with a sequence number above {@code applied}, read back from disk. Used to replay the journal
+     * after a restart, before anything new is appended.
+     */
+    public List<JournalEntry> readAfter(long applied) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (Path file : segments()) {
+            List<JournalEntry> segmentEntries = new ArrayList<>();
+            read(file, firstSeq(file), segmentEntries);
+            for (JournalEntry entry : segmentEntries) {
+                if (entry.getSeq() > applied) entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the segments whose records have all been applied. The segment being written is always kept.
+     */
+    public void release(long applied) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSeq(segments.get(i + 1)) - 1 <= applied) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    public long lastSeq() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            MappedByteBuffer buffer;
+            lock.lock();
+            try {
+                while (!closed && durableSeq == lastSeq) {
+                    written.awaitUninterruptibly();
+                }
+                if (durableSeq == lastSeq) {
+                    segment.force();
+                    return;
+                }
+                target = lastSeq;
+                buffer = segment;
+            } finally {
+                lock.unlock();
+            }
+
+            // Appenders keep writing while this runs; they are covered by the next pass
+            IOException error = null;
+            try {
+                buffer.force();
+            } catch (UncheckedIOException e) {
+                error = e.getCause();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    closed = true;
+                } else {
+                    markDurable(target);
+                }
+                flushed.signalAll();
+                if (error != null) return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Called with the lock held
+    private void markDurable(long seq) {
+        durableSeq = Math.max(durableSeq, seq);
+        while (!unflushed.isEmpty() && unflushed.peek().getSeq() <= durableSeq) {
+            sink.accept(unflushed.poll());
+        }
+    }
+
+    // Called with the lock held: finish the current segment and start the next one
+    private void roll() throws IOException {
+        segment.force();
+        markDurable(lastSeq);
+        flushed.signalAll();
+        open(lastSeq + 1, 0);
+    }
+
+    private void open(long firstSeq, int position) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", firstSeq, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), segmentSize);
+            // The mapping stays valid after the channel is closed
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        this.position = position;
+    }
+
+    // Zeroes the segment from the write position on, and forces it before any append can follow
+    private void clearTail() {
+        byte[] zeros = new byte[64 * 1024];
+        for (int at = position; at < segment.capacity(); at += zeros.length) {
+            segment.put(at, zeros, 0, Math.min(zeros.length, segment.capacity() - at));
+        }
+        segment.force();
+    }
+
+    // Reads the valid records of a segment into entries and returns the offset just past the last one
+    private static int read(Path file, long firstSeq, List<JournalEntry> entries) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int position = 0;
+        long expected = firstSeq;
+        while (position + HEADER <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER + length > buffer.limit()) break;
+            ByteBuffer body = buffer.slice(position + HEADER, length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) break;
+            if (body.getLong() != expected) break;
+            JournalEntry.Type type = JournalEntry.Type.values()[body.get()];
+            JournalEntry entry = new JournalEntry(type, string(body), string(body));
+            entry.setSeq(expected);
+            entries.add(entry);
+            expected++;
+            position += HEADER + length;
+        }
+        return position;
+    }
+
+    private static String string(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort()];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.harshit.journal;
+
+import com.harshit.dto.BorrowingOutcome;
+import com.harshit.dto.BorrowingRequest;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.service.BorrowingBatchWriter;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies journal entries to the database through {@link BorrowingBatchWriter}. The {@code journal_marker} row
+ * records the last applied sequence number and moves in the same transaction as the entries, so an entry is applied
+ * exactly once even when a batch is retried or replayed after a crash.
+ * <p>
+ * Entries the writer turns down, and entries given up on after failing every retry, are recorded in
+ * {@code journal_dead_letter} in the transaction that moves the marker past them.
+ */
+@Singleton
+public class JournalApplier {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalApplier.class);
+
+    private static final String READ_MARKER = "SELECT applied_seq FROM journal_marker WHERE journal = ? FOR UPDATE";
+    private static final String CREATE_MARKER = "INSERT INTO journal_marker (journal, applied_seq) VALUES (?, 0)";
+    private static final String MOVE_MARKER = "UPDATE journal_marker SET applied_seq = ? WHERE journal = ?";
+    private static final String DEAD_LETTER = "INSERT INTO journal_dead_letter "
+            + "(journal, seq, type, book_name, member_name, reason, failed_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private BorrowingBatchWriter borrowingBatchWriter;
+
+    /**
+     * The last sequence number applied from the named journal, creating its marker on first use.
+     */
+    @Transactional
+    public long appliedSeq(String journal) {
+        Long applied = readMarker(journal);
+        if (applied != null) return applied;
+        session().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(CREATE_MARKER)) {
+                statement.setString(1, journal);
+                statement.executeUpdate();
+            }
+        });
+        return 0;
+    }
+
+    /**
+     * Applies the entries not yet covered by the marker, in journal order, and returns the new marker.
+     */
+    @Transactional
+    public long apply(String journal, List<JournalEntry> entries) {
+        Long marker = readMarker(journal);
+        long applied = marker != null ? marker : 0;
+        List<JournalEntry> fresh = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            if (entry.getSeq() > applied) fresh.add(entry);
+        }
+        if (fresh.isEmpty()) return applied;
+
+        // Consecutive entries of one type go to the batch writer together; a type change keeps the journal order
+        List<JournalEntry> rejected = new ArrayList<>();
+        List<String> reasons = new ArrayList<>();
+        int from = 0;
+        while (from < fresh.size()) {
+            JournalEntry.Type type = fresh.get(from).getType();
+            int to = from;
+            while (to < fresh.size() && fresh.get(to).getType() == type) to++;
+            List<JournalEntry> run = fresh.subList(from, to);
+            List<BorrowingRequest> requests = new ArrayList<>(run.size());
+            List<AvailabilityEngine.Reservation> reservations = new ArrayList<>(run.size());
+            for (JournalEntry entry : run) {
+                requests.add(new BorrowingRequest(entry.getBookName(), entry.getMemberName()));
+                reservations.add(entry.getReservation());
+            }
+            List<BorrowingOutcome> outcomes = type == JournalEntry.Type.BORROW
+                    ? borrowingBatchWriter.borrowChunk(requests, reservations)
+                    : borrowingBatchWriter.returnChunk(requests);
+            for (int i = 0; i < outcomes.size(); i++) {
+                BorrowingOutcome outcome = outcomes.get(i);
+                if (outcome.getStatus() != BorrowingOutcome.Status.BORROWED && outcome.getStatus() != BorrowingOutcome.Status.RETURNED) {
+                    LOG.warn("Journal entry {} was accepted but not applied: {}", run.get(i), outcome.getMessage());
+                    rejected.add(run.get(i));
+                    reasons.add(outcome.getStatus() + ": " + outcome.getMessage());
+                }
+            }
+            from = to;
+        }
+
+        long last = fresh.get(fresh.size() - 1).getSeq();
+        if (!rejected.isEmpty()) deadLetter(journal, rejected, reasons);
+        moveMarker(journal, last);
+        return last;
+    }
+
+    /**
+     * Gives up on an entry that keeps failing: records it as a dead letter and moves the marker past it, unless it
+     * has been applied after all. Every entry before it must already be applied. Returns the new marker.
+     */
+    @Transactional
+    public long skip(String journal, JournalEntry entry, String reason) {
+        Long marker = readMarker(journal);
+        if (marker != null && marker >= entry.getSeq()) return marker;
+        deadLetter(journal, List.of(entry), List.of(reason));
+        moveMarker(journal, entry.getSeq());
+        return entry.getSeq();
+    }
+
+    private void deadLetter(String journal, List<JournalEntry> entries, List<String> reasons) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        session().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DEAD_LETTER)) {
+                for (int i = 0; i < entries.size(); i++) {
+                    JournalEntry entry = entries.get(i);
+                    String reason = reasons.get(i);
+                    statement.setString(1, journal);
+                    statement.setLong(2, entry.getSeq());
+                    statement.setString(3, entry.getType().name());
+                    statement.setString(4, entry.getBookName());
+                    statement.setString(5, entry.getMemberName());
+                    statement.setString(6, reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason);
+                    statement.setTimestamp(7, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private void moveMarker(String journal, long applied) {
+        session().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MOVE_MARKER)) {
+                statement.setLong(1, applied);
+                statement.setString(2, journal);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    private Long readMarker(String journal) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(READ_MARKER)) {
+                statement.setString(1, journal);
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next() ? rows.getLong(1) : null;
+                }
+            }
+        });
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
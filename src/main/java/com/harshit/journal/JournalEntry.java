@@ -0,0 +1,25 @@
+package com.harshit.journal;
+
+import com.harshit.inventory.AvailabilityEngine;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * One borrow or return accepted into the {@link BorrowingJournal}. The sequence number is assigned on append.
+ */
+@Data
+public class JournalEntry {
+
+    public enum Type { BORROW, RETURN }
+
+    private long seq;
+    private final Type type;
+    private final String bookName;
+    private final String memberName;
+
+    // The copy taken when a borrow was accepted; null for returns and for entries replayed after a restart
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient AvailabilityEngine.Reservation reservation;
+}
@@ -0,0 +1,316 @@
+package com.harshit.journal;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.report.LoanReportIndex;
+import com.harshit.service.HoldService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.convert.format.ReadableBytes;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The opt-in write-behind mode for borrow and return ({@code library.borrowing.write-behind.enabled}). A request is
+ * acknowledged as soon as its event is durable in the local {@link BorrowingJournal}. A background thread applies
+ * the events to the tables in batches through {@link JournalApplier}. At startup, events past the applied marker
+ * are replayed first, and each replayed borrow takes its copy again before new requests are accepted.
+ * <p>
+ * A borrow still checks the book and member and takes its copy from the {@link AvailabilityEngine} before it is
+ * accepted, and keeps that copy until the event is applied or given up on, however many attempts that takes. A
+ * return is only accepted if the member has an open loan of the book that no earlier return has claimed, counting
+ * the loans in the {@link LoanReportIndex} and the borrows and returns still waiting in the journal. An
+ * event the database turns down when it is applied is logged and recorded in {@code journal_dead_letter}. A batch
+ * that fails {@code max-attempts} times in a row is retried one event at a time, and an event that then fails
+ * {@code max-attempts} times on its own is dead-lettered too, so it can't hold up the events behind it.
+ */
+@Singleton
+@Requires(property = "library.borrowing.write-behind.enabled", value = "true")
+public class WriteBehindBorrowing {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WriteBehindBorrowing.class);
+
+    @Inject
+    private JournalApplier journalApplier;
+
+    @Inject
+    private LoanReportIndex loanReportIndex;
+
+    @Inject
+    private HoldService holdService;
+
+    @Inject
+    private AvailabilityEngine availabilityEngine;
+
+    @Inject
+    private CatalogLookupCache catalogLookupCache;
+
+    @Value("${library.borrowing.write-behind.directory:journal}")
+    private String directory;
+
+    // Marker name, so several instances can share a database with a journal each
+    @Value("${library.borrowing.write-behind.name:default}")
+    private String name;
+
+    @ReadableBytes
+    @Value("${library.borrowing.write-behind.segment-size:64MB}")
+    private int segmentSize;
+
+    @Value("${library.borrowing.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${library.borrowing.write-behind.retry-delay:1s}")
+    private Duration retryDelay;
+
+    @Value("${library.borrowing.write-behind.max-attempts:5}")
+    private int maxAttempts;
+
+    // Durable entries waiting to be applied, in journal order
+    private final LinkedBlockingQueue<JournalEntry> pending = new LinkedBlockingQueue<>();
+    // Entries taken back out of a batch that kept failing, applied one at a time ahead of pending to find the bad
+    // one; only touched by the applier thread
+    private final ArrayDeque<JournalEntry> isolating = new ArrayDeque<>();
+    // Per book and member, borrows minus returns journaled but not yet applied or given up on; together with the
+    // open loans in the index this is how many loans a return can still close
+    private final Map<String, Integer> unapplied = new ConcurrentHashMap<>();
+    private volatile BorrowingJournal journal;
+    private volatile boolean running;
+    private volatile long appliedSeq;
+    private Thread applier;
+
+    @EventListener
+    public void onStartup(StartupEvent event) throws IOException {
+        BorrowingJournal opened = new BorrowingJournal(Path.of(directory), segmentSize, pending::add);
+        appliedSeq = journalApplier.appliedSeq(name);
+        List<JournalEntry> replay = opened.readAfter(appliedSeq);
+        if (!replay.isEmpty()) {
+            LOG.info("Replaying {} journal entries after {}", replay.size(), appliedSeq);
+        }
+        replay.forEach(entry -> track(entry, 1));
+        reserveReplayed(replay);
+        pending.addAll(replay);
+        // Only now are new requests accepted, so they can't take a copy an acknowledged borrow still needs
+        journal = opened;
+
+        running = true;
+        applier = new Thread(this::applyLoop, "journal-apply");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    /**
+     * Journals a borrow that already holds {@code reservation}; the copy stays taken until the borrow is applied.
+     */
+    public Borrowing borrow(Book book, Member member, AvailabilityEngine.Reservation reservation) {
+        JournalEntry entry = new JournalEntry(JournalEntry.Type.BORROW, book.getTitle(), member.getName());
+        entry.setReservation(reservation);
+        track(entry, 1);
+        try {
+            append(entry);
+        } catch (RuntimeException e) {
+            track(entry, -1);
+            reservation.cancel();
+            throw e;
+        }
+
+        Borrowing borrowing = new Borrowing();
+        borrowing.setBook(book);
+        borrowing.setMember(member);
+        borrowing.setBorrowDate(LocalDate.now());
+        borrowing.setReturnDate(LocalDate.now().plusDays(14)); // Assuming a 2-week borrowing period
+        borrowing.setBookName(book.getTitle());
+        borrowing.setMemberName(member.getName());
+        return borrowing;
+    }
+
+    /**
+     * Journals a return, or throws if the member has no open loan of the book left to return.
+     */
+    public Borrowing returnBook(String bookName, String memberName) {
+        JournalEntry entry = new JournalEntry(JournalEntry.Type.RETURN, bookName, memberName);
+        // Atomic per pair, so two concurrent returns can't both claim the last loan
+        unapplied.compute(key(bookName, memberName), (key, net) -> {
+            int pending = net != null ? net : 0;
+            if (loanReportIndex.openLoans(bookName, memberName) + pending <= 0) {
+                throw new RuntimeException("No borrowing record found for the book: " + bookName + " and member: " + memberName);
+            }
+            return pending - 1 == 0 ? null : pending - 1;
+        });
+        try {
+            append(entry);
+        } catch (RuntimeException e) {
+            track(entry, -1);
+            throw e;
+        }
+
+        Borrowing borrowing = new Borrowing();
+        borrowing.setReturnDate(LocalDate.now());
+        borrowing.setReturnedDate(LocalDate.now());
+        borrowing.setBookName(bookName);
+        borrowing.setMemberName(memberName);
+        return borrowing;
+    }
+
+    /**
+     * Sequence number of the last entry applied to the database.
+     */
+    public long appliedSeq() {
+        return appliedSeq;
+    }
+
+    /**
+     * Sequence number of the last entry accepted into the journal.
+     */
+    public long lastSeq() {
+        BorrowingJournal current = journal;
+        return current != null ? current.lastSeq() : appliedSeq;
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        running = false;
+        if (applier != null) applier.join(TimeUnit.SECONDS.toMillis(30));
+        // Whatever was not applied stays in the journal for the next start
+        if (journal != null) journal.close();
+    }
+
+    // Each replayed borrow was acknowledged before the restart and gets its copy back before anything else can take
+    // it. A borrow whose book is gone or has no copy left is turned down when it is applied, as before
+    private void reserveReplayed(List<JournalEntry> replay) {
+        holdService.load();
+        for (JournalEntry entry : replay) {
+            if (entry.getType() != JournalEntry.Type.BORROW) continue;
+            catalogLookupCache.findBookByTitle(entry.getBookName())
+                    .map(availabilityEngine::reserve)
+                    .ifPresent(entry::setReservation);
+        }
+    }
+
+    private void append(JournalEntry entry) {
+        BorrowingJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("The borrowing journal is not open yet");
+        }
+        try {
+            current.append(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal " + entry, e);
+        }
+    }
+
+    private void applyLoop() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        int failures = 0;
+        while (running || !pending.isEmpty() || !batch.isEmpty() || !isolating.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    if (!isolating.isEmpty()) {
+                        batch.add(isolating.poll());
+                    } else {
+                        JournalEntry first = pending.poll(100, TimeUnit.MILLISECONDS);
+                        if (first == null) continue;
+                        batch.add(first);
+                        pending.drainTo(batch, batchSize - 1);
+                    }
+                }
+                long applied = journalApplier.apply(name, batch);
+                // The index already has the committed loans, so they stop counting as unapplied
+                batch.forEach(entry -> track(entry, -1));
+                batch.clear();
+                appliedSeq = applied;
+                failures = 0;
+                journal.release(appliedSeq);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (batch.isEmpty()) {
+                    LOG.warn("Releasing applied journal segments failed", e);
+                    continue;
+                }
+                // The batch rolled back; its entries keep their copies for the next attempt
+                if (++failures < maxAttempts) {
+                    LOG.warn("Applying journal entries failed, retrying in {}", retryDelay, e);
+                } else if (batch.size() > 1) {
+                    LOG.warn("Applying {} journal entries failed {} times, retrying them one at a time", batch.size(), failures, e);
+                    for (int i = batch.size() - 1; i > 0; i--) isolating.addFirst(batch.remove(i));
+                    failures = 0;
+                } else if (giveUp(batch.get(0), e)) {
+                    batch.clear();
+                    failures = 0;
+                    continue;
+                }
+                if (!running) return;
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Records the entry as a dead letter and moves past it. Fails while the database is unreachable, in which case
+    // the entry is simply retried again
+    private boolean giveUp(JournalEntry entry, Exception cause) {
+        long skipped;
+        try {
+            skipped = journalApplier.skip(name, entry, String.valueOf(cause));
+        } catch (RuntimeException e) {
+            LOG.warn("Could not move journal entry {} to journal_dead_letter, retrying it", entry, e);
+            return false;
+        }
+        LOG.error("Journal entry {} failed {} times and was moved to journal_dead_letter", entry, maxAttempts, cause);
+        track(entry, -1);
+        AvailabilityEngine.Reservation reservation = entry.getReservation();
+        if (reservation != null) {
+            reservation.cancel();
+            if (reservation.isSetAside()) passOn(reservation.getBookId());
+        }
+        appliedSeq = skipped;
+        return true;
+    }
+
+    // A copy kept for a hold that was fulfilled when the borrow was accepted goes to the next hold, or straight
+    // back on the shelf if the holds can't be reached
+    private void passOn(Long bookId) {
+        try {
+            holdService.unclaimed(bookId);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not pass on the copy of book {} kept for a hold, putting it back on the shelf", bookId, e);
+            availabilityEngine.releaseSetAside(bookId);
+        }
+    }
+
+    // Adds (sign 1) or takes away (sign -1) the entry's effect on the loans its pair has waiting in the journal
+    private void track(JournalEntry entry, int sign) {
+        int delta = entry.getType() == JournalEntry.Type.BORROW ? sign : -sign;
+        unapplied.merge(key(entry.getBookName(), entry.getMemberName()), delta,
+                (net, change) -> net + change == 0 ? null : net + change);
+    }
+
+    private static String key(String bookName, String memberName) {
+        return bookName + '\u0000' + memberName;
+    }
+}
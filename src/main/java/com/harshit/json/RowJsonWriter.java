@@ -0,0 +1,341 @@
+package com.harshit.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.metrics.Instrumented;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the listing, search and report responses straight into a pooled Netty buffer with a streaming
+ * {@link JsonGenerator}. Book and member rows go from the JDBC result set to the buffer column by column, so no
+ * entity, list or response map is built for Jackson databind to walk. The JSON is the same as databind's with the
+ * server's settings: fields in declaration order, nulls and empty strings and lists left out, and dates in the
+ * configured format.
+ * <p>
+ * The returned buffers are handed to Netty, which releases them once written. Used by the blocking read endpoints
+ * when {@code library.json.direct} is on.
+ */
+@Instrumented
+@Singleton
+public class RowJsonWriter {
+
+    private static final String BOOK_COLUMNS = "SELECT id, title, author, quantity, published_year FROM books ";
+    static final String BOOKS_PAGE = BOOK_COLUMNS + "WHERE id > ? ORDER BY id LIMIT ?";
+    static final String BOOKS_BY_ID = BOOK_COLUMNS + "WHERE id = ANY (?) ORDER BY id";
+    static final String BOOKS_BY_YEAR_RANGE = BOOK_COLUMNS + "WHERE published_year BETWEEN ? AND ?";
+    static final String MEMBERS_PAGE = "SELECT id, name, email FROM member WHERE id > ? ORDER BY id LIMIT ?";
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private ObjectMapper objectMapper;
+
+    @Value("${library.json.direct:false}")
+    boolean enabled;
+
+    private JsonFactory jsonFactory;
+    private boolean datesAsArrays;
+
+    @PostConstruct
+    void init() {
+        jsonFactory = objectMapper.getFactory();
+        datesAsArrays = objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static HttpResponse<ByteBuf> ok(ByteBuf body) {
+        return HttpResponse.ok(body).contentType(MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    /**
+     * One page of books in id order, as a {@link CursorPage}.
+     */
+    @Transactional
+    public ByteBuf booksPage(long after, int pageSize) {
+        return page(BOOKS_PAGE, after, pageSize, RowJsonWriter::writeBook);
+    }
+
+    /**
+     * One page of members in id order, as a {@link CursorPage}.
+     */
+    @Transactional
+    public ByteBuf membersPage(long after, int pageSize) {
+        return page(MEMBERS_PAGE, after, pageSize, RowJsonWriter::writeMember);
+    }
+
+    /**
+     * A search response: the entries of {@code fields} (warnings), then the books of {@code rankedIds} in rank order.
+     * The rows come back in id order; each is written once to a scratch buffer, and the slices are then copied into
+     * the response in rank order.
+     */
+    @Transactional
+    public ByteBuf rankedBooks(Map<String, Object> fields, List<Long> rankedIds) {
+        long[] ids = rankedIds.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ids);
+        int[] starts = new int[ids.length];
+        int[] ends = new int[ids.length];
+        Arrays.fill(starts, -1);
+        ByteBuf rows = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            if (ids.length > 0) {
+                try (JsonGenerator generator = jsonFactory.createGenerator((OutputStream) new ByteBufOutputStream(rows))) {
+                    generator.setRootValueSeparator(null);
+                    query(BOOKS_BY_ID, statement -> {
+                        Array array = statement.getConnection().createArrayOf("BIGINT", rankedIds.toArray());
+                        statement.setArray(1, array);
+                    }, result -> {
+                        while (result.next()) {
+                            int position = Arrays.binarySearch(ids, result.getLong(1));
+                            starts[position] = rows.writerIndex();
+                            writeBook(generator, result);
+                            generator.flush();
+                            ends[position] = rows.writerIndex();
+                        }
+                    });
+                }
+            }
+            return write(generator -> {
+                writeFields(generator, fields);
+                if (rows.isReadable()) {
+                    generator.writeArrayFieldStart("books");
+                    generator.flush();
+                    ByteBuf out = ((ByteBufOutputStream) generator.getOutputTarget()).buffer();
+                    boolean first = true;
+                    for (Long id : rankedIds) {
+                        int position = Arrays.binarySearch(ids, id);
+                        if (starts[position] < 0) continue; // deleted since it was ranked
+                        if (!first) out.writeByte(',');
+                        out.writeBytes(rows, starts[position], ends[position] - starts[position]);
+                        first = false;
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rows.release();
+        }
+    }
+
+    /**
+     * A year range search response: the entries of {@code fields}, then every book published in the range.
+     */
+    @Transactional
+    public ByteBuf booksByYearRange(Map<String, Object> fields, int startYear, int endYear) {
+        return write(generator -> {
+            writeFields(generator, fields);
+            LazyArray books = new LazyArray(generator, "books");
+            query(BOOKS_BY_YEAR_RANGE, statement -> {
+                statement.setInt(1, startYear);
+                statement.setInt(2, endYear);
+            }, result -> {
+                while (result.next()) {
+                    books.element();
+                    writeBook(generator, result);
+                }
+            });
+            books.close();
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * A loan report page. The entries are already in memory, so this only saves the databind pass over them.
+     */
+    public ByteBuf loans(CursorPage<LoanReportEntry> page) {
+        return write(generator -> {
+            LazyArray items = new LazyArray(generator, "items");
+            for (LoanReportEntry loan : page.getItems()) {
+                items.element();
+                generator.writeStartObject();
+                writeNumber(generator, "borrowingId", loan.getBorrowingId());
+                writeNumber(generator, "bookId", loan.getBookId());
+                writeString(generator, "bookName", loan.getBookName());
+                writeNumber(generator, "memberId", loan.getMemberId());
+                writeString(generator, "memberName", loan.getMemberName());
+                writeDate(generator, "borrowDate", loan.getBorrowDate());
+                writeDate(generator, "dueDate", loan.getDueDate());
+                generator.writeEndObject();
+            }
+            items.close();
+            writeNumber(generator, "nextCursor", page.getNextCursor());
+            generator.writeEndObject();
+        });
+    }
+
+    // Asks for one extra row to know whether there is a next page, as KeysetPaginator does
+    private ByteBuf page(String sql, long after, int pageSize, RowWriter row) {
+        return write(generator -> {
+            long[] last = new long[1];
+            boolean[] more = new boolean[1];
+            LazyArray items = new LazyArray(generator, "items");
+            query(sql, statement -> {
+                statement.setLong(1, after);
+                statement.setInt(2, pageSize + 1);
+            }, result -> {
+                int count = 0;
+                while (result.next()) {
+                    if (count++ == pageSize) {
+                        more[0] = true;
+                        break;
+                    }
+                    last[0] = result.getLong(1);
+                    items.element();
+                    row.write(generator, result);
+                }
+            });
+            items.close();
+            if (more[0]) generator.writeNumberField("nextCursor", last[0]);
+            generator.writeEndObject();
+        });
+    }
+
+    // Opens the top-level object and leaves it open for the body
+    private ByteBuf write(Body body) {
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+        try (JsonGenerator generator = jsonFactory.createGenerator((OutputStream) new ByteBufOutputStream(buffer))) {
+            generator.writeStartObject();
+            body.write(generator);
+        } catch (IOException | RuntimeException e) {
+            buffer.release();
+            if (e instanceof IOException io) throw new UncheckedIOException(io);
+            throw (RuntimeException) e;
+        }
+        return buffer;
+    }
+
+    // Runs on the connection of the caller's transaction, like the other JDBC paths
+    private void query(String sql, Binder binder, RowsWriter rows) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                binder.bind(statement);
+                try (ResultSet result = statement.executeQuery()) {
+                    rows.write(result);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeBook(JsonGenerator generator, ResultSet row) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getLong(1));
+        writeString(generator, "title", row.getString(2));
+        writeString(generator, "author", row.getString(3));
+        generator.writeNumberField("quantity", row.getInt(4));
+        generator.writeNumberField("publishedYear", row.getInt(5));
+        generator.writeEndObject();
+    }
+
+    private static void writeMember(JsonGenerator generator, ResultSet row) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getLong(1));
+        writeString(generator, "name", row.getString(2));
+        writeString(generator, "email", row.getString(3));
+        generator.writeEndObject();
+    }
+
+    private static void writeFields(JsonGenerator generator, Map<String, Object> fields) throws IOException {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            writeString(generator, field.getKey(), String.valueOf(field.getValue()));
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null && !value.isEmpty()) generator.writeStringField(name, value);
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value != null) generator.writeNumberField(name, value);
+    }
+
+    private void writeDate(JsonGenerator generator, String name, LocalDate value) throws IOException {
+        if (value == null) return;
+        if (datesAsArrays) {
+            generator.writeArrayFieldStart(name);
+            generator.writeNumber(value.getYear());
+            generator.writeNumber(value.getMonthValue());
+            generator.writeNumber(value.getDayOfMonth());
+            generator.writeEndArray();
+        } else {
+            generator.writeStringField(name, value.toString());
+        }
+    }
+
+    // Empty lists are left out like nulls, so an array is only opened once it has an element
+    private static final class LazyArray {
+        private final JsonGenerator generator;
+        private final String name;
+        private boolean open;
+
+        LazyArray(JsonGenerator generator, String name) {
+            this.generator = generator;
+            this.name = name;
+        }
+
+        void element() throws IOException {
+            if (!open) {
+                generator.writeArrayFieldStart(name);
+                open = true;
+            }
+        }
+
+        void close() throws IOException {
+            if (open) generator.writeEndArray();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowsWriter {
+        void write(ResultSet result) throws SQLException, IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(JsonGenerator generator, ResultSet row) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,142 @@
+package com.harshit.metrics;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.service.TransactionCallbacks;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backs {@link Instrumented}. Publishes:
+ * <ul>
+ *     <li>{@code library.method} - latency per class/method/exception, with a percentile histogram</li>
+ *     <li>{@code library.method.rows} - size of {@code Collection} and {@link CursorPage} results</li>
+ *     <li>{@code library.transaction} - time from the first instrumented call in a transaction to its commit or
+ *     rollback, tagged with the method that opened it</li>
+ * </ul>
+ * Connection pool wait time comes from Hikari's own {@code hikaricp.connections.acquire} timer.
+ * <p>
+ * Runs inside {@code @Transactional}, so method timings exclude the commit while transaction timings include it.
+ */
+@Singleton
+public class InstrumentationInterceptor implements MethodInterceptor<Object, Object> {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+    private static final String NO_EXCEPTION = "none";
+
+    // Bound to the thread for as long as a timed transaction is open
+    private static final Object TRANSACTION_KEY = new Object();
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<ExecutableMethod<?, ?>, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        Class<?> returnType = context.getReturnType().getType();
+        if (Publisher.class.isAssignableFrom(returnType) || CompletionStage.class.isAssignableFrom(returnType)) {
+            // Only the assembly would be timed, not the work
+            return context.proceed();
+        }
+        MethodMeters method = meters.computeIfAbsent(context.getExecutableMethod(),
+                m -> new MethodMeters(component(context.getTarget()), m.getMethodName()));
+        startTransactionTimer(method);
+
+        long start = System.nanoTime();
+        String exception = NO_EXCEPTION;
+        try {
+            Object result = context.proceed();
+            recordRows(method, result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            method.timer(exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordRows(MethodMeters method, Object result) {
+        if (result instanceof Collection<?> rows) {
+            method.rows().record(rows.size());
+        } else if (result instanceof CursorPage<?> page && page.getItems() != null) {
+            method.rows().record(page.getItems().size());
+        }
+    }
+
+    private void startTransactionTimer(MethodMeters method) {
+        if (!TransactionCallbacks.inTransaction() || TransactionSynchronizationManager.hasResource(TRANSACTION_KEY)) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, sample);
+        TransactionCallbacks.afterCompletion(() -> stopTransactionTimer(method, sample, "committed"),
+                () -> stopTransactionTimer(method, sample, "rolled_back"));
+    }
+
+    private void stopTransactionTimer(MethodMeters method, Timer.Sample sample, String status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+        sample.stop(Timer.builder("library.transaction")
+                .tag("entry", method.component + "." + method.name)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry));
+    }
+
+    // Generated subclasses are named like $BookService$Definition$Intercepted
+    static String component(Object target) {
+        for (String part : target.getClass().getSimpleName().split("\\$")) {
+            if (!part.isEmpty()) return part;
+        }
+        return target.getClass().getName();
+    }
+
+    private final class MethodMeters {
+        final String component;
+        final String name;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>(2);
+        private volatile DistributionSummary rows;
+
+        MethodMeters(String component, String name) {
+            this.component = component;
+            this.name = name;
+        }
+
+        Timer timer(String exception) {
+            return timers.computeIfAbsent(exception, e -> Timer.builder("library.method")
+                    .tag("class", component)
+                    .tag("method", name)
+                    .tag("exception", e)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(PERCENTILES)
+                    .register(meterRegistry));
+        }
+
+        DistributionSummary rows() {
+            DistributionSummary summary = rows;
+            if (summary == null) {
+                rows = summary = DistributionSummary.builder("library.method.rows")
+                        .tag("class", component)
+                        .tag("method", name)
+                        .publishPercentiles(PERCENTILES)
+                        .register(meterRegistry);
+            }
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.harshit.metrics;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+
+import java.lang.annotation.*;
+
+/**
+ * Records a latency histogram for every call to the annotated bean (or method), the number of rows returned by
+ * collection and page results, and the duration of the transactions the bean takes part in.
+ * See {@link InstrumentationInterceptor} for the meter names.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+@Type(InstrumentationInterceptor.class)
+public @interface Instrumented {
+}
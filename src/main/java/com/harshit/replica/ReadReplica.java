@@ -0,0 +1,128 @@
+package com.harshit.replica;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.cookie.Cookie;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Connection pool for the read replica configured under {@code library.replica}, and the lag guard in front of it.
+ * <p>
+ * {@code library.replica.lag-query} is run on the replica every {@code lag-check-interval} and returns how many
+ * seconds it is behind. The replica is only used while that is within {@code max-lag}. Until the first check
+ * succeeds, and whenever a check fails, every read goes to the primary. The last value is published as
+ * {@code library.replica.lag}, and the pool's {@code hikaricp.*} meters are tagged {@code pool=replica}.
+ * <p>
+ * A client that has just written is sent to the primary as well, so it reads its own writes: see
+ * {@link ReadYourWritesFilter}.
+ */
+@Singleton
+@Requires(property = "library.replica.enabled", value = "true")
+public class ReadReplica {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadReplica.class);
+
+    // Set on the request when a @ReplicaRead method ran on the replica
+    public static final String SERVED_ATTRIBUTE = "library.replica.served";
+
+    // Epoch millis until which the client's reads go to the primary
+    static final String PRIMARY_UNTIL_COOKIE = "library-primary-until";
+
+    private final HikariDataSource dataSource;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    private volatile double lagSeconds = Double.POSITIVE_INFINITY;
+
+    public ReadReplica(@Value("${library.replica.url}") String url,
+                       @Value("${library.replica.username:}") String username,
+                       @Value("${library.replica.password:}") String password,
+                       @Value("${library.replica.maximum-pool-size:10}") int maximumPoolSize,
+                       @Value("${library.replica.max-lag:5s}") Duration maxLag,
+                       @Value("${library.replica.lag-query}") String lagQuery,
+                       MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setReadOnly(true);
+        config.setMetricRegistry(meterRegistry);
+        // Start without the replica rather than fail; the lag check keeps reads on the primary until it answers
+        config.setInitializationFailTimeout(-1);
+        this.dataSource = new HikariDataSource(config);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        Gauge.builder("library.replica.lag", this, replica -> replica.lagSeconds)
+                .description("Seconds the read replica is behind the primary, +Inf while it can't be reached")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public boolean isUsable() {
+        return lagSeconds * 1000 <= maxLag.toMillis();
+    }
+
+    Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Scheduled(fixedDelay = "${library.replica.lag-check-interval:5s}")
+    void checkLag() {
+        boolean wasUsable = isUsable();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            lagSeconds = result.next() ? result.getDouble(1) : Double.POSITIVE_INFINITY;
+        } catch (SQLException e) {
+            if (wasUsable) LOG.warn("Unable to reach the read replica", e);
+            lagSeconds = Double.POSITIVE_INFINITY;
+        }
+        if (wasUsable != isUsable()) {
+            LOG.info(isUsable() ? "Read replica is {}s behind, routing reads to it"
+                    : "Read replica is {}s behind, routing reads to the primary", lagSeconds);
+        }
+    }
+
+    static boolean wroteRecently(HttpRequest<?> request) {
+        return request.getCookies().findCookie(PRIMARY_UNTIL_COOKIE)
+                .map(Cookie::getValue)
+                .map(value -> {
+                    try {
+                        return Long.parseLong(value) > System.currentTimeMillis();
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                })
+                .orElse(false);
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+}
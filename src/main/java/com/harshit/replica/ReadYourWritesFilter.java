@@ -0,0 +1,40 @@
+package com.harshit.replica;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.cookie.Cookie;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import jakarta.inject.Inject;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+/**
+ * After a successful write, sets a cookie that keeps the client's {@link ReplicaRead} reads on the primary for
+ * {@code library.replica.max-lag}, long enough for the replica to have caught up with what it wrote. The cookie
+ * holds the deadline, so it works whichever instance serves the next request.
+ */
+@Filter(value = "/**", methods = {HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE})
+@Requires(property = "library.replica.enabled", value = "true")
+public class ReadYourWritesFilter implements HttpServerFilter {
+
+    @Inject
+    ReadReplica readReplica;
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        return Flux.from(chain.proceed(request)).map(response -> {
+            if (response.status().getCode() < 400) {
+                long until = System.currentTimeMillis() + readReplica.getMaxLag().toMillis();
+                response.cookie(Cookie.of(ReadReplica.PRIMARY_UNTIL_COOKIE, Long.toString(until))
+                        .maxAge(readReplica.getMaxLag())
+                        .path("/")
+                        .httpOnly(true));
+            }
+            return response;
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.harshit.replica;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a read-only method whose queries can run on the read replica, see {@link ReplicaRoutingInterceptor}. The
+ * method must not write, and should not open a transaction before its first query, or that transaction's
+ * connection is taken from the primary as usual.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+@Type(ReplicaRoutingInterceptor.class)
+public @interface ReplicaRead {
+}
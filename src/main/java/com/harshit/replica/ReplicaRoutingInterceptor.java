@@ -0,0 +1,57 @@
+package com.harshit.replica;
+
+import com.harshit.service.TransactionCallbacks;
+import io.micronaut.aop.InterceptPhase;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Backs {@link ReplicaRead}. Sends the method's queries to the replica when one is configured and within its lag
+ * bound, the calling client hasn't just written, and no transaction is open yet on the thread (its connection is
+ * already from the primary). Runs outside {@code @Transactional}, so a transaction the method itself opens gets a
+ * replica connection.
+ */
+@Singleton
+public class ReplicaRoutingInterceptor implements MethodInterceptor<Object, Object> {
+
+    @Inject
+    @Nullable
+    ReadReplica readReplica;
+
+    @Override
+    public int getOrder() {
+        return InterceptPhase.TRANSACTION.getPosition() - 10;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        Class<?> returnType = context.getReturnType().getType();
+        if (readReplica == null
+                || RoutingDataSource.isRoutedToReplica()
+                || Publisher.class.isAssignableFrom(returnType) || CompletionStage.class.isAssignableFrom(returnType)
+                || TransactionCallbacks.inTransaction()
+                || !readReplica.isUsable()) {
+            return context.proceed();
+        }
+        Optional<HttpRequest<Object>> request = ServerRequestContext.currentRequest();
+        if (request.isPresent() && ReadReplica.wroteRecently(request.get())) {
+            return context.proceed();
+        }
+        request.ifPresent(r -> r.setAttribute(ReadReplica.SERVED_ATTRIBUTE, true));
+        RoutingDataSource.routeToReplica(true);
+        try {
+            return context.proceed();
+        } finally {
+            RoutingDataSource.routeToReplica(false);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.harshit.replica;
+
+import io.micronaut.configuration.hibernate.jpa.JpaConfiguration;
+import io.micronaut.configuration.hibernate.jpa.conf.settings.SettingsSupplier;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.cfg.AvailableSettings;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands Hibernate a {@link RoutingDataSource} in place of the default data source. Only Hibernate sees it: the
+ * {@code DataSource} bean, its pool metrics and anything that injects it stay on the primary.
+ */
+@Singleton
+@Requires(property = "library.replica.enabled", value = "true")
+public class ReplicaSettingsSupplier implements SettingsSupplier {
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    DataSourceResolver dataSourceResolver;
+
+    @Inject
+    ReadReplica readReplica;
+
+    @Override
+    public Map<String, Object> supply(JpaConfiguration jpaConfiguration) {
+        if (!"default".equals(jpaConfiguration.getName())) return Map.of();
+        return Map.of(AvailableSettings.DATASOURCE, new RoutingDataSource(dataSourceResolver.resolve(dataSource), readReplica));
+    }
+
+    // After the supplier that sets the default data source, so this one wins
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,84 @@
+package com.harshit.replica;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * The data source Hibernate gets when the replica is enabled. Connections come from the primary, unless the
+ * calling thread is inside a {@link ReplicaRead} method that {@link ReplicaRoutingInterceptor} sent to the replica.
+ * The choice is made when Hibernate asks for a connection, which is when a transaction begins, so a transaction
+ * stays on one database throughout.
+ */
+public class RoutingDataSource implements DataSource {
+
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final ReadReplica replica;
+
+    public RoutingDataSource(DataSource primary, ReadReplica replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    static boolean isRoutedToReplica() {
+        return REPLICA.get() != null;
+    }
+
+    static void routeToReplica(boolean replica) {
+        if (replica) {
+            REPLICA.set(Boolean.TRUE);
+        } else {
+            REPLICA.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return isRoutedToReplica() ? replica.getConnection() : primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return isRoutedToReplica() ? replica.getConnection() : primary.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        return type.isInstance(this) ? type.cast(this) : primary.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(this) || primary.isWrapperFor(type);
+    }
+}
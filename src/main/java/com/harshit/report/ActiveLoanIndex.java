@@ -0,0 +1,103 @@
+package com.harshit.report;
+
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Who holds which book, by id, for every open loan: book id to member ids and member id to book ids, in two
+ * {@link LongMultimap}s. Each book and member id is labelled with its name, so lookups answer with names and never
+ * touch the database. A member holding two copies of a title appears twice.
+ * <p>
+ * Kept in step with {@link LoanReportIndex}, which feeds it every loan it adds or removes.
+ */
+@Singleton
+public class ActiveLoanIndex {
+
+    private final LongMultimap holdersByBook = new LongMultimap(1024);
+    private final LongMultimap booksByMember = new LongMultimap(1024);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(long bookId, String bookName, long memberId, String memberName) {
+        lock.writeLock().lock();
+        try {
+            holdersByBook.put(bookId, bookName, memberId);
+            booksByMember.put(memberId, memberName, bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long bookId, long memberId) {
+        lock.writeLock().lock();
+        try {
+            holdersByBook.remove(bookId, memberId);
+            booksByMember.remove(memberId, bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            holdersByBook.clear();
+            booksByMember.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Names of the members currently holding a copy of the book.
+     */
+    public List<String> holders(long bookId) {
+        lock.readLock().lock();
+        try {
+            return names(holdersByBook.get(bookId), booksByMember);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Titles of the books the member currently has on loan.
+     */
+    public List<String> loans(long memberId) {
+        lock.readLock().lock();
+        try {
+            return names(booksByMember.get(memberId), holdersByBook);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return holdersByBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            return holdersByBook.footprintBytes() + booksByMember.footprintBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<String> names(long[] ids, LongMultimap labelled) {
+        List<String> names = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            names.add(labelled.label(id));
+        }
+        return names;
+    }
+}
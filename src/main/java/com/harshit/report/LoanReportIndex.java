@@ -0,0 +1,198 @@
+package com.harshit.report;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.entity.Borrowing;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.service.KeysetPaginator;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Open loans kept in memory, ordered by due date, so the overdue and currently-borrowed reports are a range scan
+ * over the loans they return instead of a join over the whole {@code borrowing} table.
+ * <p>
+ * Loaded from the database at startup and kept current by {@code BorrowingService} after every committed borrow or
+ * return. Writers are serialised; readers never block and see each loan either fully added or fully removed.
+ * Every change is passed on to the {@link ActiveLoanIndex}.
+ */
+@Singleton
+public class LoanReportIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoanReportIndex.class);
+
+    private static final Comparator<LoanReportEntry> BY_DUE_DATE =
+            Comparator.comparing(LoanReportEntry::getDueDate).thenComparing(LoanReportEntry::getBorrowingId);
+    private static final NavigableSet<LoanReportEntry> NO_LOANS =
+            Collections.unmodifiableNavigableSet(new TreeSet<>(BY_DUE_DATE));
+
+    // Cursors pack the due date (epoch day) above the loan id, so a page can resume with one seek
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    KeysetPaginator keysetPaginator;
+
+    @Inject
+    ActiveLoanIndex activeLoanIndex;
+
+    private final Map<Long, LoanReportEntry> loans = new ConcurrentHashMap<>();
+    private final NavigableSet<LoanReportEntry> byDueDate = new ConcurrentSkipListSet<>(BY_DUE_DATE);
+    private final Map<String, NavigableSet<LoanReportEntry>> byMember = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<LoanReportEntry>> byBook = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        rebuild(borrowingRepository.findOpenLoans());
+    }
+
+    public synchronized void rebuild(Collection<LoanReportEntry> openLoans) {
+        loans.clear();
+        byDueDate.clear();
+        byMember.clear();
+        byBook.clear();
+        activeLoanIndex.clear();
+        openLoans.forEach(this::add);
+        LOG.info("Loan report index built with {} open loans", loans.size());
+    }
+
+    public void add(Borrowing borrowing) {
+        if (borrowing.getId() == null || borrowing.getReturnedDate() != null) return;
+        add(new LoanReportEntry(borrowing.getId(), borrowing.getBook().getId(), borrowing.getBookName(),
+                borrowing.getMember().getId(), borrowing.getMemberName(), borrowing.getBorrowDate(),
+                borrowing.getReturnDate()));
+    }
+
+    public synchronized void add(LoanReportEntry loan) {
+        if (loan.getDueDate() == null) return;
+        remove(loan.getBorrowingId());
+        loans.put(loan.getBorrowingId(), loan);
+        byDueDate.add(loan);
+        if (loan.getMemberName() != null) {
+            byMember.computeIfAbsent(loan.getMemberName(), k -> new ConcurrentSkipListSet<>(BY_DUE_DATE)).add(loan);
+        }
+        if (loan.getBookName() != null) {
+            byBook.computeIfAbsent(loan.getBookName(), k -> new ConcurrentSkipListSet<>(BY_DUE_DATE)).add(loan);
+        }
+        if (loan.getBookId() != null && loan.getMemberId() != null) {
+            activeLoanIndex.add(loan.getBookId(), loan.getBookName(), loan.getMemberId(), loan.getMemberName());
+        }
+    }
+
+    public synchronized void remove(Long borrowingId) {
+        LoanReportEntry loan = loans.remove(borrowingId);
+        if (loan == null) return;
+        byDueDate.remove(loan);
+        removeFrom(byMember, loan.getMemberName(), loan);
+        removeFrom(byBook, loan.getBookName(), loan);
+        if (loan.getBookId() != null && loan.getMemberId() != null) {
+            activeLoanIndex.remove(loan.getBookId(), loan.getMemberId());
+        }
+    }
+
+    public int size() {
+        return loans.size();
+    }
+
+    /**
+     * Open loans due strictly before {@code asOf}, oldest due date first.
+     */
+    public CursorPage<LoanReportEntry> overdue(LocalDate asOf, @Nullable String memberName, @Nullable String bookName,
+                                               @Nullable Long after, @Nullable Integer size) {
+        LoanReportEntry upper = probe(asOf, Long.MIN_VALUE);
+        NavigableSet<LoanReportEntry> source = source(memberName, bookName);
+        if (after == null) {
+            return page(source.headSet(upper, false), memberName, bookName, size);
+        }
+        LoanReportEntry cursor = decode(after);
+        if (BY_DUE_DATE.compare(cursor, upper) >= 0) {
+            return new CursorPage<>(List.of(), null);
+        }
+        return page(source.subSet(cursor, false, upper, false), memberName, bookName, size);
+    }
+
+    /**
+     * Open loans due strictly after {@code asOf}, earliest due date first.
+     */
+    public CursorPage<LoanReportEntry> currentlyBorrowed(LocalDate asOf, @Nullable String memberName,
+                                                         @Nullable String bookName, @Nullable Long after,
+                                                         @Nullable Integer size) {
+        LoanReportEntry lower = probe(asOf, Long.MAX_VALUE);
+        if (after != null) {
+            LoanReportEntry cursor = decode(after);
+            if (BY_DUE_DATE.compare(cursor, lower) > 0) lower = cursor;
+        }
+        return page(source(memberName, bookName).tailSet(lower, false), memberName, bookName, size);
+    }
+
+    /**
+     * How many open loans the member has of the book.
+     */
+    public int openLoans(String bookName, String memberName) {
+        int count = 0;
+        for (LoanReportEntry loan : source(memberName, null)) {
+            if (bookName.equals(loan.getBookName())) count++;
+        }
+        return count;
+    }
+
+    private NavigableSet<LoanReportEntry> source(@Nullable String memberName, @Nullable String bookName) {
+        // Start from the narrower per-member/per-book set; the other filter, if any, is applied while paging
+        NavigableSet<LoanReportEntry> source = memberName != null ? byMember.get(memberName)
+                : bookName != null ? byBook.get(bookName)
+                : byDueDate;
+        return source != null ? source : NO_LOANS;
+    }
+
+    private CursorPage<LoanReportEntry> page(NavigableSet<LoanReportEntry> range, @Nullable String memberName,
+                                             @Nullable String bookName, @Nullable Integer size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        boolean filterBook = memberName != null && bookName != null;
+        List<LoanReportEntry> items = new ArrayList<>(Math.min(pageSize, 64));
+        for (LoanReportEntry loan : range) {
+            if (filterBook && !bookName.equals(loan.getBookName())) continue;
+            if (items.size() == pageSize) {
+                return new CursorPage<>(items, encode(items.get(pageSize - 1)));
+            }
+            items.add(loan);
+        }
+        return new CursorPage<>(items, null);
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<LoanReportEntry>> index, String key, LoanReportEntry loan) {
+        if (key == null) return;
+        NavigableSet<LoanReportEntry> set = index.get(key);
+        if (set != null) {
+            set.remove(loan);
+            if (set.isEmpty()) index.remove(key);
+        }
+    }
+
+    private static LoanReportEntry probe(LocalDate dueDate, long borrowingId) {
+        LoanReportEntry probe = new LoanReportEntry();
+        probe.setDueDate(dueDate);
+        probe.setBorrowingId(borrowingId);
+        return probe;
+    }
+
+    static long encode(LoanReportEntry loan) {
+        return (loan.getDueDate().toEpochDay() << ID_BITS) | (loan.getBorrowingId() & ID_MASK);
+    }
+
+    static LoanReportEntry decode(long cursor) {
+        return probe(LocalDate.ofEpochDay(cursor >>> ID_BITS), cursor & ID_MASK);
+    }
+}
@@ -0,0 +1,194 @@
+package com.harshit.report;
+
+import java.util.Arrays;
+
+/**
+ * A long to long multimap on primitive arrays, for indexes that hold millions of small id lists.
+ * <p>
+ * Keys live in an open-addressing table with linear probing. Values are nodes of per-key singly linked lists
+ * stored in two parallel arrays, so an entry costs 12 bytes and no object. Each key can carry a label (e.g. the
+ * book title for a book id). Not thread-safe; callers guard it.
+ */
+public final class LongMultimap {
+
+    // Ids are positive, so this can mark an empty slot
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int NONE = -1;
+
+    private long[] keys;
+    private int[] heads;
+    private String[] labels;
+    private int keyCount;
+
+    private long[] nodeValues;
+    private int[] nodeNext;
+    // Nodes below this have been handed out at least once; freed ones are chained from freeNode
+    private int nodeLimit;
+    private int freeNode = NONE;
+    private int size;
+
+    public LongMultimap() {
+        this(16);
+    }
+
+    public LongMultimap(int expectedValues) {
+        int capacity = Integer.highestOneBit(Math.max(expectedValues, 8) * 2 - 1) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        heads = new int[capacity];
+        labels = new String[capacity];
+        nodeValues = new long[Math.max(expectedValues, 8)];
+        nodeNext = new int[nodeValues.length];
+    }
+
+    public void put(long key, String label, long value) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            if ((keyCount + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            heads[slot] = NONE;
+            keyCount++;
+        }
+        labels[slot] = label;
+        int node = allocate();
+        nodeValues[node] = value;
+        nodeNext[node] = heads[slot];
+        heads[slot] = node;
+        size++;
+    }
+
+    /**
+     * Removes one occurrence of {@code value} under {@code key}, dropping the key with its last value.
+     */
+    public boolean remove(long key, long value) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) return false;
+        int previous = NONE;
+        for (int node = heads[slot]; node != NONE; previous = node, node = nodeNext[node]) {
+            if (nodeValues[node] != value) continue;
+            if (previous == NONE) heads[slot] = nodeNext[node];
+            else nodeNext[previous] = nodeNext[node];
+            nodeNext[node] = freeNode;
+            freeNode = node;
+            size--;
+            if (heads[slot] == NONE) delete(slot);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The values under {@code key}, most recently added first.
+     */
+    public long[] get(long key) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) return new long[0];
+        int count = 0;
+        for (int node = heads[slot]; node != NONE; node = nodeNext[node]) count++;
+        long[] values = new long[count];
+        int i = 0;
+        for (int node = heads[slot]; node != NONE; node = nodeNext[node]) values[i++] = nodeValues[node];
+        return values;
+    }
+
+    public String label(long key) {
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? null : labels[slot];
+    }
+
+    public boolean containsKey(long key) {
+        return keys[slot(key)] != EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(labels, null);
+        keyCount = 0;
+        nodeLimit = 0;
+        freeNode = NONE;
+        size = 0;
+    }
+
+    /**
+     * Bytes held by the arrays, not counting the label strings, which are shared with the rest of the application.
+     */
+    public long footprintBytes() {
+        return 16L * 5 + keys.length * 8L + heads.length * 4L + labels.length * 4L
+                + nodeValues.length * 8L + nodeNext.length * 4L;
+    }
+
+    private int allocate() {
+        if (freeNode != NONE) {
+            int node = freeNode;
+            freeNode = nodeNext[node];
+            return node;
+        }
+        if (nodeLimit == nodeValues.length) {
+            int capacity = nodeValues.length + (nodeValues.length >> 1);
+            nodeValues = Arrays.copyOf(nodeValues, capacity);
+            nodeNext = Arrays.copyOf(nodeNext, capacity);
+        }
+        return nodeLimit++;
+    }
+
+    // The slot holding key, or the empty slot where it would go
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = home(key, mask);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int home(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // Backward-shift deletion: pull later entries of the probe run into the hole so lookups need no tombstones
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int i = (slot + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = home(keys[i], mask);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                heads[hole] = heads[i];
+                labels[hole] = labels[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        labels[hole] = null;
+        keyCount--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        String[] oldLabels = labels;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        heads = new int[capacity];
+        labels = new String[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            heads[slot] = oldHeads[i];
+            labels[slot] = oldLabels[i];
+        }
+    }
+}
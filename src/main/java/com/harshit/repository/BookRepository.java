@@ -1,18 +1,35 @@
 package com.harshit.repository;
 
 import com.harshit.entity.Book;
+import com.harshit.metrics.Instrumented;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.data.model.Pageable;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+@Instrumented
 @Repository
 public interface BookRepository  extends JpaRepository<Book,Long> {
     Optional<Book> findByTitle(String title);
     void deleteByTitle(String title);
+    List<Book> findByIdIn(Collection<Long> ids);
+    List<Book> findByTitleIn(Collection<String> titles);
+
+    @Query("SELECT b.title FROM Book b")
+    List<String> findAllTitles();
+    List<Book> findByIdGreaterThan(Long id, Pageable pageable);
+
+    // Atomic, conditional stock changes; the row count tells the caller whether a copy was actually taken
+    @Query("UPDATE Book b SET b.quantity = b.quantity - 1 WHERE b.id = :id AND b.quantity > 0")
+    int decrementQuantity(Long id);
+
+    @Query("UPDATE Book b SET b.quantity = b.quantity + 1 WHERE b.id = :id")
+    int incrementQuantity(Long id);
 
 
     // Case-agnostic + Regular Expression Support + Similarity Matching
@@ -21,11 +38,10 @@ public interface BookRepository  extends JpaRepository<Book,Long> {
     WHERE 
         title ILIKE CONCAT('%', :title, '%')
         OR title % :title
-        OR REGEXP_REPLACE(title, '[^a-zA-Z0-9]+', '', 'g') 
-            ILIKE CONCAT('%', REGEXP_REPLACE(:title, '[^a-zA-Z0-9]+', '', 'g'), '%')
+        OR title_norm LIKE CONCAT('%', :titleNorm, '%')
     ORDER BY similarity(title, :title) DESC
     """, nativeQuery = true)
-    List<Book> searchBooks(String title);
+    List<Book> searchBooks(String title, String titleNorm);
 
 
     @Query(value = """
@@ -33,11 +49,10 @@ public interface BookRepository  extends JpaRepository<Book,Long> {
     WHERE 
         author ILIKE CONCAT('%', :author, '%')
         OR author % :author
-        OR REGEXP_REPLACE(author, '[^a-zA-Z0-9]+', '', 'g')
-            ILIKE CONCAT('%', REGEXP_REPLACE(:author, '[^a-zA-Z0-9]+', '', 'g'), '%')
+        OR author_norm LIKE CONCAT('%', :authorNorm, '%')
     ORDER BY similarity(author, :author) DESC
         """, nativeQuery = true)
-    List<Book> searchBooksByAuthor(String author);
+    List<Book> searchBooksByAuthor(String author, String authorNorm);
 
     @Query(value = """
     SELECT * FROM books
@@ -48,12 +63,11 @@ public interface BookRepository  extends JpaRepository<Book,Long> {
     @Query(value = """
     SELECT * FROM books
     WHERE 
-        (REGEXP_REPLACE(LOWER(title), '[^a-zA-Z0-9]+', '', 'g') 
-            ILIKE CONCAT('%', REGEXP_REPLACE(LOWER(:title), '[^a-zA-Z0-9]+', '', 'g'), '%')
+        (title_norm LIKE CONCAT('%', :titleNorm, '%')
          OR title % :title)
         AND published_year BETWEEN :startYear AND :endYear
     ORDER BY similarity(title, :title) DESC
     """, nativeQuery = true)
-    List<Book> searchBooksByTitleAndYearRange(String title, int startYear, int endYear);
+    List<Book> searchBooksByTitleAndYearRange(String title, String titleNorm, int startYear, int endYear);
 
 }
@@ -1,22 +1,34 @@
 package com.harshit.repository;
+import com.harshit.dto.LoanReportEntry;
 import com.harshit.entity.Borrowing;
+import com.harshit.metrics.Instrumented;
+import io.micronaut.data.annotation.Join;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.repository.CrudRepository;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+@Instrumented
 @Repository
 public interface BorrowingRepository extends CrudRepository<Borrowing,Long> {
      Optional<Borrowing> findByBookTitle(String bookTitle) ;
-     Optional<Borrowing> findByBookTitleAndMemberName(String bookTitle, String memberName);
-     // Find books that are currently borrowed (return_date is in the future)
-     @Query(nativeQuery = true, value = "SELECT b.title,br.member_name FROM borrowing br JOIN books b ON br.book_id = b.id WHERE br.return_date > :currentDate")
-     List<Object[]> findCurrentlyBorrowedBooks(LocalDate currentDate);
 
-     // Find books that are overdue (return_date is in the past)
-     @Query(nativeQuery = true, value = "SELECT b.title,br.member_name FROM borrowing br JOIN books b ON br.book_id = b.id WHERE br.return_date  < :currentDate")
-     List<Object[]> findOverdueBooks(LocalDate currentDate);
+     // The return path reads the book, so fetch both associations in the same statement. Returned loans stay in the
+     // table until archived, so only open ones are candidates
+     @Join(value = "book", type = Join.Type.FETCH)
+     @Join(value = "member", type = Join.Type.FETCH)
+     List<Borrowing> findByBookTitleAndMemberNameAndReturnedDateIsNull(String bookTitle, String memberName);
+
+     List<Borrowing> findByBookNameInAndMemberNameIn(Collection<String> bookNames, Collection<String> memberNames);
+
+     // Every open loan, projected straight into the report model
+     @Query("SELECT new com.harshit.dto.LoanReportEntry(b.id, b.book.id, b.bookName, b.member.id, b.memberName, b.borrowDate, b.returnDate) FROM Borrowing b WHERE b.returnedDate IS NULL")
+     List<LoanReportEntry> findOpenLoans();
+
+     // Open loans for a batch of returns, without loading any entity
+     @Query("SELECT new com.harshit.dto.LoanReportEntry(b.id, b.book.id, b.bookName, b.member.id, b.memberName, b.borrowDate, b.returnDate) FROM Borrowing b WHERE b.bookName IN (:bookNames) AND b.memberName IN (:memberNames) AND b.returnedDate IS NULL")
+     List<LoanReportEntry> findOpenLoansByNames(Collection<String> bookNames, Collection<String> memberNames);
 }
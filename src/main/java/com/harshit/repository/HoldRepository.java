@@ -0,0 +1,22 @@
+package com.harshit.repository;
+
+import com.harshit.entity.Hold;
+import com.harshit.metrics.Instrumented;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.repository.CrudRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Instrumented
+@Repository
+public interface HoldRepository extends CrudRepository<Hold, Long> {
+    List<Hold> findByStatusIn(Collection<Hold.Status> statuses);
+
+    // Moves a hold on only from the state the queue last saw it in, so two instances can't both act on it
+    @Query("UPDATE Hold h SET h.status = :status, h.readyUntil = :readyUntil WHERE h.id = :id AND h.status = :expected")
+    int transition(Long id, Hold.Status expected, Hold.Status status, @Nullable LocalDate readyUntil);
+}
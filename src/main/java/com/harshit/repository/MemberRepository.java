@@ -1,14 +1,25 @@
 package com.harshit.repository;
 
 import com.harshit.entity.Member;
+import com.harshit.metrics.Instrumented;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.data.model.Pageable;
 
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+@Instrumented
 @Repository
 public interface MemberRepository  extends JpaRepository<Member,Long> {
     Optional<Member> findByName(String name);
     void deleteByName(String name);
+    List<Member> findByIdGreaterThan(Long id, Pageable pageable);
+    List<Member> findByNameIn(Collection<String> names);
+
+    @Query("SELECT m.name FROM Member m")
+    List<String> findAllNames();
 }
@@ -0,0 +1,54 @@
+package com.harshit.repository;
+
+import com.harshit.entity.Book;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.GenericRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// Read-only R2DBC view of the books table, used when library.reads.mode is reactive
+@R2dbcRepository(value = "reactive", dialect = Dialect.POSTGRES)
+@Requires(property = "library.reads.mode", value = "reactive")
+public interface ReactiveBookRepository extends GenericRepository<Book, Long> {
+    Mono<Book> findByTitle(String title);
+    Flux<Book> findByIdIn(Collection<Long> ids);
+    Flux<Book> findByIdGreaterThan(Long id, Pageable pageable);
+    Flux<Book> findByPublishedYearBetween(int startYear, int endYear);
+
+    // Same pg_trgm searches as BookRepository, for when the in-memory search index is disabled
+    @Query("""
+    SELECT * FROM books
+    WHERE
+        title ILIKE CONCAT('%', :title, '%')
+        OR title % :title
+        OR title_norm LIKE CONCAT('%', :titleNorm, '%')
+    ORDER BY similarity(title, :title) DESC
+    """)
+    Flux<Book> searchBooks(String title, String titleNorm);
+
+    @Query("""
+    SELECT * FROM books
+    WHERE
+        author ILIKE CONCAT('%', :author, '%')
+        OR author % :author
+        OR author_norm LIKE CONCAT('%', :authorNorm, '%')
+    ORDER BY similarity(author, :author) DESC
+    """)
+    Flux<Book> searchBooksByAuthor(String author, String authorNorm);
+
+    @Query("""
+    SELECT * FROM books
+    WHERE
+        (title_norm LIKE CONCAT('%', :titleNorm, '%')
+         OR title % :title)
+        AND published_year BETWEEN :startYear AND :endYear
+    ORDER BY similarity(title, :title) DESC
+    """)
+    Flux<Book> searchBooksByTitleAndYearRange(String title, String titleNorm, int startYear, int endYear);
+}
@@ -0,0 +1,18 @@
+package com.harshit.repository;
+
+import com.harshit.entity.Member;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.GenericRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Read-only R2DBC view of the member table, used when library.reads.mode is reactive
+@R2dbcRepository(value = "reactive", dialect = Dialect.POSTGRES)
+@Requires(property = "library.reads.mode", value = "reactive")
+public interface ReactiveMemberRepository extends GenericRepository<Member, Long> {
+    Mono<Member> findByName(String name);
+    Flux<Member> findByIdGreaterThan(Long id, Pageable pageable);
+}
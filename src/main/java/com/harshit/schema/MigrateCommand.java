@@ -0,0 +1,38 @@
+package com.harshit.schema;
+
+import io.micronaut.context.ApplicationContext;
+
+import java.util.Map;
+
+/**
+ * Deploy step for instances in the {@code fast-start} environment, which neither migrate the schema nor check its
+ * indexes themselves:
+ * <pre>
+ * ./gradlew migrateSchema
+ * java -cp build/libs/library-0.1-all.jar com.harshit.schema.MigrateCommand
+ * </pre>
+ * Starts the application context without the HTTP server, so the Flyway migrations run as the data source is created
+ * and {@link SchemaIndexCheck} then verifies the indexes, and exits. Either failing makes the command fail.
+ */
+public class MigrateCommand {
+
+    // Over whatever environment the deploy step runs in, fast-start included
+    static final Map<String, Object> PROPERTIES = Map.of(
+            "flyway.datasources.default.enabled", true,
+            "library.schema.check-indexes", true,
+            // The journal belongs to the instances that wrote it, not to this one-off process
+            "library.borrowing.write-behind.enabled", false);
+
+    public static void main(String[] args) {
+        try (ApplicationContext ignored = start()) {
+            System.out.println("Schema migrated and indexes checked");
+        }
+    }
+
+    static ApplicationContext start(String... environments) {
+        return ApplicationContext.builder()
+                .environments(environments)
+                .properties(PROPERTIES)
+                .start();
+    }
+}
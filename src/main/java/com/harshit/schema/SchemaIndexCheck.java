@@ -0,0 +1,109 @@
+package com.harshit.schema;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.transaction.jdbc.DelegatingDataSource;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Checks at startup that the indexes the repository queries rely on exist. They are created by the Flyway
+ * migrations in {@code db/migration} and, on PostgreSQL, {@code db/postgres}. A database that skipped or rolled
+ * back a migration would otherwise serve every lookup with a sequential scan without complaint.
+ * <p>
+ * Startup fails when an index is missing, unless {@code library.schema.require-indexes} is false, in which case
+ * the missing indexes are only logged. {@code library.schema.check-indexes: false} skips the check, for instances
+ * started after the deploy step has already run it.
+ */
+@Singleton
+@Requires(property = "library.schema.check-indexes", notEquals = "false")
+public class SchemaIndexCheck {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaIndexCheck.class);
+
+    // table -> indexes, for every database
+    static final Map<String, List<String>> REQUIRED = Map.of(
+            "books", List.of("books_title_key", "books_published_year_idx"),
+            "member", List.of("member_name_key"),
+            "borrowing", List.of("borrowing_book_member_idx", "borrowing_member_idx", "borrowing_names_idx",
+                    "borrowing_returned_date_idx"),
+            "borrowing_history", List.of("borrowing_history_member_idx", "borrowing_history_book_idx"),
+            "holds", List.of("holds_status_idx"));
+
+    // Trigram and partial indexes, which only exist on PostgreSQL
+    static final Map<String, List<String>> REQUIRED_POSTGRES = Map.of(
+            "books", List.of("books_title_trgm_idx", "books_author_trgm_idx", "books_title_norm_trgm_idx",
+                    "books_author_norm_trgm_idx"),
+            "borrowing", List.of("borrowing_open_return_date_idx"));
+
+    @Inject
+    DataSource dataSource;
+
+    @Value("${library.schema.require-indexes:true}")
+    boolean requireIndexes;
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        List<String> missing;
+        try {
+            missing = missingIndexes();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read the index metadata", e);
+        }
+        if (missing.isEmpty()) {
+            LOG.info("All required indexes are present");
+        } else if (requireIndexes) {
+            throw new IllegalStateException("Missing indexes " + missing + ", run the Flyway migrations");
+        } else {
+            LOG.warn("Missing indexes {}, lookups on these columns will scan the table", missing);
+        }
+    }
+
+    public List<String> missingIndexes() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = DelegatingDataSource.unwrapDataSource(dataSource).getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean postgres = "PostgreSQL".equals(metaData.getDatabaseProductName());
+            Map<String, List<String>> required = new TreeMap<>(REQUIRED);
+            if (postgres) {
+                REQUIRED_POSTGRES.forEach((table, indexes) -> required.merge(table, indexes, (a, b) -> {
+                    List<String> all = new ArrayList<>(a);
+                    all.addAll(b);
+                    return all;
+                }));
+            }
+            for (Map.Entry<String, List<String>> table : required.entrySet()) {
+                Set<String> present = indexNames(metaData, table.getKey());
+                for (String index : table.getValue()) {
+                    if (!present.contains(index)) missing.add(table.getKey() + "." + index);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private static Set<String> indexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        // Unquoted identifiers are stored upper case by some databases, so ask for both spellings
+        for (String name : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet rows = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (rows.next()) {
+                    String index = rows.getString("INDEX_NAME");
+                    if (index != null) names.add(index.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+}
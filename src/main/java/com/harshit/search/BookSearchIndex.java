@@ -0,0 +1,121 @@
+package com.harshit.search;
+
+import com.harshit.entity.Book;
+import com.harshit.repository.BookRepository;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process replacement for the pg_trgm backed title/author searches.
+ * Built from the catalog at startup and kept current by {@code BookService} once each write commits.
+ */
+@Singleton
+public class BookSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Value("${library.search.index.enabled:true}")
+    boolean enabled;
+
+    @Value("${library.search.similarity-threshold:0.3}")
+    double similarityThreshold;
+
+    private final TrigramIndex titles = new TrigramIndex();
+    private final TrigramIndex authors = new TrigramIndex();
+    private final Map<Long, Integer> publishedYears = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        if (enabled) {
+            rebuild(bookRepository.findAll());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void rebuild(Iterable<Book> books) {
+        titles.clear();
+        authors.clear();
+        publishedYears.clear();
+        for (Book book : books) {
+            index(book);
+        }
+        LOG.info("Book search index built with {} books", titles.size());
+    }
+
+    public void index(Book book) {
+        if (book.getId() == null) return;
+        titles.put(book.getId(), book.getTitle());
+        authors.put(book.getId(), book.getAuthor());
+        publishedYears.put(book.getId(), book.getPublishedYear());
+    }
+
+    public void remove(Long id) {
+        if (id == null) return;
+        titles.remove(id);
+        authors.remove(id);
+        publishedYears.remove(id);
+    }
+
+    public List<Book> searchByTitle(String title) {
+        return load(rankByTitle(title));
+    }
+
+    public List<Book> searchByAuthor(String author) {
+        return load(rankByAuthor(author));
+    }
+
+    public List<Book> searchByTitleAndYearRange(String title, int startYear, int endYear) {
+        return load(rankByTitleAndYearRange(title, startYear, endYear));
+    }
+
+    // The rank* methods only touch the index; callers with their own way of fetching rows use them with inRankOrder
+    public List<Long> rankByTitle(String title) {
+        return titles.search(title, similarityThreshold);
+    }
+
+    public List<Long> rankByAuthor(String author) {
+        return authors.search(author, similarityThreshold);
+    }
+
+    public List<Long> rankByTitleAndYearRange(String title, int startYear, int endYear) {
+        List<Long> ids = new ArrayList<>();
+        for (Long id : titles.search(title, similarityThreshold)) {
+            Integer year = publishedYears.get(id);
+            if (year != null && year >= startYear && year <= endYear) ids.add(id);
+        }
+        return ids;
+    }
+
+    public static List<Book> inRankOrder(List<Long> rankedIds, Iterable<Book> rows) {
+        Map<Long, Book> byId = new HashMap<>();
+        for (Book book : rows) {
+            byId.put(book.getId(), book);
+        }
+        List<Book> books = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            Book book = byId.get(id);
+            if (book != null) books.add(book);
+        }
+        return books;
+    }
+
+    // Ranking happens in memory; the rows themselves are fetched by primary key so quantities are never stale
+    private List<Book> load(List<Long> rankedIds) {
+        if (rankedIds.isEmpty()) return Collections.emptyList();
+        return inRankOrder(rankedIds, bookRepository.findByIdIn(rankedIds));
+    }
+}
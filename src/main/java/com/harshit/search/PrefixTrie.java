@@ -0,0 +1,331 @@
+package com.harshit.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie over the normalized form ({@link SearchText#normalize}) of a set of texts, each with a score.
+ * <p>
+ * Every node keeps the best {@code capacity} entries of its subtree, highest score first, so a prefix lookup is a
+ * walk down at most one edge per branching point followed by a copy of that node's list; it does not depend on how
+ * many texts share the prefix. A change to an entry only touches the lists on the path from its node to the root.
+ * A new entry or a higher score, the common case, can only move that entry up or into a list, which is one ranked
+ * insert per node. A lower score or a removal can let other entries in, so those lists are rebuilt from the node's
+ * own entries and its children's lists.
+ * <p>
+ * Edges carry whole runs of characters and nodes exist only where keys branch or end, so there are at most two
+ * nodes per distinct key.
+ */
+public class PrefixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    // Best score first; ties in text order so results are stable
+    private static final Comparator<Entry> RANK = Comparator.comparingLong(Entry::getScore).reversed()
+            .thenComparing(Entry::getText);
+
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Node root = new Node("");
+
+    public PrefixTrie(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds {@code text} with {@code score}, or changes its score. Texts with nothing left after normalizing are
+     * not stored, since no prefix could reach them.
+     */
+    public void put(String text, long score) {
+        String key = SearchText.normalize(text);
+        if (key.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(text);
+            if (entry == null) {
+                entry = new Entry(text, score);
+                entries.put(text, entry);
+                List<Node> path = insert(key);
+                Node node = path.get(path.size() - 1);
+                node.here = append(node.here, entry);
+                promote(path, entry);
+            } else if (score > entry.score) {
+                entry.score = score;
+                promote(find(key), entry);
+            } else if (score < entry.score) {
+                entry.score = score;
+                rerank(find(key));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String text) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(text);
+            if (entry == null) return;
+            List<Node> path = find(SearchText.normalize(text));
+            Node node = path.get(path.size() - 1);
+            node.here = without(node.here, entry);
+            prune(path);
+            rerank(path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            root.children = NO_CHILDREN;
+            root.here = NO_ENTRIES;
+            root.top = NO_ENTRIES;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} (at most the capacity) texts whose normalized form starts with the normalized
+     * {@code prefix}, best first. An empty prefix matches everything.
+     */
+    public List<Entry> top(String prefix, int limit) {
+        String key = SearchText.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (depth < key.length()) {
+                Node child = child(node, key.charAt(depth));
+                if (child == null) return List.of();
+                int common = common(child.label, key, depth);
+                if (depth + common == key.length()) {
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) return List.of();
+                node = child;
+                depth += common;
+            }
+            Entry[] top = node.top;
+            List<Entry> result = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                result.add(new Entry(top[i].text, top[i].score));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walks to the node for key, splitting an edge or adding a leaf where needed; returns root..node
+    private List<Node> insert(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < key.length()) {
+            int slot = slot(node, key.charAt(depth));
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(depth));
+                node.children = insertAt(node.children, -slot - 1, leaf);
+                path.add(leaf);
+                return path;
+            }
+            Node child = node.children[slot];
+            int common = common(child.label, key, depth);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                split.top = child.top.clone();
+                node.children[slot] = split;
+                child = split;
+            }
+            path.add(child);
+            node = child;
+            depth += common;
+        }
+        return path;
+    }
+
+    // The path to the node of a key known to be stored
+    private List<Node> find(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < key.length()) {
+            node = child(node, key.charAt(depth));
+            path.add(node);
+            depth += node.label.length();
+        }
+        return path;
+    }
+
+    // Drops the now-empty leaf at the end of path, and folds a node left with one child and no entries into it
+    private static void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.here.length == 0 && node.children.length == 0) {
+                parent.children = removeChild(parent.children, node);
+                path.remove(i);
+            } else if (node.here.length == 0 && node.children.length == 1) {
+                Node only = node.children[0];
+                only.label = node.label + only.label;
+                parent.children[slot(parent, only.label.charAt(0))] = only;
+                path.set(i, only);
+                return;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // For an entry that is new or has gained score: each list on the path either has it already, or gains it if it
+    // now beats the last one
+    private void promote(List<Node> path, Entry entry) {
+        for (Node node : path) {
+            Entry[] top = node.top;
+            int at = indexOf(top, entry);
+            if (at < 0) {
+                if (top.length == capacity && RANK.compare(entry, top[capacity - 1]) >= 0) continue;
+                top = Arrays.copyOf(top, Math.min(capacity, top.length + 1));
+                at = top.length - 1;
+                top[at] = entry;
+            } else {
+                top = top.clone();
+            }
+            while (at > 0 && RANK.compare(top[at], top[at - 1]) < 0) {
+                Entry better = top[at];
+                top[at] = top[at - 1];
+                top[--at] = better;
+            }
+            node.top = top;
+        }
+    }
+
+    private void rerank(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(node.here));
+            for (Node child : node.children) Collections.addAll(candidates, child.top);
+            candidates.sort(RANK);
+            node.top = candidates.subList(0, Math.min(capacity, candidates.size())).toArray(NO_ENTRIES);
+        }
+    }
+
+    private static int indexOf(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) return i;
+        }
+        return -1;
+    }
+
+    private static Node child(Node node, char first) {
+        int slot = slot(node, first);
+        return slot < 0 ? null : node.children[slot];
+    }
+
+    // Binary search by first character, Arrays.binarySearch style
+    private static int slot(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = node.children[mid].label.charAt(0);
+            if (c < first) low = mid + 1;
+            else if (c > first) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    private static int common(String label, String key, int from) {
+        int length = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(from + i)) i++;
+        return i;
+    }
+
+    private static Node[] insertAt(Node[] children, int at, Node child) {
+        Node[] grown = new Node[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, at);
+        grown[at] = child;
+        System.arraycopy(children, at, grown, at + 1, children.length - at);
+        return grown;
+    }
+
+    private static Node[] removeChild(Node[] children, Node child) {
+        if (children.length == 1) return NO_CHILDREN;
+        Node[] shrunk = new Node[children.length - 1];
+        int j = 0;
+        for (Node c : children) {
+            if (c != child) shrunk[j++] = c;
+        }
+        return shrunk;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] grown = Arrays.copyOf(entries, entries.length + 1);
+        grown[entries.length] = entry;
+        return grown;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        if (entries.length == 1) return NO_ENTRIES;
+        Entry[] shrunk = new Entry[entries.length - 1];
+        int j = 0;
+        for (Entry e : entries) {
+            if (e != entry) shrunk[j++] = e;
+        }
+        return shrunk;
+    }
+
+    public static final class Entry {
+        private final String text;
+        private long score;
+
+        Entry(String text, long score) {
+            this.text = text;
+            this.score = score;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public long getScore() {
+            return score;
+        }
+    }
+
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        // Texts whose key ends here; several texts can share one normalized key
+        Entry[] here = NO_ENTRIES;
+        Entry[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.harshit.search;
+
+/**
+ * Single-pass replacements for the regexes the searches used to run on every term. Both methods return the
+ * argument itself when there is nothing to change, which is the usual case, so a clean term costs one scan and no
+ * allocation; otherwise the result is built in one array.
+ */
+public final class SearchText {
+
+    private SearchText() {
+    }
+
+    /**
+     * {@code value.replaceAll("[^a-zA-Z0-9 ]", "")}.
+     */
+    public static String clean(String value) {
+        int first = 0;
+        while (first < value.length() && isCleanChar(value.charAt(first))) first++;
+        if (first == value.length()) return value;
+
+        char[] out = new char[value.length() - 1];
+        value.getChars(0, first, out, 0);
+        int length = first;
+        for (int i = first + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isCleanChar(c)) out[length++] = c;
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * The form stored in {@code title_norm} / {@code author_norm}: ASCII letters and digits only, lower-cased, as
+     * {@code LOWER(REGEXP_REPLACE(value, '[^a-zA-Z0-9]+', '', 'g'))}. Null becomes the empty string.
+     */
+    public static String normalize(String value) {
+        if (value == null) return "";
+        int first = 0;
+        while (first < value.length() && isNormalChar(value.charAt(first))) first++;
+        if (first == value.length()) return value;
+
+        char[] out = new char[value.length()];
+        value.getChars(0, first, out, 0);
+        int length = first;
+        for (int i = first; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isNormalChar(c)) {
+                out[length++] = c;
+            } else if (c >= 'A' && c <= 'Z') {
+                out[length++] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return new String(out, 0, length);
+    }
+
+    private static boolean isCleanChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == ' ';
+    }
+
+    private static boolean isNormalChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,183 @@
+package com.harshit.search;
+
+import com.harshit.dto.Suggestion;
+import com.harshit.entity.Book;
+import com.harshit.repository.BookRepository;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * Title and author completions for {@code /books/suggest}, ranked by how often they have been borrowed.
+ * <p>
+ * Built from the catalog and the loan tables at startup. {@code BookService} and the importer keep it current as
+ * books are added, changed or removed, and every committed borrow adds to the book's count. Lookups only touch the
+ * two {@link PrefixTrie}s.
+ */
+@Singleton
+public class SuggestionIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    // Archived loans count too; book_id is kept in borrowing_history even though it has no foreign key
+    private static final String BORROW_COUNTS = "SELECT book_id, COUNT(*) FROM ("
+            + "SELECT book_id FROM borrowing UNION ALL SELECT book_id FROM borrowing_history) loans GROUP BY book_id";
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Value("${library.suggest.max-results:10}")
+    int maxResults;
+
+    private PrefixTrie titles;
+    private PrefixTrie authors;
+
+    // What each book contributes to the tries, and the totals per title and per author; guarded by this
+    private final Map<Long, Indexed> books = new HashMap<>();
+    private final Map<String, Total> titleTotals = new HashMap<>();
+    private final Map<String, Total> authorTotals = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        titles = new PrefixTrie(maxResults);
+        authors = new PrefixTrie(maxResults);
+    }
+
+    @EventListener
+    @Transactional
+    public void onStartup(StartupEvent event) {
+        rebuild(bookRepository.findAll(), borrowCounts());
+    }
+
+    public synchronized void rebuild(Iterable<Book> catalog, Map<Long, Long> borrows) {
+        titles.clear();
+        authors.clear();
+        books.clear();
+        titleTotals.clear();
+        authorTotals.clear();
+        for (Book book : catalog) {
+            if (book.getId() == null) continue;
+            add(book.getId(), new Indexed(book.getTitle(), book.getAuthor(), borrows.getOrDefault(book.getId(), 0L)));
+        }
+        LOG.info("Suggestion index built with {} titles and {} authors", titles.size(), authors.size());
+    }
+
+    /**
+     * Adds the book, or moves it to its current title and author, keeping its borrow count.
+     */
+    public synchronized void index(Book book) {
+        if (book.getId() == null) return;
+        Indexed old = books.remove(book.getId());
+        if (old != null) subtract(old);
+        add(book.getId(), new Indexed(book.getTitle(), book.getAuthor(), old == null ? 0 : old.borrows));
+    }
+
+    public synchronized void remove(Long id) {
+        if (id == null) return;
+        Indexed old = books.remove(id);
+        if (old != null) subtract(old);
+    }
+
+    public synchronized void borrowed(Long id, int copies) {
+        Indexed book = books.get(id);
+        if (book == null) return;
+        book.borrows += copies;
+        titles.put(book.title, titleTotals.get(book.title).addBorrows(copies));
+        if (book.author != null) authors.put(book.author, authorTotals.get(book.author).addBorrows(copies));
+    }
+
+    /**
+     * Up to {@code limit} titles and authors starting with {@code prefix}, most borrowed first. Both are matched on
+     * their normalized form, so case, spaces and punctuation in the prefix do not matter.
+     */
+    public List<Suggestion> suggest(String prefix, @Nullable Integer limit) {
+        int size = limit == null ? maxResults : Math.max(1, Math.min(limit, maxResults));
+        if (SearchText.normalize(prefix).isEmpty()) return List.of();
+
+        List<Suggestion> suggestions = new ArrayList<>(size * 2);
+        for (PrefixTrie.Entry entry : titles.top(prefix, size)) {
+            suggestions.add(new Suggestion(entry.getText(), Suggestion.Type.TITLE, entry.getScore()));
+        }
+        for (PrefixTrie.Entry entry : authors.top(prefix, size)) {
+            suggestions.add(new Suggestion(entry.getText(), Suggestion.Type.AUTHOR, entry.getScore()));
+        }
+        suggestions.sort(Comparator.comparingLong(Suggestion::getBorrows).reversed()
+                .thenComparing(Suggestion::getType).thenComparing(Suggestion::getText));
+        return suggestions.size() > size ? suggestions.subList(0, size) : suggestions;
+    }
+
+    private void add(Long id, Indexed book) {
+        books.put(id, book);
+        Total title = titleTotals.computeIfAbsent(book.title, k -> new Total());
+        title.books++;
+        titles.put(book.title, title.addBorrows(book.borrows));
+        if (book.author != null) {
+            Total author = authorTotals.computeIfAbsent(book.author, k -> new Total());
+            author.books++;
+            authors.put(book.author, author.addBorrows(book.borrows));
+        }
+    }
+
+    private void subtract(Indexed book) {
+        subtract(titles, titleTotals, book.title, book.borrows);
+        if (book.author != null) subtract(authors, authorTotals, book.author, book.borrows);
+    }
+
+    private static void subtract(PrefixTrie trie, Map<String, Total> totals, String text, long borrows) {
+        Total total = totals.get(text);
+        if (--total.books == 0) {
+            totals.remove(text);
+            trie.remove(text);
+        } else {
+            trie.put(text, total.addBorrows(-borrows));
+        }
+    }
+
+    private Map<Long, Long> borrowCounts() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Map<Long, Long> counts = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(BORROW_COUNTS)) {
+                while (rows.next()) counts.put(rows.getLong(1), rows.getLong(2));
+            }
+            return counts;
+        });
+    }
+
+    private static final class Indexed {
+        final String title;
+        final String author;
+        long borrows;
+
+        Indexed(String title, String author, long borrows) {
+            this.title = title;
+            this.author = author;
+            this.borrows = borrows;
+        }
+    }
+
+    private static final class Total {
+        int books;
+        long borrows;
+
+        long addBorrows(long delta) {
+            return borrows += delta;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.harshit.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted trigram index over a single text field, keyed by entity id.
+ * <p>
+ * Matching mirrors the native search queries in {@code BookRepository}: a document matches when its
+ * normalized form ({@link SearchText#normalize}) contains the query's (the {@code ILIKE} / {@code title_norm}
+ * branches) or when its trigram similarity reaches the threshold (the {@code %} operator). Results are ranked
+ * like {@code ORDER BY similarity(...) DESC}, using pg_trgm's trigram extraction and similarity formula.
+ */
+public class TrigramIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    // pg_trgm style trigrams ("  wo", "wor", "ord", "rd ") used for similarity ranking
+    private final Map<String, Set<Long>> wordTrigrams = new HashMap<>();
+
+    // Plain trigrams of the alphanumeric-only text, used to narrow down substring candidates
+    private final Map<String, Set<Long>> compactTrigrams = new HashMap<>();
+
+    public void put(Long id, String text) {
+        Document document = new Document(wordTrigrams(text), SearchText.normalize(text));
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            documents.put(id, document);
+            for (String trigram : document.trigrams) {
+                wordTrigrams.computeIfAbsent(trigram, k -> new HashSet<>()).add(id);
+            }
+            for (String trigram : plainTrigrams(document.compact)) {
+                compactTrigrams.computeIfAbsent(trigram, k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            wordTrigrams.clear();
+            compactTrigrams.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all matching documents, best match first. Ties are broken by id so the order is stable.
+     */
+    public List<Long> search(String query, double similarityThreshold) {
+        Set<String> queryTrigrams = wordTrigrams(query);
+        String queryCompact = SearchText.normalize(query);
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (Long id : wordTrigrams.getOrDefault(trigram, Collections.emptySet())) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+
+            Map<Long, Double> matches = new HashMap<>();
+            shared.forEach((id, common) -> {
+                double score = similarity(common, queryTrigrams.size(), documents.get(id).trigrams.size());
+                if (score >= similarityThreshold) {
+                    matches.put(id, score);
+                }
+            });
+            for (Long id : containing(queryCompact)) {
+                matches.computeIfAbsent(id, k -> similarity(shared.getOrDefault(k, 0), queryTrigrams.size(),
+                        documents.get(k).trigrams.size()));
+            }
+
+            List<Long> ids = new ArrayList<>(matches.keySet());
+            ids.sort(Comparator.<Long>comparingDouble(matches::get).reversed().thenComparing(Comparator.naturalOrder()));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> containing(String queryCompact) {
+        if (queryCompact.length() < 3) {
+            // Too short to narrow down with trigrams; an empty query matches everything, like ILIKE '%%'
+            List<Long> ids = new ArrayList<>();
+            documents.forEach((id, document) -> {
+                if (document.compact.contains(queryCompact)) ids.add(id);
+            });
+            return ids;
+        }
+
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String trigram : plainTrigrams(queryCompact)) {
+            Set<Long> posting = compactTrigrams.get(trigram);
+            if (posting == null) return Collections.emptyList();
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> ids = new ArrayList<>();
+        for (Long id : postings.get(0)) {
+            if (documents.get(id).compact.contains(queryCompact)) ids.add(id);
+        }
+        return ids;
+    }
+
+    private void removeUnlocked(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) return;
+        for (String trigram : document.trigrams) {
+            removePosting(wordTrigrams, trigram, id);
+        }
+        for (String trigram : plainTrigrams(document.compact)) {
+            removePosting(compactTrigrams, trigram, id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String trigram, Long id) {
+        Set<Long> posting = postings.get(trigram);
+        if (posting != null && posting.remove(id) && posting.isEmpty()) {
+            postings.remove(trigram);
+        }
+    }
+
+    static double similarity(int common, int querySize, int documentSize) {
+        int union = querySize + documentSize - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    /**
+     * Trigram set as built by pg_trgm: every run of letters/digits is lower-cased, padded with two leading
+     * blanks and one trailing blank, and split into overlapping three-character windows.
+     */
+    static Set<String> wordTrigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        if (text == null) return trigrams;
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i > start) {
+                String padded = "  " + text.substring(start, i).toLowerCase(Locale.ROOT) + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    trigrams.add(padded.substring(j, j + 3));
+                }
+            }
+        }
+        return trigrams;
+    }
+
+    private static Set<String> plainTrigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static final class Document {
+        final Set<String> trigrams;
+        final String compact;
+
+        Document(Set<String> trigrams, String compact) {
+            this.trigrams = trigrams;
+            this.compact = compact;
+        }
+    }
+}
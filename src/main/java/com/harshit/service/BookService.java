@@ -1,26 +1,85 @@
 package com.harshit.service;
 
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.cache.CatalogVersion;
+import com.harshit.dto.CursorPage;
 import com.harshit.entity.Book;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.inventory.AvailabilityFeed;
+import com.harshit.json.RowJsonWriter;
+import com.harshit.metrics.Instrumented;
+import com.harshit.replica.ReplicaRead;
 import com.harshit.repository.BookRepository;
+import com.harshit.search.BookSearchIndex;
+import com.harshit.search.SearchText;
+import com.harshit.search.SuggestionIndex;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpResponse;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
 
 import javax.transaction.Transactional;
 import java.util.*;
 
+import static com.harshit.dto.AvailabilityChange.Type.*;
+
+@Instrumented
 @Singleton
 public class BookService {
 
     @Inject
     BookRepository bookRepository;
 
+    @Inject
+    BookSearchIndex bookSearchIndex;
+
+    @Inject
+    KeysetPaginator keysetPaginator;
+
+    @Inject
+    AvailabilityEngine availabilityEngine;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @Inject
+    RowJsonWriter rowJsonWriter;
+
+    @Inject
+    CatalogVersion catalogVersion;
+
+    @Inject
+    AvailabilityFeed availabilityFeed;
+
+    @Inject
+    SuggestionIndex suggestionIndex;
+
+    @Inject
+    HoldService holdService;
+
+    @ReplicaRead
     public Iterable<Book> getListOfBooks(){
         return bookRepository.findAll();
     }
 
+    @ReplicaRead
+    public CursorPage<Book> getBooksPage(@Nullable Long after, @Nullable Integer size) {
+        return keysetPaginator.page(bookRepository::findByIdGreaterThan, Book::getId, after, size);
+    }
+
+    // Same page as getBooksPage, written by RowJsonWriter without loading any Book
+    @ReplicaRead
+    public HttpResponse<?> getBooksPageJson(@Nullable Long after, @Nullable Integer size) {
+        return RowJsonWriter.ok(rowJsonWriter.booksPage(after != null ? after : 0L, keysetPaginator.pageSize(size)));
+    }
+
+    public Publisher<Book> streamBooks() {
+        return keysetPaginator.stream(bookRepository::findByIdGreaterThan, Book::getId);
+    }
+
     public HttpResponse<Book> getBookByName(String name) {
-        return bookRepository.findByTitle(name)
+        return catalogLookupCache.findBookByTitle(name)
                 .map(HttpResponse::ok)
                 .orElse(HttpResponse.notFound());
     }
@@ -31,7 +90,7 @@ public class BookService {
             return HttpResponse.badRequest("!!! Book name is required !!!");
         }
 
-        Optional<Book> existingBookOpt = bookRepository.findByTitle(book.getTitle());
+        Optional<Book> existingBookOpt = catalogLookupCache.findBookByTitle(book.getTitle());
         if (existingBookOpt.isPresent()) {
             return HttpResponse.badRequest("This book already exists. Please use the update operation.");
         }
@@ -47,6 +106,12 @@ public class BookService {
         }
         newBook.setPublishedYear(book.getPublishedYear());
         bookRepository.save(newBook);
+        TransactionCallbacks.afterCommit(() -> {
+            bookSearchIndex.index(newBook);
+            catalogVersion.bump();
+            suggestionIndex.index(newBook);
+            availabilityFeed.publish(ADDED, newBook.getTitle(), newBook.getQuantity(), newBook.getQuantity());
+        });
         return HttpResponse.ok("Book added successfully!");
     }
 
@@ -56,12 +121,23 @@ public class BookService {
 
         if (existingBookOpt.isPresent()) {
             Book existingBook = existingBookOpt.get();
+            int before = existingBook.getQuantity();
             if (book.getTitle() != null) existingBook.setTitle(book.getTitle());
             if (book.getAuthor() != null) existingBook.setAuthor(book.getAuthor());
             if (book.getQuantity() > 0) existingBook.setQuantity(book.getQuantity());
             if (book.getPublishedYear() != 0) existingBook.setPublishedYear(book.getPublishedYear());
 
             bookRepository.update(existingBook);
+            TransactionCallbacks.afterCommit(() -> {
+                bookSearchIndex.index(existingBook);
+                availabilityEngine.invalidate(existingBook.getId());
+                catalogLookupCache.evictBook(name);
+                catalogLookupCache.evictBook(existingBook.getTitle());
+                catalogVersion.bump();
+                suggestionIndex.index(existingBook);
+                if (!existingBook.getTitle().equals(name)) availabilityFeed.publish(DELETED, name, -before, 0);
+                availabilityFeed.publish(UPDATED, existingBook.getTitle(), existingBook.getQuantity() - before, existingBook.getQuantity());
+            });
             return HttpResponse.ok("Book updated successfully!");
         } else if (confirm) {
             return saveBook(book);
@@ -75,57 +151,115 @@ public class BookService {
         Optional<Book> bk = bookRepository.findByTitle(title);
         if (bk.isPresent()) {
             bookRepository.deleteByTitle(title);
+            holdService.bookDeleted(bk.get().getId());
+            TransactionCallbacks.afterCommit(() -> {
+                bookSearchIndex.remove(bk.get().getId());
+                availabilityEngine.invalidate(bk.get().getId());
+                catalogLookupCache.evictBook(title);
+                catalogVersion.bump();
+                suggestionIndex.remove(bk.get().getId());
+                availabilityFeed.publish(DELETED, title, -bk.get().getQuantity(), 0);
+            });
             return HttpResponse.ok("!!! Book deleted successfully !!!");
         } else {
             return HttpResponse.notFound("!!! The book you are trying to delete does not exist in the DB. !!!");
         }
     }
 
+    @ReplicaRead
     public HttpResponse<Map<String, Object>> searchBooksByAuthor(String author) {
         Map<String, Object> response = new LinkedHashMap<>();
-        if (!author.matches("^[a-zA-Z0-9 ]+$")) {
-            response.put("Warning", "!!! Only characters and numbers are recommended in the author's name !!!");
-            author = author.replaceAll("[^a-zA-Z0-9 ]", "");
-        }
-        response.put("books", bookRepository.searchBooksByAuthor("%" + author + "%"));
+        author = clean(author, AUTHOR_WARNING, response);
+        response.put("books", bookSearchIndex.isEnabled()
+                ? bookSearchIndex.searchByAuthor(author)
+                : bookRepository.searchBooksByAuthor("%" + author + "%", SearchText.normalize(author)));
         return HttpResponse.ok(response);
     }
 
+    @ReplicaRead
     public HttpResponse<Map<String, Object>> searchBooksByTitle(String title) {
         Map<String, Object> response = new LinkedHashMap<>();
-        if (!title.matches("^[a-zA-Z0-9 ]+$")) {
-            response.put("Warning", "!!! Only characters and numbers are recommended in the title !!!");
-            title = title.replaceAll("[^a-zA-Z0-9 ]", "");
-        }
-        response.put("books", bookRepository.searchBooks("%" + title + "%"));
+        title = clean(title, TITLE_WARNING, response);
+        response.put("books", bookSearchIndex.isEnabled()
+                ? bookSearchIndex.searchByTitle(title)
+                : bookRepository.searchBooks("%" + title + "%", SearchText.normalize(title)));
         return HttpResponse.ok(response);
     }
 
+    @ReplicaRead
     public HttpResponse<Map<String, Object>> searchBooksByYearRange(int startYear, int endYear) {
         Map<String, Object> response = new LinkedHashMap<>();
-        if (startYear<  0 || endYear< 0) {
-            response.put("Error", "!!! Year values cannot be negative !!!");
-            return HttpResponse.badRequest(response);
-        }
-        if (endYear  < startYear) response.put("Warning", "!!! End year can't be less than start year !!!");
+        if (!checkYearRange(startYear, endYear, response)) return HttpResponse.badRequest(response);
 
         response.put("books", bookRepository.searchBooksByYearRange(startYear, endYear));
         return HttpResponse.ok(response);
     }
 
+    @ReplicaRead
     public HttpResponse<Map<String, Object>> searchBooksByTitleAndYearRange(String title, int startYear, int endYear) {
         Map<String, Object> response = new LinkedHashMap<>();
-        if (!title.matches("^[a-zA-Z0-9 ]+$")) {
-            response.put("Warning", "!!! Only characters and numbers are recommended in the title !!!");
-            title = title.replaceAll("[^a-zA-Z0-9 ]", "");
-        }
+        title = clean(title, TITLE_WARNING, response);
+        if (!checkYearRange(startYear, endYear, response)) return HttpResponse.badRequest(response);
+
+        response.put("books", bookSearchIndex.isEnabled()
+                ? bookSearchIndex.searchByTitleAndYearRange(title, startYear, endYear)
+                : bookRepository.searchBooksByTitleAndYearRange("%" + title + "%", SearchText.normalize(title), startYear, endYear));
+        return HttpResponse.ok(response);
+    }
+
+    // The *Json variants give the same responses as the searches above through RowJsonWriter. The pg_trgm fallback
+    // ranks inside its query, so without the search index they just use the databind path.
+    @ReplicaRead
+    public HttpResponse<?> searchBooksByAuthorJson(String author) {
+        if (!bookSearchIndex.isEnabled()) return searchBooksByAuthor(author);
+        Map<String, Object> response = new LinkedHashMap<>();
+        author = clean(author, AUTHOR_WARNING, response);
+        return RowJsonWriter.ok(rowJsonWriter.rankedBooks(response, bookSearchIndex.rankByAuthor(author)));
+    }
+
+    @ReplicaRead
+    public HttpResponse<?> searchBooksByTitleJson(String title) {
+        if (!bookSearchIndex.isEnabled()) return searchBooksByTitle(title);
+        Map<String, Object> response = new LinkedHashMap<>();
+        title = clean(title, TITLE_WARNING, response);
+        return RowJsonWriter.ok(rowJsonWriter.rankedBooks(response, bookSearchIndex.rankByTitle(title)));
+    }
+
+    @ReplicaRead
+    public HttpResponse<?> searchBooksByYearRangeJson(int startYear, int endYear) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (!checkYearRange(startYear, endYear, response)) return HttpResponse.badRequest(response);
+
+        return RowJsonWriter.ok(rowJsonWriter.booksByYearRange(response, startYear, endYear));
+    }
+
+    @ReplicaRead
+    public HttpResponse<?> searchBooksByTitleAndYearRangeJson(String title, int startYear, int endYear) {
+        if (!bookSearchIndex.isEnabled()) return searchBooksByTitleAndYearRange(title, startYear, endYear);
+        Map<String, Object> response = new LinkedHashMap<>();
+        title = clean(title, TITLE_WARNING, response);
+        if (!checkYearRange(startYear, endYear, response)) return HttpResponse.badRequest(response);
+
+        return RowJsonWriter.ok(rowJsonWriter.rankedBooks(response, bookSearchIndex.rankByTitleAndYearRange(title, startYear, endYear)));
+    }
+
+    // Shared with ReactiveBookService so both read paths validate searches the same way
+    static final String AUTHOR_WARNING = "!!! Only characters and numbers are recommended in the author's name !!!";
+    static final String TITLE_WARNING = "!!! Only characters and numbers are recommended in the title !!!";
+
+    static String clean(String value, String warning, Map<String, Object> response) {
+        String cleaned = SearchText.clean(value);
+        if (cleaned == value && !value.isEmpty()) return value;
+        response.put("Warning", warning);
+        return cleaned;
+    }
+
+    static boolean checkYearRange(int startYear, int endYear, Map<String, Object> response) {
         if (startYear < 0 || endYear < 0) {
             response.put("Error", "!!! Year values cannot be negative !!!");
-            return HttpResponse.badRequest(response);
+            return false;
         }
         if (endYear < startYear) response.put("Warning", "!!! End year can't be less than start year !!!");
-
-        response.put("books", bookRepository.searchBooksByTitleAndYearRange("%" + title + "%", startYear, endYear));
-        return HttpResponse.ok(response);
+        return true;
     }
 }
@@ -0,0 +1,284 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.cache.CatalogVersion;
+import com.harshit.dto.AvailabilityChange;
+import com.harshit.dto.BorrowingOutcome;
+import com.harshit.dto.BorrowingRequest;
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.inventory.AvailabilityFeed;
+import com.harshit.metrics.Instrumented;
+import com.harshit.report.LoanReportIndex;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.MemberRepository;
+import com.harshit.search.SuggestionIndex;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+import static com.harshit.dto.BorrowingOutcome.Status.*;
+
+/**
+ * Applies one chunk of a batch borrow/return in a single transaction. Books, members and loans are resolved with
+ * {@code IN}-list lookups, and the stock changes and loan rows are written with JDBC batches on the transaction's
+ * own connection, so a chunk costs a handful of round trips no matter how many items it holds.
+ */
+@Instrumented
+@Singleton
+public class BorrowingBatchWriter {
+
+    private static final String TAKE_COPY = "UPDATE books SET quantity = quantity - 1 WHERE id = ? AND quantity > 0";
+    private static final String RETURN_COPY = "UPDATE books SET quantity = quantity + 1 WHERE id = ?";
+    private static final String INSERT_LOAN = "INSERT INTO borrowing (member_id, book_id, borrow_date, return_date, book_name, member_name) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String CLOSE_LOAN = "UPDATE borrowing SET return_date = ?, returned_date = ? WHERE id = ?";
+
+    @Inject
+    private BookRepository bookRepository;
+
+    @Inject
+    private MemberRepository memberRepository;
+
+    @Inject
+    private BorrowingRepository borrowingRepository;
+
+    @Inject
+    private AvailabilityEngine availabilityEngine;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private CatalogLookupCache catalogLookupCache;
+
+    @Inject
+    private CatalogVersion catalogVersion;
+
+    @Inject
+    private AvailabilityFeed availabilityFeed;
+
+    @Inject
+    private SuggestionIndex suggestionIndex;
+
+    @Inject
+    private LoanReportIndex loanReportIndex;
+
+    @Inject
+    private HoldService holdService;
+
+    @Transactional
+    public List<BorrowingOutcome> borrowChunk(List<BorrowingRequest> requests) {
+        return borrowChunk(requests, Collections.nCopies(requests.size(), null));
+    }
+
+    /**
+     * Like {@link #borrowChunk(List)}, for items that already took a copy when they were accepted. {@code held}
+     * lines up with {@code requests} and is null for items that still need a reservation. A held copy is confirmed
+     * when its loan commits, and given up when the chunk commits if the item is turned down; if the chunk rolls back
+     * it stays with the caller, who can retry with it.
+     */
+    @Transactional
+    public List<BorrowingOutcome> borrowChunk(List<BorrowingRequest> requests, List<AvailabilityEngine.Reservation> held) {
+        Set<String> titles = distinct(requests, BorrowingRequest::getBookName);
+        Set<String> names = distinct(requests, BorrowingRequest::getMemberName);
+        Map<String, Book> books = titles.isEmpty() ? Map.of() : index(bookRepository.findByTitleIn(titles), Book::getTitle);
+        Map<String, Member> members = names.isEmpty() ? Map.of() : index(memberRepository.findByNameIn(names), Member::getName);
+
+        BorrowingOutcome[] outcomes = new BorrowingOutcome[requests.size()];
+        List<Integer> reservedItems = new ArrayList<>();
+        List<AvailabilityEngine.Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BorrowingRequest request = requests.get(i);
+            Book book = books.get(request.getBookName());
+            if (book == null || !members.containsKey(request.getMemberName())) {
+                if (held.get(i) != null) turnDown(held.get(i), false);
+                outcomes[i] = BorrowingOutcome.of(request, NOT_FOUND, "Either the book or member does not exist.");
+                continue;
+            }
+            AvailabilityEngine.Reservation reservation = held.get(i);
+            if (reservation == null) {
+                // As in BorrowingService.borrowBook, a member whose hold came up takes the copy kept for them
+                reservation = holdService.claim(book, members.get(request.getMemberName()));
+                if (reservation == null) reservation = availabilityEngine.reserve(book);
+            }
+            if (reservation == null) {
+                outcomes[i] = BorrowingOutcome.of(request, NOT_AVAILABLE, "Sorry!! This book is currently not available for borrowing.");
+                continue;
+            }
+            if (held.get(i) != null) {
+                TransactionCallbacks.afterCommit(reservation::confirm);
+            } else {
+                TransactionCallbacks.afterCompletion(reservation::confirm, reservation::cancel);
+            }
+            reservedItems.add(i);
+            reservations.add(reservation);
+        }
+        if (reservedItems.isEmpty()) return Arrays.asList(outcomes);
+
+        LocalDate today = LocalDate.now();
+        List<LoanReportEntry> opened = new ArrayList<>();
+        session().doWork(connection -> {
+            int[] taken;
+            try (PreparedStatement statement = connection.prepareStatement(TAKE_COPY)) {
+                for (AvailabilityEngine.Reservation reservation : reservations) {
+                    statement.setLong(1, reservation.getBookId());
+                    statement.addBatch();
+                }
+                taken = statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_LOAN, Statement.RETURN_GENERATED_KEYS)) {
+                for (int j = 0; j < reservedItems.size(); j++) {
+                    int i = reservedItems.get(j);
+                    BorrowingRequest request = requests.get(i);
+                    if (taken[j] == 0) {
+                        if (held.get(i) != null) {
+                            turnDown(held.get(i), true);
+                        } else {
+                            reservations.get(j).reject();
+                            // The claim fulfilled its hold in this transaction, so once it commits the copy is nobody's
+                            if (reservations.get(j).isSetAside()) holdService.unclaimed(reservations.get(j).getBookId());
+                        }
+                        outcomes[i] = BorrowingOutcome.of(request, NOT_AVAILABLE, "Sorry!! This book is currently not available for borrowing.");
+                        continue;
+                    }
+                    statement.setLong(1, members.get(request.getMemberName()).getId());
+                    statement.setLong(2, reservations.get(j).getBookId());
+                    statement.setDate(3, Date.valueOf(today));
+                    statement.setDate(4, Date.valueOf(today.plusDays(14))); // Assuming a 2-week borrowing period
+                    statement.setString(5, request.getBookName());
+                    statement.setString(6, request.getMemberName());
+                    statement.addBatch();
+                    outcomes[i] = BorrowingOutcome.of(request, BORROWED, "Borrowing successful.");
+                    opened.add(new LoanReportEntry(null, reservations.get(j).getBookId(), request.getBookName(),
+                            members.get(request.getMemberName()).getId(), request.getMemberName(), today, today.plusDays(14)));
+                }
+                statement.executeBatch();
+                // Generated keys come back in insert order
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (LoanReportEntry loan : opened) {
+                        if (!keys.next()) break;
+                        loan.setBorrowingId(keys.getLong(1));
+                    }
+                }
+            }
+        });
+        Set<String> touched = new HashSet<>();
+        Map<String, Integer> borrowed = new HashMap<>();
+        for (int i : reservedItems) {
+            touched.add(requests.get(i).getBookName());
+            if (outcomes[i].getStatus() == BORROWED) borrowed.merge(requests.get(i).getBookName(), 1, Integer::sum);
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            touched.forEach(catalogLookupCache::evictBook);
+            catalogVersion.bump();
+            opened.forEach(loanReportIndex::add);
+            borrowed.forEach((title, copies) -> {
+                suggestionIndex.borrowed(books.get(title).getId(), copies);
+                availabilityFeed.publish(AvailabilityChange.Type.BORROWED, title, -copies, null);
+            });
+        });
+        return Arrays.asList(outcomes);
+    }
+
+    @Transactional
+    public List<BorrowingOutcome> returnChunk(List<BorrowingRequest> requests) {
+        // Same record the single return would pick, the most recent open loan for the pair
+        Set<String> titles = distinct(requests, BorrowingRequest::getBookName);
+        Set<String> names = distinct(requests, BorrowingRequest::getMemberName);
+        Map<String, LoanReportEntry> loans = new HashMap<>();
+        List<LoanReportEntry> candidates = titles.isEmpty() || names.isEmpty()
+                ? List.of() : borrowingRepository.findOpenLoansByNames(titles, names);
+        for (LoanReportEntry loan : candidates) {
+            loans.merge(key(loan.getBookName(), loan.getMemberName()), loan,
+                    (a, b) -> a.getBorrowingId() > b.getBorrowingId() ? a : b);
+        }
+
+        BorrowingOutcome[] outcomes = new BorrowingOutcome[requests.size()];
+        List<LoanReportEntry> closing = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BorrowingRequest request = requests.get(i);
+            // remove() so the same loan can't be returned twice within one batch
+            LoanReportEntry borrowing = loans.remove(key(request.getBookName(), request.getMemberName()));
+            if (borrowing == null) {
+                outcomes[i] = BorrowingOutcome.of(request, NO_RECORD, "Borrowing record not found for the given book and member.");
+                continue;
+            }
+            closing.add(borrowing);
+            outcomes[i] = BorrowingOutcome.of(request, RETURNED, "Book returned successfully by " + request.getMemberName());
+        }
+        if (closing.isEmpty()) return Arrays.asList(outcomes);
+
+        Date today = Date.valueOf(LocalDate.now());
+        session().doWork(connection -> {
+            try (PreparedStatement loan = connection.prepareStatement(CLOSE_LOAN);
+                 PreparedStatement stock = connection.prepareStatement(RETURN_COPY)) {
+                for (LoanReportEntry borrowing : closing) {
+                    loan.setDate(1, today);
+                    loan.setDate(2, today);
+                    loan.setLong(3, borrowing.getBorrowingId());
+                    loan.addBatch();
+                    stock.setLong(1, borrowing.getBookId());
+                    stock.addBatch();
+                }
+                loan.executeBatch();
+                stock.executeBatch();
+            }
+        });
+        for (LoanReportEntry borrowing : closing) {
+            holdService.copyReturned(borrowing.getBookId());
+            TransactionCallbacks.afterCommit(() -> {
+                catalogLookupCache.evictBook(borrowing.getBookName());
+                catalogVersion.bump();
+                loanReportIndex.remove(borrowing.getBorrowingId());
+                availabilityFeed.publish(AvailabilityChange.Type.RETURNED, borrowing.getBookName(), 1, null);
+            });
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    private static Set<String> distinct(List<BorrowingRequest> requests, Function<BorrowingRequest, String> field) {
+        Set<String> values = new HashSet<>();
+        for (BorrowingRequest request : requests) {
+            String value = field.apply(request);
+            if (value != null) values.add(value);
+        }
+        return values;
+    }
+
+    private static <T> Map<String, T> index(List<T> rows, Function<T, String> key) {
+        Map<String, T> byKey = new HashMap<>();
+        for (T row : rows) {
+            byKey.put(key.apply(row), row);
+        }
+        return byKey;
+    }
+
+    // A held copy turned down here is given up once the chunk commits. One that was set aside for a hold can't go
+    // back to that hold, which was fulfilled when the borrow was accepted
+    private void turnDown(AvailabilityEngine.Reservation reservation, boolean stale) {
+        TransactionCallbacks.afterCommit(stale ? reservation::reject : reservation::cancel);
+        if (reservation.isSetAside()) holdService.unclaimed(reservation.getBookId());
+    }
+
+    private static String key(String bookName, String memberName) {
+        return bookName + '\u0000' + memberName;
+    }
+}
@@ -1,21 +1,43 @@
 package com.harshit.service;
 
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.cache.CatalogVersion;
+import com.harshit.dto.AvailabilityChange;
+import com.harshit.dto.BorrowingOutcome;
+import com.harshit.dto.BorrowingRequest;
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanHistoryEntry;
+import com.harshit.dto.LoanReportEntry;
 import com.harshit.entity.Book;
 import com.harshit.entity.Borrowing;
 import com.harshit.entity.Member;
 import com.harshit.exception.BookNotAvailableException;
 import com.harshit.exception.EntityNotFoundException;
+import com.harshit.history.BorrowingHistory;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.inventory.AvailabilityFeed;
+import com.harshit.journal.WriteBehindBorrowing;
+import com.harshit.metrics.Instrumented;
 import com.harshit.repository.BookRepository;
 import com.harshit.repository.BorrowingRepository;
+import com.harshit.report.ActiveLoanIndex;
+import com.harshit.report.LoanReportIndex;
 import com.harshit.repository.MemberRepository;
+import com.harshit.replica.ReplicaRead;
+import com.harshit.search.SuggestionIndex;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import javax.transaction.Transactional;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+@Instrumented
 @Singleton
 public class BorrowingService {
 
@@ -28,11 +50,60 @@ public class BorrowingService {
     @Inject
     private BorrowingRepository borrowingRepository;
 
+    @Inject
+    private AvailabilityEngine availabilityEngine;
+
+    @Inject
+    private BorrowingBatchWriter borrowingBatchWriter;
+
+    @Inject
+    private CatalogLookupCache catalogLookupCache;
+
+    @Inject
+    private CatalogVersion catalogVersion;
+
+    @Inject
+    private AvailabilityFeed availabilityFeed;
+
+    @Inject
+    private SuggestionIndex suggestionIndex;
+
+    @Inject
+    private LoanReportIndex loanReportIndex;
+
+    @Inject
+    private ActiveLoanIndex activeLoanIndex;
+
+    @Inject
+    private SingleStatementBorrowing singleStatementBorrowing;
+
+    @Inject
+    private BorrowingHistory borrowingHistory;
+
+    @Inject
+    private HoldService holdService;
+
+    @Inject
+    private KeysetPaginator keysetPaginator;
+
+    // Only present in write-behind mode
+    @Inject
+    @Nullable
+    private WriteBehindBorrowing writeBehindBorrowing;
+
+    // PostgreSQL only: borrow and return with one CTE statement each instead of the JPA round trips
+    @Value("${library.borrowing.single-statement:false}")
+    private boolean singleStatement;
+
+    // Items per transaction for batch requests; 0 runs the whole batch in one transaction
+    @Value("${library.borrowing.batch.chunk-size:100}")
+    private int batchChunkSize;
+
     @Transactional
     public Borrowing borrowBook(String bookName, String memberName) {
         // Fetch the book and member entities based on the provided names
-        Optional<Book> bookOpt = bookRepository.findByTitle(bookName);
-        Optional<Member> memberOpt = memberRepository.findByName(memberName);
+        Optional<Book> bookOpt = catalogLookupCache.findBookByTitle(bookName);
+        Optional<Member> memberOpt = catalogLookupCache.findMemberByName(memberName);
 
         if (!bookOpt.isPresent() || !memberOpt.isPresent()) {
             throw new EntityNotFoundException("Either the book or member does not exist.");
@@ -41,54 +112,159 @@ public class BorrowingService {
         Book book = bookOpt.get();
         Member member = memberOpt.get();
 
-        if (book.getQuantity() > 1) {
-            // Decrease the book quantity by 1
-            book.setQuantity(book.getQuantity() - 1);
-
-            // Create a new borrowing record
-            Borrowing borrowing = new Borrowing();
-            borrowing.setBorrowDate(LocalDate.now());
-            borrowing.setMember(member);
-            borrowing.setBook(book);
-            borrowing.setReturnDate(LocalDate.now().plusDays(14)); // Assuming a 2-week borrowing period
-            borrowing.setBookName(book.getTitle());
-            borrowing.setMemberName(member.getName());
-
-            // Save the updated book entity and borrowing record
-            bookRepository.update(book);
-            return borrowingRepository.save(borrowing);
-        } else {
+        // Take a copy in memory first; callers that lose the race never reach the database. A member whose hold
+        // came up takes the copy kept for them
+        AvailabilityEngine.Reservation reservation = holdService.claim(book, member);
+        if (reservation == null) reservation = availabilityEngine.reserve(book);
+        if (reservation == null) {
             throw new BookNotAvailableException("Sorry!! This book is currently not available for borrowing.");
         }
+        if (writeBehindBorrowing != null) {
+            return writeBehindBorrowing.borrow(book, member, reservation);
+        }
+        TransactionCallbacks.afterCompletion(reservation::confirm, reservation::cancel);
+        // The cached row's quantity is about to change
+        TransactionCallbacks.afterCommit(() -> {
+            catalogLookupCache.evictBook(book.getTitle());
+            catalogVersion.bump();
+            suggestionIndex.borrowed(book.getId(), 1);
+            availabilityFeed.publish(AvailabilityChange.Type.BORROWED, book.getTitle(), -1, null);
+        });
+
+        if (singleStatement) {
+            Borrowing saved = singleStatementBorrowing.borrow(book, member);
+            if (saved == null) {
+                reservation.reject();
+                throw new BookNotAvailableException("Sorry!! This book is currently not available for borrowing.");
+            }
+            TransactionCallbacks.afterCommit(() -> loanReportIndex.add(saved));
+            return saved;
+        }
+
+        // Decrease the book quantity by 1, only if a copy is still left in the DB
+        if (bookRepository.decrementQuantity(book.getId()) == 0) {
+            reservation.reject();
+            throw new BookNotAvailableException("Sorry!! This book is currently not available for borrowing.");
+        }
+
+        // Create a new borrowing record
+        Borrowing borrowing = new Borrowing();
+        borrowing.setBorrowDate(LocalDate.now());
+        borrowing.setMember(member);
+        borrowing.setBook(book);
+        borrowing.setReturnDate(LocalDate.now().plusDays(14)); // Assuming a 2-week borrowing period
+        borrowing.setBookName(book.getTitle());
+        borrowing.setMemberName(member.getName());
+
+        Borrowing saved = borrowingRepository.save(borrowing);
+        TransactionCallbacks.afterCommit(() -> loanReportIndex.add(saved));
+        return saved;
     }
 
     @Transactional
     public Borrowing returnBook(String bookName, String memberName) {
-        // Find the borrowing record by book name and member name
-        Optional<Borrowing> borrowingOpt = borrowingRepository.findByBookTitleAndMemberName(bookName, memberName);
+        if (writeBehindBorrowing != null) {
+            return writeBehindBorrowing.returnBook(bookName, memberName);
+        }
+        if (singleStatement) {
+            Borrowing borrowing = singleStatementBorrowing.returnBook(bookName, memberName);
+            if (borrowing == null) {
+                throw new RuntimeException("No borrowing record found for the book: " + bookName + " and member: " + memberName);
+            }
+            afterReturn(borrowing);
+            return borrowing;
+        }
+
+        // The most recent open loan for the pair, the same one the batch and single-statement returns close
+        Optional<Borrowing> borrowingOpt = borrowingRepository.findByBookTitleAndMemberNameAndReturnedDateIsNull(bookName, memberName)
+                .stream().max(Comparator.comparing(Borrowing::getId));
 
         if (borrowingOpt.isPresent()) {
             Borrowing borrowing = borrowingOpt.get();
-            Book book = borrowing.getBook();
+            Long bookId = borrowing.getBook().getId();
 
-            book.setQuantity(book.getQuantity() + 1);
             borrowing.setReturnDate(LocalDate.now());
+            borrowing.setReturnedDate(LocalDate.now());
 
-            bookRepository.update(book);
+            bookRepository.incrementQuantity(bookId);
+            afterReturn(borrowing);
             return borrowingRepository.update(borrowing);
         } else {
             throw new RuntimeException("No borrowing record found for the book: " + bookName + " and member: " + memberName);
         }
     }
 
-    public List<Object[]> getCurrentlyBorrowedBooks(LocalDate currentDate) {
-        return borrowingRepository.findCurrentlyBorrowedBooks(currentDate);
+    private void afterReturn(Borrowing borrowing) {
+        holdService.copyReturned(borrowing.getBook().getId());
+        TransactionCallbacks.afterCommit(() -> {
+            catalogLookupCache.evictBook(borrowing.getBookName());
+            catalogVersion.bump();
+            loanReportIndex.remove(borrowing.getId());
+            availabilityFeed.publish(AvailabilityChange.Type.RETURNED, borrowing.getBookName(), 1, null);
+        });
     }
 
-    public List<Object[]> getOverdueBooks() {
+    public List<BorrowingOutcome> borrowBooks(List<BorrowingRequest> requests) {
+        List<BorrowingOutcome> outcomes = new ArrayList<>(requests.size());
+        for (List<BorrowingRequest> chunk : chunks(requests)) {
+            outcomes.addAll(borrowingBatchWriter.borrowChunk(chunk));
+        }
+        return outcomes;
+    }
+
+    public List<BorrowingOutcome> returnBooks(List<BorrowingRequest> requests) {
+        List<BorrowingOutcome> outcomes = new ArrayList<>(requests.size());
+        for (List<BorrowingRequest> chunk : chunks(requests)) {
+            outcomes.addAll(borrowingBatchWriter.returnChunk(chunk));
+        }
+        return outcomes;
+    }
+
+    private List<List<BorrowingRequest>> chunks(List<BorrowingRequest> requests) {
+        if (batchChunkSize <= 0 || requests.size() <= batchChunkSize) {
+            return List.of(requests);
+        }
+        List<List<BorrowingRequest>> chunks = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            chunks.add(requests.subList(from, Math.min(from + batchChunkSize, requests.size())));
+        }
+        return chunks;
+    }
+
+    public CursorPage<LoanReportEntry> getCurrentlyBorrowedBooks(@Nullable LocalDate currentDate, @Nullable String memberName,
+                                                                 @Nullable String bookName, @Nullable Long after,
+                                                                 @Nullable Integer size) {
+        LocalDate asOf = currentDate != null ? currentDate : LocalDate.now();
+        return loanReportIndex.currentlyBorrowed(asOf, memberName, bookName, after, size);
+    }
+
+    public CursorPage<LoanReportEntry> getOverdueBooks(@Nullable String memberName, @Nullable String bookName,
+                                                       @Nullable Long after, @Nullable Integer size) {
         LocalDate currentDate = LocalDate.now();
-        return borrowingRepository.findOverdueBooks(currentDate);
+        return loanReportIndex.overdue(currentDate, memberName, bookName, after, size);
     }
-}
 
+    /**
+     * Returned loans in id order, archived or not, optionally only those of one member or one book.
+     */
+    @ReplicaRead
+    public CursorPage<LoanHistoryEntry> getBorrowingHistory(@Nullable String memberName, @Nullable String bookName,
+                                                            @Nullable Long after, @Nullable Integer size) {
+        return keysetPaginator.page((from, pageable) -> borrowingHistory.returnedLoans(from, memberName, bookName, pageable.getSize()),
+                LoanHistoryEntry::getBorrowingId, after, size);
+    }
 
+    /**
+     * Titles the member currently has on loan, or empty if there is no such member.
+     */
+    public Optional<List<String>> getMemberLoans(String memberName) {
+        return catalogLookupCache.findMemberByName(memberName).map(member -> activeLoanIndex.loans(member.getId()));
+    }
+
+    /**
+     * Members currently holding a copy of the book, or empty if there is no such book.
+     */
+    public Optional<List<String>> getBookHolders(String bookName) {
+        return catalogLookupCache.findBookByTitle(bookName).map(book -> activeLoanIndex.holders(book.getId()));
+    }
+}
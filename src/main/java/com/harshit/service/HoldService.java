@@ -0,0 +1,232 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.HoldPosition;
+import com.harshit.entity.Book;
+import com.harshit.entity.Hold;
+import com.harshit.entity.Member;
+import com.harshit.exception.EntityNotFoundException;
+import com.harshit.exception.HoldNotAllowedException;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.inventory.HoldQueue;
+import com.harshit.metrics.Instrumented;
+import com.harshit.repository.HoldRepository;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.harshit.entity.Hold.Status.*;
+
+/**
+ * Holds on books that are out. A returned copy goes to the next member in the book's {@link HoldQueue} rather than
+ * back on the shelf, and is kept for them for {@code library.holds.pickup-window}; after that it passes to the next
+ * in line. Every change is written to {@code holds} in the caller's transaction and reaches the queue once it
+ * commits.
+ */
+@Instrumented
+@Singleton
+public class HoldService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HoldService.class);
+
+    @Inject
+    private HoldRepository holdRepository;
+
+    @Inject
+    private HoldQueue holdQueue;
+
+    @Inject
+    private AvailabilityEngine availabilityEngine;
+
+    @Inject
+    private CatalogLookupCache catalogLookupCache;
+
+    @Value("${library.holds.pickup-window:3d}")
+    private Duration pickupWindow;
+
+    private final AtomicBoolean loaded = new AtomicBoolean();
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        load();
+    }
+
+    /**
+     * Loads the active holds and sets aside the copies of the ready ones, the first time it is called. Anything that
+     * takes copies at startup calls it first, so the counters it seeds leave those copies out.
+     */
+    public void load() {
+        if (!loaded.compareAndSet(false, true)) return;
+        List<Hold> holds = holdRepository.findByStatusIn(List.of(WAITING, READY));
+        holdQueue.clear();
+        for (Hold hold : holds) {
+            holdQueue.add(hold);
+            if (hold.getStatus() == READY) availabilityEngine.setAside(hold.getBookId());
+        }
+        LOG.info("Hold queue loaded with {} active holds", holds.size());
+    }
+
+    @Transactional
+    public Hold placeHold(String bookName, String memberName, int priority) {
+        Optional<Book> book = catalogLookupCache.findBookByTitle(bookName);
+        Optional<Member> member = catalogLookupCache.findMemberByName(memberName);
+        if (book.isEmpty() || member.isEmpty()) {
+            throw new EntityNotFoundException("Either the book or member does not exist.");
+        }
+        if (holdQueue.find(book.get().getId(), member.get().getId()).isPresent()) {
+            throw new HoldNotAllowedException("The member already has a hold on this book.");
+        }
+        if (availabilityEngine.onShelf(book.get()) > 0) {
+            throw new HoldNotAllowedException("A copy is available, borrow it instead.");
+        }
+
+        Hold hold = new Hold();
+        hold.setBookId(book.get().getId());
+        hold.setMemberId(member.get().getId());
+        hold.setBookName(book.get().getTitle());
+        hold.setMemberName(member.get().getName());
+        hold.setPriority(priority);
+        hold.setStatus(WAITING);
+        hold.setPlacedAt(LocalDateTime.now());
+        Hold saved = holdRepository.save(hold);
+        TransactionCallbacks.afterCommit(() -> holdQueue.add(saved));
+        return saved;
+    }
+
+    @Transactional
+    public boolean cancelHold(String bookName, String memberName) {
+        Optional<Hold> found = find(bookName, memberName);
+        if (found.isEmpty()) return false;
+        Hold hold = found.get();
+        Hold.Status status = hold.getStatus();
+        if (holdRepository.transition(hold.getId(), status, CANCELLED, hold.getReadyUntil()) == 0) return false;
+        TransactionCallbacks.afterCommit(() -> holdQueue.remove(hold));
+        if (status == READY) passOn(hold.getBookId());
+        return true;
+    }
+
+    public Optional<HoldPosition> getHoldPosition(String bookName, String memberName) {
+        return find(bookName, memberName).map(hold -> new HoldPosition(hold.getBookName(), hold.getMemberName(),
+                hold.getStatus(), holdQueue.position(hold), holdQueue.waiting(hold.getBookId()), hold.getReadyUntil()));
+    }
+
+    /**
+     * A copy of the book has been returned in the current transaction: it is set aside for the next hold, or goes
+     * back on the shelf if nobody is waiting.
+     */
+    @Transactional
+    public void copyReturned(Long bookId) {
+        if (assignCopy(bookId)) {
+            TransactionCallbacks.afterCommit(() -> availabilityEngine.setAside(bookId));
+        } else {
+            TransactionCallbacks.afterCommit(() -> availabilityEngine.release(bookId));
+        }
+    }
+
+    /**
+     * The copy set aside for the member's ready hold on the book, or null if there is none. The hold is fulfilled
+     * with the caller's transaction.
+     */
+    @Transactional
+    public AvailabilityEngine.Reservation claim(Book book, Member member) {
+        Optional<Hold> ready = holdQueue.find(book.getId(), member.getId()).filter(hold -> hold.getStatus() == READY);
+        if (ready.isEmpty()) return null;
+        Hold hold = ready.get();
+        AvailabilityEngine.Reservation reservation = availabilityEngine.takeSetAside(book.getId());
+        if (reservation == null) return null;
+        if (holdRepository.transition(hold.getId(), READY, FULFILLED, hold.getReadyUntil()) == 0) {
+            reservation.cancel();
+            return null;
+        }
+        TransactionCallbacks.afterCommit(() -> holdQueue.remove(hold));
+        return reservation;
+    }
+
+    /**
+     * A copy taken by {@link #claim} was set aside again after its hold had been fulfilled, because the borrow
+     * was turned down when it was applied later. With the hold gone it goes to the next hold, or back on the shelf.
+     */
+    @Transactional
+    public void unclaimed(Long bookId) {
+        passOn(bookId);
+    }
+
+    /**
+     * The book was deleted in the current transaction, and its holds with it.
+     */
+    @Transactional
+    public void bookDeleted(Long bookId) {
+        List<Hold> holds = holdQueue.forBook(bookId);
+        TransactionCallbacks.afterCommit(() -> {
+            holds.forEach(holdQueue::remove);
+            availabilityEngine.dropSetAside(bookId);
+        });
+    }
+
+    /**
+     * The member was deleted in the current transaction, and their holds with them. Copies set aside for them pass
+     * on.
+     */
+    @Transactional
+    public void memberDeleted(Long memberId) {
+        for (Hold hold : holdQueue.forMember(memberId)) {
+            TransactionCallbacks.afterCommit(() -> holdQueue.remove(hold));
+            if (hold.getStatus() == READY) passOn(hold.getBookId());
+        }
+    }
+
+    @Scheduled(fixedDelay = "${library.holds.expiry-interval:1h}", initialDelay = "1m")
+    @Transactional
+    public void expireLapsedHolds() {
+        for (Hold hold : holdQueue.lapsed(LocalDate.now())) {
+            boolean expired = holdRepository.transition(hold.getId(), READY, EXPIRED, hold.getReadyUntil()) > 0;
+            TransactionCallbacks.afterCommit(() -> holdQueue.remove(hold));
+            // Whoever fulfilled or cancelled it dealt with the copy; a hold deleted with its book or member leaves
+            // it to us
+            if (!expired && holdRepository.findById(hold.getId()).isPresent()) continue;
+            passOn(hold.getBookId());
+        }
+    }
+
+    // A set-aside copy whose hold is gone: the next hold gets it, or it goes back on the shelf
+    private void passOn(Long bookId) {
+        if (!assignCopy(bookId)) {
+            TransactionCallbacks.afterCommit(() -> availabilityEngine.releaseSetAside(bookId));
+        }
+    }
+
+    private boolean assignCopy(Long bookId) {
+        for (;;) {
+            Hold next = holdQueue.pollNext(bookId);
+            if (next == null) return false;
+            LocalDate readyUntil = LocalDate.now().plusDays(pickupWindow.toDays());
+            if (holdRepository.transition(next.getId(), WAITING, READY, readyUntil) == 0) {
+                // Cancelled elsewhere, or its book or member deleted, since it was queued
+                holdQueue.remove(next);
+                continue;
+            }
+            TransactionCallbacks.afterCompletion(() -> holdQueue.markReady(next, readyUntil), () -> holdQueue.requeue(next));
+            return true;
+        }
+    }
+
+    private Optional<Hold> find(String bookName, String memberName) {
+        Optional<Book> book = catalogLookupCache.findBookByTitle(bookName);
+        Optional<Member> member = catalogLookupCache.findMemberByName(memberName);
+        if (book.isEmpty() || member.isEmpty()) return Optional.empty();
+        return holdQueue.find(book.get().getId(), member.get().getId());
+    }
+}
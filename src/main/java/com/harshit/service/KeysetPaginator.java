@@ -0,0 +1,92 @@
+package com.harshit.service;
+
+import com.harshit.dto.CursorPage;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination on the {@code id} column, shared by the book and member listings.
+ * Every page is a bounded {@code WHERE id > :after ORDER BY id LIMIT :size} query, so no request ever has to
+ * hold a whole table in memory.
+ */
+@Singleton
+public class KeysetPaginator {
+
+    @Value("${library.pagination.default-page-size:100}")
+    int defaultPageSize;
+
+    @Value("${library.pagination.max-page-size:500}")
+    int maxPageSize;
+
+    @Value("${library.pagination.stream-chunk-size:500}")
+    int streamChunkSize;
+
+    public int pageSize(@Nullable Integer requested) {
+        if (requested == null || requested <= 0) return defaultPageSize;
+        return Math.min(requested, maxPageSize);
+    }
+
+    public <T> CursorPage<T> page(BiFunction<Long, Pageable, List<T>> fetch, Function<T, Long> idOf,
+                                  @Nullable Long after, @Nullable Integer size) {
+        int pageSize = pageSize(size);
+        // Ask for one extra row so we know whether there is a next page without a count query
+        List<T> rows = fetch.apply(after != null ? after : 0L, pageable(pageSize + 1));
+        return toPage(rows, pageSize, idOf);
+    }
+
+    /**
+     * Same as {@link #page} for a reactive repository; the page is emitted once its rows have arrived.
+     */
+    public <T> Mono<CursorPage<T>> reactivePage(BiFunction<Long, Pageable, Flux<T>> fetch, Function<T, Long> idOf,
+                                                @Nullable Long after, @Nullable Integer size) {
+        int pageSize = pageSize(size);
+        return fetch.apply(after != null ? after : 0L, pageable(pageSize + 1))
+                .collectList()
+                .map(rows -> toPage(rows, pageSize, idOf));
+    }
+
+    private static <T> CursorPage<T> toPage(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, idOf.apply(items.get(pageSize - 1)));
+    }
+
+    /**
+     * Streams every row in id order. Chunks are only fetched as the subscriber signals demand, so at most a couple
+     * of chunks are in memory at any time no matter how large the table is.
+     */
+    public <T> Publisher<T> stream(BiFunction<Long, Pageable, List<T>> fetch, Function<T, Long> idOf) {
+        Pageable chunk = pageable(streamChunkSize);
+        return Flux.<List<T>, Long>generate(() -> 0L, (after, sink) -> {
+                    List<T> rows = fetch.apply(after, chunk);
+                    if (rows.isEmpty()) {
+                        sink.complete();
+                        return after;
+                    }
+                    sink.next(rows);
+                    if (rows.size() < chunk.getSize()) {
+                        sink.complete();
+                    }
+                    return idOf.apply(rows.get(rows.size() - 1));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(rows -> rows, 1);
+    }
+
+    private static Pageable pageable(int size) {
+        return Pageable.from(0, size, Sort.of(Sort.Order.asc("id")));
+    }
+}
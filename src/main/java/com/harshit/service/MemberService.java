@@ -1,24 +1,58 @@
 package com.harshit.service;
 
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.CursorPage;
+import com.harshit.json.RowJsonWriter;
+import com.harshit.metrics.Instrumented;
+import com.harshit.replica.ReplicaRead;
 import com.harshit.repository.MemberRepository;
 import com.harshit.entity.Member;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpResponse;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
 
 import javax.transaction.Transactional;
 import java.util.Optional;
 
+@Instrumented
 @Singleton
 public class MemberService {
 
     @Inject private MemberRepository memberRepository;
 
+    @Inject private KeysetPaginator keysetPaginator;
+
+    @Inject private CatalogLookupCache catalogLookupCache;
+
+    @Inject private RowJsonWriter rowJsonWriter;
+
+    @Inject private HoldService holdService;
+
     // Retrieve a list of all members
+    @ReplicaRead
     public Iterable<Member> getAllMembers() {
         return memberRepository.findAll();
     }
 
+    // Retrieve one page of members, ordered by id
+    @ReplicaRead
+    public CursorPage<Member> getMembersPage(@Nullable Long after, @Nullable Integer size) {
+        return keysetPaginator.page(memberRepository::findByIdGreaterThan, Member::getId, after, size);
+    }
+
+    // Same page, written by RowJsonWriter without loading any Member
+    @ReplicaRead
+    public HttpResponse<?> getMembersPageJson(@Nullable Long after, @Nullable Integer size) {
+        return RowJsonWriter.ok(rowJsonWriter.membersPage(after != null ? after : 0L, keysetPaginator.pageSize(size)));
+    }
+
+    // Stream every member without loading the whole table
+    public Publisher<Member> streamMembers() {
+        return keysetPaginator.stream(memberRepository::findByIdGreaterThan, Member::getId);
+    }
+
     // Read operation by ID
     public Optional<Member> getMemberById(Long id) {
         return memberRepository.findById(id);
@@ -26,7 +60,7 @@ public class MemberService {
 
     // Read operation by name
     public Optional<Member> getMemberByName(String name) {
-        return memberRepository.findByName(name);
+        return catalogLookupCache.findMemberByName(name);
     }
 
     // Create operation
@@ -36,7 +70,7 @@ public class MemberService {
         if (member.getName() == null || member.getName().isEmpty()) {
             return HttpResponse.badRequest("!!! Member name is required !!!");
         }
-        Optional<Member> existingMemberOpt = memberRepository.findByName(member.getName());
+        Optional<Member> existingMemberOpt = catalogLookupCache.findMemberByName(member.getName());
 
         if (existingMemberOpt.isPresent()) {
             return HttpResponse.badRequest("This member already exists. Please use the update operation.");
@@ -72,6 +106,10 @@ public class MemberService {
 //            }
 
             memberRepository.update(existingMember);
+            TransactionCallbacks.afterCommit(() -> {
+                catalogLookupCache.evictMember(name);
+                catalogLookupCache.evictMember(existingMember.getName());
+            });
             return HttpResponse.ok("Member updated successfully!");
         } else {
             if (confirm) {
@@ -97,9 +135,11 @@ public class MemberService {
     // Delete operation
     @Transactional
     public void deleteMember(String name) {
-        Optional<Member> existingMemberOpt = memberRepository.findByName(name);
+        Optional<Member> existingMemberOpt = catalogLookupCache.findMemberByName(name);
         if (existingMemberOpt.isPresent()) {
             memberRepository.deleteByName(name);
+            holdService.memberDeleted(existingMemberOpt.get().getId());
+            TransactionCallbacks.afterCommit(() -> catalogLookupCache.evictMember(name));
         } else {
             throw new RuntimeException();
         }
@@ -0,0 +1,97 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.CursorPage;
+import com.harshit.entity.Book;
+import com.harshit.repository.ReactiveBookRepository;
+import com.harshit.search.BookSearchIndex;
+import com.harshit.search.SearchText;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.harshit.service.BookService.*;
+
+/**
+ * The read side of {@link BookService} over R2DBC, so no request thread waits on the database. Responses are the
+ * same as on the blocking path; writes still go through {@link BookService}.
+ */
+@Singleton
+@Requires(property = "library.reads.mode", value = "reactive")
+public class ReactiveBookService {
+
+    @Inject
+    ReactiveBookRepository reactiveBookRepository;
+
+    @Inject
+    BookSearchIndex bookSearchIndex;
+
+    @Inject
+    KeysetPaginator keysetPaginator;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    public Mono<CursorPage<Book>> getBooksPage(@Nullable Long after, @Nullable Integer size) {
+        return keysetPaginator.reactivePage(reactiveBookRepository::findByIdGreaterThan, Book::getId, after, size);
+    }
+
+    public Mono<HttpResponse<Book>> getBookByName(String name) {
+        Mono<Book> book = catalogLookupCache.cachedBook(name)
+                .map(Mono::just)
+                .orElseGet(() -> reactiveBookRepository.findByTitle(name).doOnNext(catalogLookupCache::cacheBook));
+        return book.<HttpResponse<Book>>map(HttpResponse::ok).defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByAuthor(String author) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        String cleaned = clean(author, AUTHOR_WARNING, response);
+        return respond(response, bookSearchIndex.isEnabled()
+                ? ranked(bookSearchIndex.rankByAuthor(cleaned))
+                : reactiveBookRepository.searchBooksByAuthor("%" + cleaned + "%", SearchText.normalize(cleaned)).collectList());
+    }
+
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByTitle(String title) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        String cleaned = clean(title, TITLE_WARNING, response);
+        return respond(response, bookSearchIndex.isEnabled()
+                ? ranked(bookSearchIndex.rankByTitle(cleaned))
+                : reactiveBookRepository.searchBooks("%" + cleaned + "%", SearchText.normalize(cleaned)).collectList());
+    }
+
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByYearRange(int startYear, int endYear) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (!checkYearRange(startYear, endYear, response)) return Mono.just(HttpResponse.badRequest(response));
+        return respond(response, reactiveBookRepository.findByPublishedYearBetween(startYear, endYear).collectList());
+    }
+
+    public Mono<HttpResponse<Map<String, Object>>> searchBooksByTitleAndYearRange(String title, int startYear, int endYear) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        String cleaned = clean(title, TITLE_WARNING, response);
+        if (!checkYearRange(startYear, endYear, response)) return Mono.just(HttpResponse.badRequest(response));
+        return respond(response, bookSearchIndex.isEnabled()
+                ? ranked(bookSearchIndex.rankByTitleAndYearRange(cleaned, startYear, endYear))
+                : reactiveBookRepository.searchBooksByTitleAndYearRange("%" + cleaned + "%", SearchText.normalize(cleaned), startYear, endYear).collectList());
+    }
+
+    private Mono<List<Book>> ranked(List<Long> rankedIds) {
+        if (rankedIds.isEmpty()) return Mono.just(List.of());
+        return reactiveBookRepository.findByIdIn(rankedIds).collectList()
+                .map(rows -> BookSearchIndex.inRankOrder(rankedIds, rows));
+    }
+
+    private static Mono<HttpResponse<Map<String, Object>>> respond(Map<String, Object> response, Mono<List<Book>> books) {
+        return books.map(found -> {
+            response.put("books", found);
+            return HttpResponse.ok(response);
+        });
+    }
+}
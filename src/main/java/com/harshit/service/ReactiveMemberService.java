@@ -0,0 +1,36 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.CursorPage;
+import com.harshit.entity.Member;
+import com.harshit.repository.ReactiveMemberRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+
+// The read side of MemberService over R2DBC, see ReactiveBookService
+@Singleton
+@Requires(property = "library.reads.mode", value = "reactive")
+public class ReactiveMemberService {
+
+    @Inject
+    ReactiveMemberRepository reactiveMemberRepository;
+
+    @Inject
+    KeysetPaginator keysetPaginator;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    public Mono<CursorPage<Member>> getMembersPage(@Nullable Long after, @Nullable Integer size) {
+        return keysetPaginator.reactivePage(reactiveMemberRepository::findByIdGreaterThan, Member::getId, after, size);
+    }
+
+    public Mono<Member> getMemberByName(String name) {
+        return catalogLookupCache.cachedMember(name)
+                .map(Mono::just)
+                .orElseGet(() -> reactiveMemberRepository.findByName(name).doOnNext(catalogLookupCache::cacheMember));
+    }
+}
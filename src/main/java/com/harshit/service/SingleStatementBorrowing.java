@@ -0,0 +1,112 @@
+package com.harshit.service;
+
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.metrics.Instrumented;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+/**
+ * The PostgreSQL fast path behind {@code library.borrowing.single-statement}. A borrow or return is one statement
+ * with data-modifying CTEs, so the stock change and the loan row cost one round trip between them. Both run on the
+ * caller's transaction, through its own connection, and leave the persistence context alone.
+ */
+@Instrumented
+@Singleton
+public class SingleStatementBorrowing {
+
+    // Takes a copy only if one is left, and inserts the loan only if it took one
+    private static final String BORROW =
+            "WITH taken AS (UPDATE books SET quantity = quantity - 1 WHERE id = ? AND quantity > 0 RETURNING id) " +
+            "INSERT INTO borrowing (member_id, book_id, borrow_date, return_date, book_name, member_name) " +
+            "SELECT ?, taken.id, ?, ?, ?, ? FROM taken RETURNING id";
+
+    // Closes the most recent open loan for the pair and puts its copy back. The row lock makes a concurrent return
+    // of the same loan re-check returned_date and find nothing.
+    private static final String RETURN =
+            "WITH closed AS (UPDATE borrowing SET return_date = ?, returned_date = ? WHERE id = (" +
+            "SELECT id FROM borrowing WHERE book_name = ? AND member_name = ? AND returned_date IS NULL " +
+            "ORDER BY id DESC LIMIT 1 FOR UPDATE) AND returned_date IS NULL " +
+            "RETURNING id, book_id, member_id, borrow_date), " +
+            "restocked AS (UPDATE books SET quantity = quantity + 1 WHERE id IN (SELECT book_id FROM closed)) " +
+            "SELECT id, book_id, member_id, borrow_date FROM closed";
+
+    @Inject
+    private EntityManager entityManager;
+
+    /**
+     * Lends a copy of {@code book} to {@code member}, or returns null when the database has no copy left.
+     */
+    public Borrowing borrow(Book book, Member member) {
+        LocalDate today = LocalDate.now();
+        LocalDate due = today.plusDays(14); // Assuming a 2-week borrowing period
+        Long id = session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(BORROW)) {
+                statement.setLong(1, book.getId());
+                statement.setLong(2, member.getId());
+                statement.setDate(3, Date.valueOf(today));
+                statement.setDate(4, Date.valueOf(due));
+                statement.setString(5, book.getTitle());
+                statement.setString(6, member.getName());
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next() ? rows.getLong(1) : null;
+                }
+            }
+        });
+        if (id == null) return null;
+
+        Borrowing borrowing = new Borrowing();
+        borrowing.setId(id);
+        borrowing.setBook(book);
+        borrowing.setMember(member);
+        borrowing.setBorrowDate(today);
+        borrowing.setReturnDate(due);
+        borrowing.setBookName(book.getTitle());
+        borrowing.setMemberName(member.getName());
+        return borrowing;
+    }
+
+    /**
+     * Closes the open loan of {@code bookName} by {@code memberName}, or returns null when there is none. The
+     * returned loan references its book and member as unloaded proxies.
+     */
+    public Borrowing returnBook(String bookName, String memberName) {
+        LocalDate today = LocalDate.now();
+        Borrowing borrowing = session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RETURN)) {
+                statement.setDate(1, Date.valueOf(today));
+                statement.setDate(2, Date.valueOf(today));
+                statement.setString(3, bookName);
+                statement.setString(4, memberName);
+                try (ResultSet rows = statement.executeQuery()) {
+                    if (!rows.next()) return null;
+                    Borrowing closed = new Borrowing();
+                    closed.setId(rows.getLong(1));
+                    closed.setBook(entityManager.getReference(Book.class, rows.getLong(2)));
+                    closed.setMember(entityManager.getReference(Member.class, rows.getLong(3)));
+                    closed.setBorrowDate(rows.getDate(4).toLocalDate());
+                    return closed;
+                }
+            }
+        });
+        if (borrowing == null) return null;
+
+        borrowing.setReturnDate(today);
+        borrowing.setReturnedDate(today);
+        borrowing.setBookName(bookName);
+        borrowing.setMemberName(memberName);
+        return borrowing;
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.harshit.service;
+
+import io.micronaut.transaction.support.TransactionSynchronization;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs in-memory side effects only once the surrounding transaction has actually committed (or rolled back), so
+ * caches and indexes never get ahead of the database. Outside a transaction the commit callback runs immediately.
+ * <p>
+ * The only place that talks to {@link TransactionSynchronizationManager}. Its static synchronization methods are
+ * deprecated in favour of the {@code SynchronousTransactionState} of a given transaction manager, looked up by that
+ * manager's state key. This application has a single transaction manager, whose state is the default one those
+ * methods use, so they are kept here and the warning is suppressed once.
+ */
+@SuppressWarnings("deprecation")
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Whether a transaction is open on the current thread.
+     */
+    public static boolean inTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    public static void afterCommit(Runnable onCommit) {
+        afterCompletion(onCommit, () -> { });
+    }
+
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!inTransaction()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(Status status) {
+                if (status == Status.COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
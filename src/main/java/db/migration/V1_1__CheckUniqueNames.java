@@ -0,0 +1,48 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs before V2 makes book titles and member names unique. A database hbm2ddl created never enforced that, so
+ * duplicates there would fail V2 on whichever row the index build hit first. This names them all instead, and leaves
+ * it to whoever owns the data to merge or rename them.
+ */
+public class V1_1__CheckUniqueNames extends BaseJavaMigration {
+
+    private static final int SHOWN = 20;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        try (Statement statement = context.getConnection().createStatement()) {
+            check(statement, "books", "title", problems);
+            check(statement, "member", "name", problems);
+        }
+        if (!problems.isEmpty()) {
+            throw new FlywayException(String.join("; ", problems)
+                    + ". V2 makes these unique: merge or rename the duplicates, then migrate again.");
+        }
+    }
+
+    private static void check(Statement statement, String table, String column, List<String> problems) throws SQLException {
+        List<String> duplicates = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery("SELECT " + column + " FROM " + table + " WHERE " + column
+                + " IS NOT NULL GROUP BY " + column + " HAVING COUNT(*) > 1 ORDER BY " + column)) {
+            while (rows.next()) {
+                duplicates.add(rows.getString(1));
+            }
+        }
+        if (duplicates.isEmpty()) return;
+        String shown = String.join(", ", duplicates.subList(0, Math.min(SHOWN, duplicates.size())));
+        problems.add(duplicates.size() + " duplicate " + table + "." + column + " value(s): " + shown
+                + (duplicates.size() > SHOWN ? ", ..." : ""));
+    }
+}
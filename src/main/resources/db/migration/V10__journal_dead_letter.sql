@@ -0,0 +1,12 @@
+-- Write-behind events that were acknowledged but never made it into the tables: turned down when applied (no copy
+-- left, no open loan) or failing every retry. The journal marker moves past them; these rows are the record
+CREATE TABLE IF NOT EXISTS journal_dead_letter (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    journal     VARCHAR(100)  NOT NULL,
+    seq         BIGINT        NOT NULL,
+    type        VARCHAR(16)   NOT NULL,
+    book_name   VARCHAR(255),
+    member_name VARCHAR(255),
+    reason      VARCHAR(1000),
+    failed_at   TIMESTAMP     NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Loans returned before returned_date existed. Return used to overwrite return_date, which a borrow always set to
+-- borrow_date + 14, so one that differs marks the day the copy came back. A loan returned on its due date can't be
+-- told apart this way and stays open
+UPDATE borrowing SET returned_date = return_date
+WHERE returned_date IS NULL AND return_date <> borrow_date + 14;
@@ -0,0 +1,29 @@
+-- The tables as hbm2ddl used to create them. IF NOT EXISTS lets databases that were created that way migrate
+-- without a baseline.
+CREATE TABLE IF NOT EXISTS books (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title          VARCHAR(255),
+    author         VARCHAR(255),
+    quantity       INTEGER NOT NULL,
+    published_year INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS member (
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name  VARCHAR(255),
+    email VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS borrowing (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    member_id     BIGINT NOT NULL REFERENCES member (id),
+    book_id       BIGINT NOT NULL REFERENCES books (id),
+    borrow_date   DATE,
+    return_date   DATE,
+    returned_date DATE,
+    book_name     VARCHAR(255),
+    member_name   VARCHAR(255)
+);
+
+-- hbm2ddl only added returned_date once the entity had it; a table it created earlier is skipped above
+ALTER TABLE borrowing ADD COLUMN IF NOT EXISTS returned_date DATE;
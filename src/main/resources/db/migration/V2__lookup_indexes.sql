@@ -0,0 +1,11 @@
+-- findByTitle / findByName, and the existence checks in saveBook / saveMember
+CREATE UNIQUE INDEX IF NOT EXISTS books_title_key ON books (title);
+CREATE UNIQUE INDEX IF NOT EXISTS member_name_key ON member (name);
+
+-- searchBooksByYearRange
+CREATE INDEX IF NOT EXISTS books_published_year_idx ON books (published_year);
+
+-- findByBookTitleAndMemberName joins on the foreign keys; the batch writer matches on the copied names
+CREATE INDEX IF NOT EXISTS borrowing_book_member_idx ON borrowing (book_id, member_id);
+CREATE INDEX IF NOT EXISTS borrowing_member_idx ON borrowing (member_id);
+CREATE INDEX IF NOT EXISTS borrowing_names_idx ON borrowing (book_name, member_name);
@@ -0,0 +1,5 @@
+-- Last sequence number of each write-behind journal that has been applied to the tables
+CREATE TABLE IF NOT EXISTS journal_marker (
+    journal     VARCHAR(100) PRIMARY KEY,
+    applied_seq BIGINT       NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Lower-cased alphanumeric forms of title and author (SearchText.normalize), written with every book insert and
+-- update. The searches compare against these instead of running REGEXP_REPLACE over every row. Existing rows are
+-- filled in by V6 in db/postgres, the only database the searches run on
+ALTER TABLE books ADD COLUMN IF NOT EXISTS title_norm VARCHAR(255);
+ALTER TABLE books ADD COLUMN IF NOT EXISTS author_norm VARCHAR(255);
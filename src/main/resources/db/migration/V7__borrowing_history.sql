@@ -0,0 +1,21 @@
+-- Returned loans that BorrowingArchiver has moved out of borrowing, which then only holds open and recently
+-- returned loans. No foreign keys: the history outlives the books and members it names, and keeps their names.
+-- On PostgreSQL, V8 turns this into a table partitioned by borrow_date.
+CREATE TABLE IF NOT EXISTS borrowing_history (
+    id            BIGINT       NOT NULL,
+    member_id     BIGINT       NOT NULL,
+    book_id       BIGINT       NOT NULL,
+    borrow_date   DATE         NOT NULL,
+    return_date   DATE,
+    returned_date DATE         NOT NULL,
+    book_name     VARCHAR(255),
+    member_name   VARCHAR(255),
+    PRIMARY KEY (id, borrow_date)
+);
+
+-- The history endpoint, filtered by member or by book and paged by id
+CREATE INDEX IF NOT EXISTS borrowing_history_member_idx ON borrowing_history (member_name, id);
+CREATE INDEX IF NOT EXISTS borrowing_history_book_idx ON borrowing_history (book_name, id);
+
+-- The archiver's scan for loans returned before the cut-off
+CREATE INDEX IF NOT EXISTS borrowing_returned_date_idx ON borrowing (returned_date);
@@ -0,0 +1,16 @@
+-- Holds placed on books with no copy on the shelf (see HoldQueue). WAITING and READY holds are loaded into memory
+-- at startup; FULFILLED, CANCELLED and EXPIRED ones are kept as a record.
+CREATE TABLE IF NOT EXISTS holds (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id     BIGINT       NOT NULL REFERENCES books (id) ON DELETE CASCADE,
+    member_id   BIGINT       NOT NULL REFERENCES member (id) ON DELETE CASCADE,
+    book_name   VARCHAR(255),
+    member_name VARCHAR(255),
+    priority    INTEGER      NOT NULL DEFAULT 0,
+    status      VARCHAR(16)  NOT NULL,
+    placed_at   TIMESTAMP    NOT NULL,
+    ready_until DATE
+);
+
+-- The startup load of the active holds
+CREATE INDEX IF NOT EXISTS holds_status_idx ON holds (status);
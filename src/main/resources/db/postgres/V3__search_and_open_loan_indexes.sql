@@ -0,0 +1,18 @@
+-- PostgreSQL only (see flyway.datasources.default.locations)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Trigram indexes for the ILIKE / % / similarity() searches in BookRepository. Each one matches an expression used
+-- in those queries exactly, otherwise the planner can't use it for that branch of the OR.
+CREATE INDEX IF NOT EXISTS books_title_trgm_idx ON books USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS books_author_trgm_idx ON books USING gin (author gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS books_title_alnum_trgm_idx
+    ON books USING gin ((REGEXP_REPLACE(title, '[^a-zA-Z0-9]+', '', 'g')) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS books_author_alnum_trgm_idx
+    ON books USING gin ((REGEXP_REPLACE(author, '[^a-zA-Z0-9]+', '', 'g')) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS books_title_lower_alnum_trgm_idx
+    ON books USING gin ((REGEXP_REPLACE(LOWER(title), '[^a-zA-Z0-9]+', '', 'g')) gin_trgm_ops);
+
+-- Open loans by due date: the loan report index load and the overdue / currently-borrowed ranges
+CREATE INDEX IF NOT EXISTS borrowing_open_return_date_idx
+    ON borrowing (return_date, id) WHERE returned_date IS NULL;
@@ -0,0 +1,16 @@
+-- PostgreSQL only (see flyway.datasources.default.locations)
+
+-- Same forms as SearchText.normalize: the regex runs first, so only ASCII letters are left to lower-case
+UPDATE books
+SET title_norm  = LOWER(REGEXP_REPLACE(COALESCE(title, ''), '[^a-zA-Z0-9]+', '', 'g')),
+    author_norm = LOWER(REGEXP_REPLACE(COALESCE(author, ''), '[^a-zA-Z0-9]+', '', 'g'))
+WHERE title_norm IS NULL OR author_norm IS NULL;
+
+-- The LIKE '%term%' branches of the searches
+CREATE INDEX IF NOT EXISTS books_title_norm_trgm_idx ON books USING gin (title_norm gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS books_author_norm_trgm_idx ON books USING gin (author_norm gin_trgm_ops);
+
+-- Replaced by the two above; nothing matches their expressions any more
+DROP INDEX IF EXISTS books_title_alnum_trgm_idx;
+DROP INDEX IF EXISTS books_author_alnum_trgm_idx;
+DROP INDEX IF EXISTS books_title_lower_alnum_trgm_idx;
@@ -0,0 +1,25 @@
+-- PostgreSQL only (see flyway.datasources.default.locations)
+
+-- V7 created borrowing_history as a plain table, and nothing has been archived into it yet, so it is recreated here
+-- range partitioned by borrow_date. BorrowingArchiver adds one partition per year (borrowing_history_y2024, ...)
+-- before it moves loans from that year, so the old years can be detached, dumped or dropped on their own.
+DROP TABLE borrowing_history;
+
+CREATE TABLE borrowing_history (
+    id            BIGINT       NOT NULL,
+    member_id     BIGINT       NOT NULL,
+    book_id       BIGINT       NOT NULL,
+    borrow_date   DATE         NOT NULL,
+    return_date   DATE,
+    returned_date DATE         NOT NULL,
+    book_name     VARCHAR(255),
+    member_name   VARCHAR(255),
+    PRIMARY KEY (id, borrow_date)
+) PARTITION BY RANGE (borrow_date);
+
+CREATE INDEX borrowing_history_member_idx ON borrowing_history (member_name, id);
+CREATE INDEX borrowing_history_book_idx ON borrowing_history (book_name, id);
+
+-- Only returned loans are scanned by the archiver, and on the hot table they are the minority
+DROP INDEX IF EXISTS borrowing_returned_date_idx;
+CREATE INDEX borrowing_returned_date_idx ON borrowing (returned_date) WHERE returned_date IS NOT NULL;
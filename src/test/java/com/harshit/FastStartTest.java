@@ -0,0 +1,77 @@
+package com.harshit;
+
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.MemberRepository;
+import com.harshit.schema.SchemaIndexCheck;
+import io.micronaut.configuration.hibernate.jpa.proxy.IntroducedHibernateProxy;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The test database starts empty, so Flyway stays on here even though fast-start turns it off
+@MicronautTest(environments = "fast-start")
+@Property(name = "flyway.datasources.default.enabled", value = "true")
+class FastStartTest {
+
+    @Inject
+    ApplicationContext context;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void testSkipsIndexCheck() {
+        assertFalse(context.containsBean(SchemaIndexCheck.class));
+    }
+
+    @Test
+    void testLazyReferencesUseCompileTimeProxies() {
+        Book book = new Book();
+        book.setTitle("Fast start");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        Member member = new Member();
+        member.setName("Fast reader");
+        memberRepository.save(member);
+        Borrowing borrowing = new Borrowing();
+        borrowing.setBook(book);
+        borrowing.setMember(member);
+        borrowing.setBookName(book.getTitle());
+        borrowing.setMemberName(member.getName());
+        borrowing.setBorrowDate(LocalDate.now());
+        borrowing.setReturnDate(LocalDate.now().plusDays(14));
+        borrowingRepository.save(borrowing);
+        entityManager.flush();
+        entityManager.clear();
+
+        Borrowing loaded = borrowingRepository.findById(borrowing.getId()).get();
+
+        assertInstanceOf(IntroducedHibernateProxy.class, loaded.getBook());
+        assertInstanceOf(IntroducedHibernateProxy.class, loaded.getMember());
+        assertFalse(Hibernate.isInitialized(loaded.getBook()));
+        assertEquals("Fast start", loaded.getBook().getTitle());
+        assertEquals("Fast reader", loaded.getMember().getName());
+    }
+}
@@ -0,0 +1,103 @@
+package com.harshit.cache;
+
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.MemberRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.test.annotation.MockBean;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@MicronautTest
+class CatalogLookupCacheTest {
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @MockBean(BookRepository.class)
+    BookRepository bookRepository() {
+        return Mockito.mock(BookRepository.class);
+    }
+
+    @MockBean(MemberRepository.class)
+    MemberRepository memberRepository() {
+        return Mockito.mock(MemberRepository.class);
+    }
+
+    @BeforeEach
+    void clearLookupCache() {
+        catalogLookupCache.evictAll();
+    }
+
+    @Test
+    void testRepeatedLookupsHitTheCache() {
+        Book book = new Book();
+        book.setId(1L);
+        book.setTitle("Cached Book");
+        when(bookRepository.findByTitle("Cached Book")).thenReturn(Optional.of(book));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(book, catalogLookupCache.findBookByTitle("Cached Book").orElseThrow());
+        }
+        verify(bookRepository, times(1)).findByTitle("Cached Book");
+
+        catalogLookupCache.evictBook("Cached Book");
+        catalogLookupCache.findBookByTitle("Cached Book");
+        verify(bookRepository, times(2)).findByTitle("Cached Book");
+    }
+
+    @Test
+    void testMissesAreNotCached() {
+        Member member = new Member();
+        member.setId(1L);
+        member.setName("New Member");
+        when(memberRepository.findByName("New Member")).thenReturn(Optional.empty()).thenReturn(Optional.of(member));
+
+        assertTrue(catalogLookupCache.findMemberByName("New Member").isEmpty());
+        assertTrue(catalogLookupCache.findMemberByName("New Member").isPresent(), "A member saved after a miss should be found");
+    }
+
+    @Test
+    void testStatsArePublished() {
+        Book book = new Book();
+        book.setId(2L);
+        book.setTitle("Metered Book");
+        when(bookRepository.findByTitle("Metered Book")).thenReturn(Optional.of(book));
+
+        double hits = gets("hit");
+        double misses = gets("miss");
+        catalogLookupCache.findBookByTitle("Metered Book");
+        catalogLookupCache.findBookByTitle("Metered Book");
+
+        assertEquals(hits + 1, gets("hit"), 0.0);
+        assertEquals(misses + 1, gets("miss"), 0.0);
+    }
+
+    private double gets(String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+                .tag("cache", CatalogLookupCache.BOOKS_BY_TITLE)
+                .tag("result", result)
+                .functionCounter();
+        assertNotNull(counter, "cache.gets should be registered for " + CatalogLookupCache.BOOKS_BY_TITLE);
+        return counter.count();
+    }
+}
@@ -0,0 +1,177 @@
+package com.harshit.cache;
+
+import com.harshit.entity.Book;
+import com.harshit.service.BookService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.http.*;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Drives the filter directly with a stub chain standing in for the controllers; each test uses its own paths
+@MicronautTest(transactional = false)
+class CatalogResponseCacheTest {
+
+    @Inject
+    CatalogResponseCache catalogResponseCache;
+
+    @Inject
+    CatalogVersion catalogVersion;
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testRepeatedReadsAreServedFromCache() {
+        Handler handler = new Handler(() -> HttpResponse.ok(Map.of("title", "Cached Response")));
+
+        MutableHttpResponse<?> first = get("/books/Cached%20Response", handler, null);
+        MutableHttpResponse<?> second = get("/books/Cached%20Response", handler, null);
+
+        assertEquals(1, handler.calls.get());
+        assertEquals(HttpStatus.OK, second.status());
+        String etag = first.getHeaders().get(HttpHeaders.ETAG);
+        assertTrue(etag.matches("\"[0-9a-f]{32}\""), etag);
+        assertEquals(etag, second.getHeaders().get(HttpHeaders.ETAG));
+        assertEquals("{\"title\":\"Cached Response\"}", body(first));
+        assertEquals(body(first), body(second));
+    }
+
+    @Test
+    void testMatchingIfNoneMatchGetsNotModified() {
+        Handler handler = new Handler(() -> HttpResponse.ok(Map.of("title", "Unchanged")));
+        String etag = get("/books/Unchanged", handler, null).getHeaders().get(HttpHeaders.ETAG);
+
+        MutableHttpResponse<?> response = get("/books/Unchanged", handler, "\"stale\", W/" + etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.status());
+        assertEquals(etag, response.getHeaders().get(HttpHeaders.ETAG));
+        assertTrue(response.getBody().isEmpty());
+        assertEquals(HttpStatus.OK, get("/books/Unchanged", handler, "\"stale\"").status());
+        assertEquals(1, handler.calls.get());
+    }
+
+    @Test
+    void testBookWritesMoveTheVersion() {
+        AtomicInteger quantity = new AtomicInteger(1);
+        Handler handler = new Handler(() -> HttpResponse.ok(Map.of("quantity", quantity.get())));
+        String etag = get("/books/search/title/Versioned", handler, null).getHeaders().get(HttpHeaders.ETAG);
+
+        long before = catalogVersion.current();
+        Book book = new Book();
+        book.setTitle("Versioned Book");
+        book.setQuantity(2);
+        bookService.saveBook(book);
+        assertTrue(catalogVersion.current() > before, "Saving a book should move the catalog version");
+
+        quantity.set(2);
+        MutableHttpResponse<?> response = get("/books/search/title/Versioned", handler, etag);
+        assertEquals(2, handler.calls.get());
+        assertEquals(HttpStatus.OK, response.status(), "A changed body must not match the old ETag");
+        assertNotEquals(etag, response.getHeaders().get(HttpHeaders.ETAG));
+
+        before = catalogVersion.current();
+        bookService.deleteBook("Versioned Book");
+        assertTrue(catalogVersion.current() > before);
+    }
+
+    @Test
+    void testBufferBodiesAndQueryOrder() {
+        Handler handler = new Handler(() -> HttpResponse.ok(Unpooled.copiedBuffer("{\"items\":[]}", StandardCharsets.UTF_8)));
+
+        MutableHttpResponse<?> first = get("/books/getAll?size=5&after=10", handler, null);
+        ByteBuf rendered = handler.last;
+        MutableHttpResponse<?> second = get("/books/getAll?after=10&size=5", handler, null);
+
+        assertEquals(1, handler.calls.get(), "Parameter order should not matter");
+        assertEquals(0, rendered.refCnt(), "The rendered buffer is released once copied");
+        assertEquals("{\"items\":[]}", body(first));
+        assertEquals(body(first), body(second));
+    }
+
+    @Test
+    void testOnlySuccessfulReadsAreCached() {
+        Handler handler = new Handler(HttpResponse::notFound);
+        get("/books/Missing", handler, null);
+        get("/books/Missing", handler, null);
+        assertEquals(2, handler.calls.get());
+    }
+
+    @Test
+    void testHitRatioIsPublished() {
+        Handler handler = new Handler(() -> HttpResponse.ok(Map.of("title", "Metered")));
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        get("/books/Metered", handler, null);
+        get("/books/Metered", handler, null);
+
+        assertEquals(hits + 1, gets("hit"), 0.0);
+        assertEquals(misses + 1, gets("miss"), 0.0);
+    }
+
+    @Test
+    void testKeySortsParameters() {
+        assertEquals("/books/search/yearRange?endYear=2000&startYear=1990",
+                CatalogResponseCache.key(URI.create("/books/search/yearRange?startYear=1990&endYear=2000")));
+        assertEquals("/books/Some%20Title", CatalogResponseCache.key(URI.create("/books/Some%20Title")));
+        assertTrue(CatalogResponseCache.matches(List.of("*"), "\"a\""));
+        assertFalse(CatalogResponseCache.matches(List.of("\"b\""), "\"a\""));
+    }
+
+    private MutableHttpResponse<?> get(String uri, ServerFilterChain chain, String ifNoneMatch) {
+        MutableHttpRequest<?> request = HttpRequest.GET(uri);
+        if (ifNoneMatch != null) request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return Mono.from(catalogResponseCache.doFilter(request, chain)).block();
+    }
+
+    private static String body(MutableHttpResponse<?> response) {
+        ByteBuf body = (ByteBuf) response.body();
+        return new String(ByteBufUtil.getBytes(body), StandardCharsets.UTF_8);
+    }
+
+    private double gets(String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+                .tag("cache", CatalogResponseCache.CATALOG_RESPONSES)
+                .tag("result", result)
+                .functionCounter();
+        assertNotNull(counter, "cache.gets should be registered for " + CatalogResponseCache.CATALOG_RESPONSES);
+        return counter.count();
+    }
+
+    private static final class Handler implements ServerFilterChain {
+        final AtomicInteger calls = new AtomicInteger();
+        final Supplier<MutableHttpResponse<?>> response;
+        ByteBuf last;
+
+        Handler(Supplier<MutableHttpResponse<?>> response) {
+            this.response = response;
+        }
+
+        @Override
+        public Mono<MutableHttpResponse<?>> proceed(HttpRequest<?> request) {
+            calls.incrementAndGet();
+            MutableHttpResponse<?> rendered = response.get();
+            if (rendered.body() instanceof ByteBuf buffer) last = buffer;
+            return Mono.just(rendered);
+        }
+    }
+}
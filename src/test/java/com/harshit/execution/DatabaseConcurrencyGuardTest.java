@@ -0,0 +1,76 @@
+package com.harshit.execution;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+@Property(name = "library.execution.max-concurrency", value = "1")
+@Property(name = "library.execution.acquire-timeout", value = "100ms")
+@Property(name = "spec.name", value = "DatabaseConcurrencyGuardTest")
+class DatabaseConcurrencyGuardTest {
+
+    @Inject
+    SlowQuery slowQuery;
+
+    @Inject
+    DatabaseConcurrencyGuard guard;
+
+    @Inject
+    @Named(BlockingExecutorFactory.NAME)
+    ExecutorService blockingExecutor;
+
+    @Test
+    void testCallersBeyondTheLimitAreTurnedAway() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = blockingExecutor.submit(() -> slowQuery.run(release));
+        while (guard.availablePermits() > 0) {
+            Thread.sleep(5);
+        }
+
+        HttpStatusException e = assertThrows(HttpStatusException.class, () -> slowQuery.run(new CountDownLatch(0)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+
+        release.countDown();
+        assertEquals("done", first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, guard.availablePermits(), "The permit should be handed back once the call finishes");
+        assertEquals("done", slowQuery.run(new CountDownLatch(0)));
+    }
+
+    @Test
+    void testBlockingWorkLeavesTheCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        assertNotSame(caller, blockingExecutor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testEventLoopModeRunsInline() throws Exception {
+        ExecutorService inline = new BlockingExecutorFactory().blockingExecutor("event-loop", 1);
+        assertSame(Thread.currentThread(), inline.submit(Thread::currentThread).get());
+        assertEquals(ExecutionMode.PLATFORM, BlockingExecutorFactory.parse(" Platform "));
+    }
+
+    @Singleton
+    @Requires(property = "spec.name", value = "DatabaseConcurrencyGuardTest")
+    static class SlowQuery {
+
+        @DatabaseBound
+        String run(CountDownLatch release) throws InterruptedException {
+            release.await(5, TimeUnit.SECONDS);
+            return "done";
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.harshit.history;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanHistoryEntry;
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.MemberRepository;
+import com.harshit.service.BorrowingService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A batch size of one, so archiving the two old loans takes several batches
+@MicronautTest
+@Property(name = "library.borrowing.archive.batch-size", value = "1")
+class BorrowingArchiverTest {
+
+    @Inject
+    BorrowingArchiver borrowingArchiver;
+
+    @Inject
+    BorrowingHistory borrowingHistory;
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    private final LocalDate today = LocalDate.now();
+
+    // Called from each test rather than @BeforeEach, so the rows are rolled back with the test transaction.
+    // Returns the ids of: two loans returned long ago, in different years, one returned yesterday and one still open
+    private List<Long> seed() {
+        Book book = new Book();
+        book.setTitle("Archived Book");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        Member member = new Member();
+        member.setName("Archive reader");
+        memberRepository.save(member);
+
+        List<Long> ids = new ArrayList<>();
+        ids.add(loan(book, member, LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 10)));
+        ids.add(loan(book, member, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 5)));
+        ids.add(loan(book, member, today.minusDays(5), today.minusDays(1)));
+        ids.add(loan(book, member, today, null));
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private Long loan(Book book, Member member, LocalDate borrowed, LocalDate returned) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setBook(book);
+        borrowing.setMember(member);
+        borrowing.setBookName(book.getTitle());
+        borrowing.setMemberName(member.getName());
+        borrowing.setBorrowDate(borrowed);
+        borrowing.setReturnDate(returned != null ? returned : borrowed.plusDays(14));
+        borrowing.setReturnedDate(returned);
+        return borrowingRepository.save(borrowing).getId();
+    }
+
+    @Test
+    void testMovesLoansReturnedBeforeTheCutOff() {
+        List<Long> ids = seed();
+
+        assertEquals(2, borrowingArchiver.archive(today.minusDays(30)));
+        entityManager.clear();
+
+        assertTrue(borrowingRepository.findById(ids.get(0)).isEmpty());
+        assertTrue(borrowingRepository.findById(ids.get(1)).isEmpty());
+        assertTrue(borrowingRepository.findById(ids.get(2)).isPresent(), "Recently returned loans stay on the hot table");
+        assertTrue(borrowingRepository.findById(ids.get(3)).isPresent(), "Open loans are never archived");
+        assertEquals(0, borrowingArchiver.archive(today.minusDays(30)));
+
+        List<LoanHistoryEntry> history = borrowingHistory.returnedLoans(0, "Archive reader", null, 10);
+        assertEquals(ids.subList(0, 3), history.stream().map(LoanHistoryEntry::getBorrowingId).toList());
+        LoanHistoryEntry archived = history.get(0);
+        assertEquals("Archived Book", archived.getBookName());
+        assertEquals(LocalDate.of(2023, 3, 1), archived.getBorrowDate());
+        assertEquals(LocalDate.of(2023, 3, 10), archived.getReturnedDate());
+    }
+
+    @Test
+    void testHistoryPagesAcrossBothTables() {
+        List<Long> ids = seed();
+        borrowingArchiver.archive(today.minusDays(30));
+
+        CursorPage<LoanHistoryEntry> first = borrowingService.getBorrowingHistory("Archive reader", null, null, 2);
+        assertEquals(ids.subList(0, 2), first.getItems().stream().map(LoanHistoryEntry::getBorrowingId).toList());
+        assertEquals(ids.get(1), first.getNextCursor());
+
+        CursorPage<LoanHistoryEntry> second = borrowingService.getBorrowingHistory("Archive reader", null, first.getNextCursor(), 2);
+        assertEquals(List.of(ids.get(2)), second.getItems().stream().map(LoanHistoryEntry::getBorrowingId).toList());
+        assertNull(second.getNextCursor());
+
+        assertEquals(3, borrowingService.getBorrowingHistory(null, "Archived Book", null, 10).getItems().size());
+        assertTrue(borrowingService.getBorrowingHistory("Archive reader", "Some Other Book", null, 10).getItems().isEmpty());
+    }
+
+    @Test
+    void testMergeDropsLoansReadFromBothTables() {
+        List<LoanHistoryEntry> recent = List.of(entry(2), entry(5), entry(6));
+        List<LoanHistoryEntry> archived = List.of(entry(1), entry(2), entry(3));
+
+        List<LoanHistoryEntry> merged = BorrowingHistory.merge(recent, archived, 4);
+
+        assertEquals(List.of(1L, 2L, 3L, 5L), merged.stream().map(LoanHistoryEntry::getBorrowingId).toList());
+    }
+
+    private static LoanHistoryEntry entry(long id) {
+        LoanHistoryEntry entry = new LoanHistoryEntry();
+        entry.setBorrowingId(id);
+        return entry;
+    }
+}
@@ -0,0 +1,107 @@
+package com.harshit.importer;
+
+import com.harshit.controller.BookController;
+import com.harshit.controller.MemberController;
+import com.harshit.dto.ImportReport;
+import com.harshit.entity.Book;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.MemberRepository;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+class CatalogImporterTest {
+
+    @Inject
+    CatalogImporter catalogImporter;
+
+    @Inject
+    BookController bookController;
+
+    @Inject
+    MemberController memberController;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void cleanUp() {
+        for (String title : List.of("Imported One", "Imported, Two", "Already Here")) {
+            bookRepository.deleteByTitle(title);
+        }
+        for (String name : List.of("Imported Reader", "Another Reader")) {
+            memberRepository.deleteByName(name);
+        }
+    }
+
+    @Test
+    void testImportBooksFromCsv() throws Exception {
+        Book existing = new Book();
+        existing.setTitle("Already Here");
+        existing.setQuantity(1);
+        bookRepository.save(existing);
+
+        ImportReport report = catalogImporter.importBooks(stream("""
+                title,author,quantity,publishedYear
+                Imported One,Jane Doe,3,2001
+                "Imported, Two",,0,
+                Already Here,Someone,1,1999
+                Imported One,Jane Doe,3,2001
+                Broken Row,Jane Doe,lots,2001
+                """), ImportFormat.CSV);
+
+        assertEquals(5, report.getRead());
+        assertEquals(2, report.getImported(), "Only new titles should be imported");
+        assertEquals(2, report.getDuplicates(), "Titles already in the DB or earlier in the file should be skipped");
+        assertEquals(1, report.getInvalid(), "Rows that can't be parsed should be counted and skipped");
+
+        Book quoted = bookRepository.findByTitle("Imported, Two").orElseThrow();
+        assertEquals("Unknown Author", quoted.getAuthor(), "Missing author should get the same default as saveBook");
+        assertEquals(1, quoted.getQuantity(), "Zero quantity should get the same default as saveBook");
+        assertEquals("importedtwo", quoted.getTitleNorm(), "JDBC inserts should fill the normalized columns too");
+        assertEquals(3, bookRepository.findByTitle("Imported One").orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testImportMembersFromNdjson() throws Exception {
+        ImportReport report = catalogImporter.importMembers(stream("""
+                {"name": "Imported Reader", "email": "reader@example.com"}
+                {"name": "Another Reader"}
+                not json
+                """), ImportFormat.NDJSON);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getInvalid());
+        assertEquals("No Email", memberRepository.findByName("Another Reader").orElseThrow().getEmail());
+    }
+
+    @Test
+    void testUnknownFormatIsABadRequest() throws Exception {
+        assertEquals(ImportFormat.NDJSON, ImportFormat.parse(" ndJSON "));
+
+        HttpResponse<?> response = bookController.importBooks(stream("title\nImported One\n"), "xml");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatus());
+        assertEquals("Unknown import format 'xml', expected one of csv, ndjson", response.body());
+        assertEquals(HttpStatus.BAD_REQUEST, memberController.importMembers(stream("name\n"), "tsv").getStatus());
+        assertTrue(bookRepository.findByTitle("Imported One").isEmpty(), "Nothing should be read");
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+package com.harshit.inventory;
+
+import com.harshit.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityEngineTest {
+
+    @Test
+    void testReserveConfirmAndCancel() {
+        AvailabilityEngine engine = new AvailabilityEngine();
+        Book book = createBook(1L, 2);
+
+        AvailabilityEngine.Reservation first = engine.reserve(book);
+        AvailabilityEngine.Reservation second = engine.reserve(book);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(engine.reserve(createBook(1L, 0)), "No copy should be left");
+
+        first.confirm();
+        second.cancel();
+        second.cancel();
+        assertEquals(1, engine.available(1L), "A cancelled reservation should put exactly one copy back");
+
+        engine.release(1L);
+        assertEquals(2, engine.available(1L), "A returned copy should be available again");
+    }
+
+    @Test
+    void testRejectedReservationReseedsFromDatabase() {
+        AvailabilityEngine engine = new AvailabilityEngine();
+        AvailabilityEngine.Reservation reservation = engine.reserve(createBook(1L, 3));
+        reservation.reject();
+
+        assertEquals(-1, engine.available(1L), "A stale counter should be dropped");
+        assertNotNull(engine.reserve(createBook(1L, 1)), "The next borrow should re-seed from the row it read");
+        assertEquals(0, engine.available(1L));
+    }
+
+    @Test
+    void testSetAsideCopiesStayOffTheShelf() {
+        AvailabilityEngine engine = new AvailabilityEngine();
+        assertNull(engine.reserve(createBook(1L, 0)));
+
+        engine.setAside(1L);
+        assertEquals(0, engine.available(1L), "A copy kept for a hold is not on the shelf");
+        assertNull(engine.reserve(createBook(1L, 1)), "and is not handed out even though the row counts it");
+
+        AvailabilityEngine.Reservation held = engine.takeSetAside(1L);
+        assertNotNull(held);
+        assertNull(engine.takeSetAside(1L));
+        held.cancel();
+        assertEquals(1, engine.heldFor(1L), "A cancelled borrow keeps the copy aside");
+        held = engine.takeSetAside(1L);
+        held.reject();
+        held.reject();
+        assertEquals(1, engine.heldFor(1L), "So does a rejected one, exactly once");
+
+        engine.invalidate(1L);
+        assertEquals(0, engine.onShelf(createBook(1L, 1)), "Re-seeding leaves the copy aside");
+        engine.releaseSetAside(1L);
+        assertEquals(1, engine.available(1L));
+        assertEquals(0, engine.heldFor(1L));
+    }
+
+    @Test
+    void testConcurrentBorrowAndReturnNeverOversells() throws Exception {
+        AvailabilityEngine engine = new AvailabilityEngine();
+        int copies = 50;
+        // Stands in for books.quantity and its conditional UPDATE ... WHERE quantity > 0
+        AtomicInteger quantityInDb = new AtomicInteger(copies);
+        AtomicInteger onLoan = new AtomicInteger();
+        AtomicInteger maxOnLoan = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            boolean giveBack = i % 2 == 0;
+            tasks.add(executor.submit(() -> {
+                start.await();
+                AvailabilityEngine.Reservation reservation = engine.reserve(createBook(1L, quantityInDb.get()));
+                if (reservation == null) return null;
+                if (quantityInDb.getAndUpdate(q -> q > 0 ? q - 1 : q) == 0) {
+                    reservation.reject();
+                    return null;
+                }
+                maxOnLoan.accumulateAndGet(onLoan.incrementAndGet(), Math::max);
+                reservation.confirm();
+                if (giveBack) {
+                    onLoan.decrementAndGet();
+                    quantityInDb.incrementAndGet();
+                    engine.release(1L);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        assertTrue(maxOnLoan.get() <= copies, "More copies were lent out than exist: " + maxOnLoan.get());
+        assertTrue(quantityInDb.get() >= 0, "Stock should never go negative");
+        assertEquals(copies, quantityInDb.get() + onLoan.get(), "Every copy should be either on the shelf or on loan");
+    }
+
+    private Book createBook(Long id, int quantity) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Concurrency in Practice");
+        book.setQuantity(quantity);
+        return book;
+    }
+}
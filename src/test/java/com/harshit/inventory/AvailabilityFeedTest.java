@@ -0,0 +1,114 @@
+package com.harshit.inventory;
+
+import com.harshit.dto.AvailabilityChange;
+import com.harshit.entity.Book;
+import com.harshit.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.harshit.dto.AvailabilityChange.Type.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+@Property(name = "library.availability.buffer-size", value = "2")
+class AvailabilityFeedTest {
+
+    @Inject
+    AvailabilityFeed availabilityFeed;
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        bookService.deleteBook("Streamed Book");
+        bookService.deleteBook("Renamed Streamed Book");
+    }
+
+    @Test
+    void testCommittedBookChangesAreStreamed() {
+        Recorder all = new Recorder(Long.MAX_VALUE);
+        Recorder renamed = new Recorder(Long.MAX_VALUE);
+        availabilityFeed.subscribe(null).subscribe(all);
+        availabilityFeed.subscribe(List.of("Renamed Streamed Book")).subscribe(renamed);
+
+        Book book = new Book();
+        book.setTitle("Streamed Book");
+        book.setQuantity(2);
+        bookService.saveBook(book);
+        Book update = new Book();
+        update.setTitle("Renamed Streamed Book");
+        update.setQuantity(5);
+        bookService.updateBook("Streamed Book", update, false);
+        bookService.deleteBook("Renamed Streamed Book");
+
+        assertEquals(List.of(
+                new AvailabilityChange(ADDED, "Streamed Book", 2, 2),
+                new AvailabilityChange(DELETED, "Streamed Book", -2, 0),
+                new AvailabilityChange(UPDATED, "Renamed Streamed Book", 3, 5),
+                new AvailabilityChange(DELETED, "Renamed Streamed Book", -5, 0)), all.received);
+        assertEquals(List.of(
+                new AvailabilityChange(UPDATED, "Renamed Streamed Book", 3, 5),
+                new AvailabilityChange(DELETED, "Renamed Streamed Book", -5, 0)), renamed.received);
+
+        all.dispose();
+        renamed.dispose();
+        assertEquals(0, availabilityFeed.subscribers());
+    }
+
+    @Test
+    void testSlowSubscriberIsToldToResyncAndDropped() {
+        double dropped = meterRegistry.counter("library.availability.dropped").count();
+        Recorder slow = new Recorder(0);
+        availabilityFeed.subscribe(null).subscribe(slow);
+
+        for (int i = 0; i < 3; i++) availabilityFeed.publish(BORROWED, "Popular Book", -1, null);
+        assertTrue(slow.received.isEmpty());
+        assertEquals(0, availabilityFeed.subscribers(), "An overflowing subscriber should be cut off");
+
+        slow.request(10);
+        assertEquals(List.of(
+                new AvailabilityChange(BORROWED, "Popular Book", -1, null),
+                new AvailabilityChange(BORROWED, "Popular Book", -1, null),
+                new AvailabilityChange(RESYNC, null, 0, null)), slow.received);
+        assertTrue(slow.completed);
+        assertEquals(dropped + 1, meterRegistry.counter("library.availability.dropped").count());
+    }
+
+    private static final class Recorder extends BaseSubscriber<AvailabilityChange> {
+        final List<AvailabilityChange> received = new CopyOnWriteArrayList<>();
+        final long initialRequest;
+        volatile boolean completed;
+
+        Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialRequest > 0) subscription.request(initialRequest);
+        }
+
+        @Override
+        protected void hookOnNext(AvailabilityChange change) {
+            received.add(change);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
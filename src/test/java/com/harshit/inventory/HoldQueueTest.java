@@ -0,0 +1,70 @@
+package com.harshit.inventory;
+
+import com.harshit.entity.Hold;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldQueueTest {
+
+    @Test
+    void testServesByPriorityThenInOrder() {
+        HoldQueue queue = new HoldQueue();
+        Hold first = hold(1L, 10L, 0);
+        Hold second = hold(2L, 11L, 0);
+        Hold urgent = hold(3L, 12L, 1);
+        List.of(first, second, urgent).forEach(queue::add);
+        queue.add(hold(4L, 10L, 0, 2L));
+
+        assertEquals(1, queue.position(urgent));
+        assertEquals(3, queue.position(second));
+        assertEquals(3, queue.waiting(1L));
+        assertEquals(1, queue.waiting(2L), "Each book has its own queue");
+
+        assertSame(urgent, queue.pollNext(1L));
+        queue.markReady(urgent, LocalDate.now());
+        assertEquals(0, queue.position(urgent), "A ready hold has no place in the queue");
+        assertSame(urgent, queue.find(1L, 12L).orElseThrow(), "but is still active");
+        assertEquals(1, queue.position(first));
+
+        queue.remove(first);
+        assertEquals(1, queue.position(second));
+        assertTrue(queue.find(1L, 10L).isEmpty());
+        assertTrue(queue.find(2L, 10L).isPresent());
+    }
+
+    @Test
+    void testRequeueAndLapsedHolds() {
+        HoldQueue queue = new HoldQueue();
+        Hold first = hold(1L, 10L, 0);
+        Hold second = hold(2L, 11L, 0);
+        queue.add(first);
+        queue.add(second);
+
+        assertSame(first, queue.pollNext(1L));
+        queue.requeue(first);
+        assertEquals(1, queue.position(first), "A rolled back assignment keeps its place");
+
+        queue.markReady(queue.pollNext(1L), LocalDate.now().minusDays(1));
+        assertEquals(List.of(first), queue.lapsed(LocalDate.now()));
+        assertEquals(List.of(), queue.lapsed(LocalDate.now().minusDays(1)));
+        assertNull(queue.pollNext(2L));
+    }
+
+    private static Hold hold(long id, long memberId, int priority) {
+        return hold(id, memberId, priority, 1L);
+    }
+
+    private static Hold hold(long id, long memberId, int priority, long bookId) {
+        Hold hold = new Hold();
+        hold.setId(id);
+        hold.setBookId(bookId);
+        hold.setMemberId(memberId);
+        hold.setPriority(priority);
+        hold.setStatus(Hold.Status.WAITING);
+        return hold;
+    }
+}
@@ -0,0 +1,137 @@
+package com.harshit.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BorrowingJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendedEntriesSurviveReopen() throws IOException {
+        List<JournalEntry> durable = new ArrayList<>();
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 4096, durable::add)) {
+            assertEquals(1, journal.append(borrow("Dune", "Ann")));
+            assertEquals(2, journal.append(new JournalEntry(JournalEntry.Type.RETURN, "Dune", "Ann")));
+        }
+        assertEquals(List.of(1L, 2L), seqs(durable), "Durable entries should reach the sink in order");
+
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 4096, entry -> { })) {
+            List<JournalEntry> replay = journal.readAfter(1);
+            assertEquals(1, replay.size());
+            assertEquals(JournalEntry.Type.RETURN, replay.get(0).getType());
+            assertEquals("Dune", replay.get(0).getBookName());
+            assertEquals("Ann", replay.get(0).getMemberName());
+            assertEquals(3, journal.append(borrow("Emma", "Bob")), "Sequence numbers should continue after a restart");
+        }
+    }
+
+    @Test
+    void testTornTailIsDropped() throws IOException {
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 4096, entry -> { })) {
+            journal.append(borrow("Dune", "Ann"));
+            journal.append(borrow("Emma", "Bob"));
+        }
+        // Corrupt the body of the second record
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int first = file.readInt();
+            file.seek(8 + first + 8 + 12);
+            file.write(0x7f);
+        }
+
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 4096, entry -> { })) {
+            assertEquals(List.of(1L), seqs(journal.readAfter(0)));
+            assertEquals(2, journal.append(borrow("Ulysses", "Cid")), "The torn record should be overwritten");
+            assertEquals("Ulysses", journal.readAfter(1).get(0).getBookName());
+        }
+    }
+
+    @Test
+    void testRecordsAfterATornOneAreNotRevived() throws IOException {
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 4096, entry -> { })) {
+            journal.append(borrow("Dune", "Ann"));
+            journal.append(borrow("Emma", "Bob"));
+            journal.append(borrow("Odes", "Cid"));
+        }
+        // Tear the second record; the third is intact behind it
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int first = file.readInt();
+            file.seek(8 + first + 8 + 12);
+            file.write(0x7f);
+        }
+
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 4096, entry -> { })) {
+            // Same length as the torn record, so the old third one would line up right behind it
+            assertEquals(2, journal.append(borrow("Ruth", "Eve")));
+        }
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 4096, entry -> { })) {
+            assertEquals(List.of(1L, 2L), seqs(journal.readAfter(0)), "The unacknowledged third record must not come back");
+            assertEquals(3, journal.append(borrow("Emma", "Bob")));
+        }
+    }
+
+    @Test
+    void testSegmentsRollAndAreReleased() throws IOException {
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 128, entry -> { })) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(borrow("Book " + i, "Reader " + i));
+            }
+            assertTrue(segments().size() > 1, "Small segments should roll over");
+            assertEquals(10, journal.readAfter(0).size(), "Replay should read across segments");
+
+            journal.release(10);
+            assertEquals(1, segments().size(), "Applied segments should be deleted, the current one kept");
+        }
+    }
+
+    @Test
+    void testConcurrentAppendsAreOrdered() throws Exception {
+        List<JournalEntry> durable = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try (BorrowingJournal journal = new BorrowingJournal(directory, 1 << 20, durable::add)) {
+            List<Future<Long>> appends = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int n = i;
+                appends.add(pool.submit(() -> journal.append(borrow("Book " + n, "Reader"))));
+            }
+            for (Future<Long> append : appends) append.get();
+        } finally {
+            pool.shutdown();
+        }
+        List<Long> expected = new ArrayList<>();
+        for (long seq = 1; seq <= 400; seq++) expected.add(seq);
+        assertEquals(expected, seqs(durable));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static JournalEntry borrow(String book, String member) {
+        return new JournalEntry(JournalEntry.Type.BORROW, book, member);
+    }
+
+    private static List<Long> seqs(List<JournalEntry> entries) {
+        return entries.stream().map(JournalEntry::getSeq).collect(Collectors.toList());
+    }
+}
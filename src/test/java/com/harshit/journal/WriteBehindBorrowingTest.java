@@ -0,0 +1,153 @@
+package com.harshit.journal;
+
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.MemberRepository;
+import com.harshit.service.BorrowingService;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import io.micronaut.transaction.jdbc.DelegatingDataSource;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WriteBehindBorrowingTest implements TestPropertyProvider {
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    WriteBehindBorrowing writeBehindBorrowing;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    JournalApplier journalApplier;
+
+    @Inject
+    DataSource dataSource;
+
+    @Override
+    public Map<String, String> getProperties() {
+        try {
+            return Map.of(
+                    "library.borrowing.write-behind.enabled", "true",
+                    "library.borrowing.write-behind.directory", Files.createTempDirectory("journal").toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        borrowingRepository.deleteAll(borrowingRepository.findByBookNameInAndMemberNameIn(
+                Set.of("Journal Book"), Set.of("Journal Reader")));
+        bookRepository.deleteByTitle("Journal Book");
+        memberRepository.deleteByName("Journal Reader");
+    }
+
+    @Test
+    void testBorrowAndReturnAreAppliedInTheBackground() throws InterruptedException {
+        Book book = new Book();
+        book.setTitle("Journal Book");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        Member member = new Member();
+        member.setName("Journal Reader");
+        memberRepository.save(member);
+
+        Borrowing accepted = borrowingService.borrowBook("Journal Book", "Journal Reader");
+        assertNull(accepted.getId(), "The loan is acknowledged before it is written");
+        awaitApplied();
+        List<Borrowing> loans = borrowingRepository.findByBookNameInAndMemberNameIn(Set.of("Journal Book"), Set.of("Journal Reader"));
+        assertEquals(1, loans.size());
+        assertNull(loans.get(0).getReturnedDate());
+        assertEquals(0, bookRepository.findByTitle("Journal Book").get().getQuantity());
+
+        borrowingService.returnBook("Journal Book", "Journal Reader");
+        awaitApplied();
+        loans = borrowingRepository.findByBookNameInAndMemberNameIn(Set.of("Journal Book"), Set.of("Journal Reader"));
+        assertNotNull(loans.get(0).getReturnedDate());
+        assertEquals(1, bookRepository.findByTitle("Journal Book").get().getQuantity());
+    }
+
+    @Test
+    void testReturnWithoutAnOpenLoanIsRefused() throws InterruptedException {
+        Book book = new Book();
+        book.setTitle("Journal Book");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        Member member = new Member();
+        member.setName("Journal Reader");
+        memberRepository.save(member);
+
+        long journaled = writeBehindBorrowing.lastSeq();
+        assertThrows(RuntimeException.class, () -> borrowingService.returnBook("Journal Book", "Journal Reader"));
+        assertEquals(journaled, writeBehindBorrowing.lastSeq(), "A refused return should not be journaled");
+
+        // The borrow counts before it is applied, and its one return uses it up
+        borrowingService.borrowBook("Journal Book", "Journal Reader");
+        borrowingService.returnBook("Journal Book", "Journal Reader");
+        assertThrows(RuntimeException.class, () -> borrowingService.returnBook("Journal Book", "Journal Reader"));
+        awaitApplied();
+        assertThrows(RuntimeException.class, () -> borrowingService.returnBook("Journal Book", "Journal Reader"));
+        assertEquals(1, bookRepository.findByTitle("Journal Book").get().getQuantity());
+    }
+
+    @Test
+    void testSkippedEntryIsDeadLettered() throws SQLException {
+        assertEquals(0, journalApplier.appliedSeq("skip-test"));
+        JournalEntry entry = new JournalEntry(JournalEntry.Type.RETURN, "Journal Book", "Journal Reader");
+        entry.setSeq(1);
+
+        assertEquals(1, journalApplier.skip("skip-test", entry, "Constraint violated"));
+        assertEquals(1, journalApplier.appliedSeq("skip-test"));
+        assertEquals(1, journalApplier.skip("skip-test", entry, "Constraint violated"), "An entry already passed is left alone");
+        try (Connection connection = DelegatingDataSource.unwrapDataSource(dataSource).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT seq, type, reason FROM journal_dead_letter WHERE journal = 'skip-test'")) {
+            assertTrue(rows.next());
+            assertEquals(1, rows.getLong(1));
+            assertEquals("RETURN", rows.getString(2));
+            assertEquals("Constraint violated", rows.getString(3));
+            assertFalse(rows.next(), "The entry should be recorded once");
+        }
+    }
+
+    private void awaitApplied() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (writeBehindBorrowing.appliedSeq() < writeBehindBorrowing.lastSeq()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Journal should be applied");
+            Thread.sleep(20);
+        }
+    }
+}
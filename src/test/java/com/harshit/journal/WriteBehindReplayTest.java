@@ -0,0 +1,121 @@
+package com.harshit.journal;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.exception.BookNotAvailableException;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.MemberRepository;
+import com.harshit.service.BorrowingService;
+import io.micronaut.test.annotation.MockBean;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The applier is a mock that holds every batch back until the test lets it through; a restart is a close and a
+// fresh onStartup over the same journal directory, with the copy counters forgotten as a new process would have them
+@MicronautTest(transactional = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WriteBehindReplayTest implements TestPropertyProvider {
+
+    @Inject
+    WriteBehindBorrowing writeBehindBorrowing;
+
+    @Inject
+    JournalApplier journalApplier;
+
+    @Inject
+    AvailabilityEngine availabilityEngine;
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @MockBean(JournalApplier.class)
+    JournalApplier journalApplier() {
+        return Mockito.mock(JournalApplier.class);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        try {
+            return Map.of(
+                    "library.borrowing.write-behind.enabled", "true",
+                    "library.borrowing.write-behind.directory", Files.createTempDirectory("journal").toString(),
+                    "library.borrowing.write-behind.retry-delay", "10ms",
+                    "library.borrowing.write-behind.max-attempts", "1000");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteByTitle("Replay Book");
+        memberRepository.deleteByName("Replay Reader");
+        memberRepository.deleteByName("Late Reader");
+        catalogLookupCache.evictAll();
+    }
+
+    @Test
+    void testReplayedBorrowKeepsTheLastCopy() throws IOException, InterruptedException {
+        Book book = new Book();
+        book.setTitle("Replay Book");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        for (String name : List.of("Replay Reader", "Late Reader")) {
+            Member member = new Member();
+            member.setName(name);
+            memberRepository.save(member);
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        when(journalApplier.apply(eq("default"), anyList())).thenAnswer(invocation -> {
+            if (!released.get()) throw new IllegalStateException("Database unreachable");
+            List<JournalEntry> batch = invocation.getArgument(1);
+            return batch.get(batch.size() - 1).getSeq();
+        });
+
+        borrowingService.borrowBook("Replay Book", "Replay Reader");
+        writeBehindBorrowing.close();
+        availabilityEngine.invalidate(book.getId());
+        writeBehindBorrowing.onStartup(null);
+
+        assertEquals(0, availabilityEngine.available(book.getId()), "The replayed borrow takes its copy at startup");
+        assertThrows(BookNotAvailableException.class, () -> borrowingService.borrowBook("Replay Book", "Late Reader"),
+                "A new borrow can't take the copy an acknowledged one needs");
+
+        released.set(true);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (writeBehindBorrowing.appliedSeq() < writeBehindBorrowing.lastSeq()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Journal should be applied");
+            Thread.sleep(20);
+        }
+        verify(journalApplier, atLeastOnce()).apply(eq("default"), argThat(batch -> batch.stream()
+                .anyMatch(entry -> entry.getBookName().equals("Replay Book") && entry.getReservation() != null)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.harshit.journal;
+
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.inventory.AvailabilityEngine;
+import io.micronaut.test.annotation.MockBean;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The applier is a mock that fails every batch containing one bad event, so nothing here touches the tables
+@MicronautTest(transactional = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WriteBehindRetryTest implements TestPropertyProvider {
+
+    @Inject
+    WriteBehindBorrowing writeBehindBorrowing;
+
+    @Inject
+    JournalApplier journalApplier;
+
+    @Inject
+    AvailabilityEngine availabilityEngine;
+
+    @MockBean(JournalApplier.class)
+    JournalApplier journalApplier() {
+        return Mockito.mock(JournalApplier.class);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        try {
+            return Map.of(
+                    "library.borrowing.write-behind.enabled", "true",
+                    "library.borrowing.write-behind.directory", Files.createTempDirectory("journal").toString(),
+                    "library.borrowing.write-behind.retry-delay", "10ms",
+                    "library.borrowing.write-behind.max-attempts", "2");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void testFailingEventIsDeadLetteredWithoutLosingCopies() throws InterruptedException {
+        Book good = book(9001L, "Retry Book");
+        Book bad = book(9002L, "Poison Book");
+        AtomicBoolean heldThroughRetries = new AtomicBoolean(true);
+        failOn("Poison Book", () -> {
+            if (availabilityEngine.available(bad.getId()) != 0) heldThroughRetries.set(false);
+        });
+
+        Member member = new Member();
+        member.setName("Retry Reader");
+        writeBehindBorrowing.borrow(good, member, availabilityEngine.reserve(good));
+        writeBehindBorrowing.borrow(bad, member, availabilityEngine.reserve(bad));
+        writeBehindBorrowing.borrow(good, member, availabilityEngine.reserve(good));
+        awaitApplied();
+
+        assertTrue(heldThroughRetries.get(), "A retried borrow should keep its copy");
+        verify(journalApplier, times(1)).skip(eq("default"), argThat(entry -> entry.getBookName().equals("Poison Book")), anyString());
+        assertEquals(1, availabilityEngine.available(bad.getId()), "The dead-lettered borrow gives its copy back");
+        assertEquals(0, availabilityEngine.available(good.getId()), "Applied borrows keep theirs");
+    }
+
+    @Test
+    void testDeadLetteredHoldCopyIsPassedOn() throws InterruptedException {
+        Book held = book(9003L, "Poison Hold Book");
+        failOn("Poison Hold Book", () -> { });
+        // The member's hold came up and was fulfilled when the borrow was accepted, so nobody else is waiting
+        availabilityEngine.setAside(held.getId());
+        assertEquals(0, availabilityEngine.onShelf(held));
+
+        Member member = new Member();
+        member.setName("Retry Reader");
+        writeBehindBorrowing.borrow(held, member, availabilityEngine.takeSetAside(held.getId()));
+        awaitApplied();
+
+        assertEquals(0, availabilityEngine.heldFor(held.getId()), "No hold is left to claim the copy");
+        assertEquals(1, availabilityEngine.available(held.getId()), "so it goes back on the shelf");
+    }
+
+    // Every batch with an event for the title fails; the rest are applied, and skipped events are accepted
+    private void failOn(String title, Runnable onAttempt) {
+        when(journalApplier.apply(eq("default"), anyList())).thenAnswer(invocation -> {
+            List<JournalEntry> batch = invocation.getArgument(1);
+            if (batch.stream().anyMatch(entry -> entry.getBookName().equals(title))) {
+                onAttempt.run();
+                throw new IllegalStateException("Constraint violated");
+            }
+            return batch.get(batch.size() - 1).getSeq();
+        });
+        when(journalApplier.skip(eq("default"), any(JournalEntry.class), anyString()))
+                .thenAnswer(invocation -> ((JournalEntry) invocation.getArgument(1)).getSeq());
+    }
+
+    private void awaitApplied() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (writeBehindBorrowing.appliedSeq() < writeBehindBorrowing.lastSeq()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Events after the bad one should still be applied");
+            Thread.sleep(20);
+        }
+    }
+
+    private static Book book(Long id, String title) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setQuantity(id == 9001L ? 2 : 1);
+        return book;
+    }
+}
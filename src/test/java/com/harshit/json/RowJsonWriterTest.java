@@ -0,0 +1,144 @@
+package com.harshit.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.controller.BookReadController;
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.repository.MemberRepository;
+import com.harshit.service.BookService;
+import com.harshit.service.MemberService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The direct path has to produce the same JSON as databind over the loaded entities, so each response is compared
+ * with what the databind path returns for the same request.
+ */
+@MicronautTest(transactional = false)
+@Property(name = "library.json.direct", value = "true")
+class RowJsonWriterTest {
+
+    @Inject
+    RowJsonWriter rowJsonWriter;
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    MemberService memberService;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BookReadController bookReadController;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        catalogLookupCache.evictAll();
+        int year = 1841;
+        for (String title : List.of("Direct Dunes", "Direct Deltas", "Direct Dunes Revisited")) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Harshit sharma");
+            book.setQuantity(3);
+            book.setPublishedYear(year++);
+            bookService.saveBook(book);
+        }
+        Member member = new Member();
+        member.setName("Direct Reader");
+        member.setEmail("direct@example.com");
+        memberRepository.save(member);
+        Member noEmail = new Member();
+        noEmail.setName("Direct Reader Two");
+        memberRepository.save(noEmail);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String title : List.of("Direct Dunes", "Direct Deltas", "Direct Dunes Revisited")) {
+            bookService.deleteBook(title);
+        }
+        memberRepository.deleteByName("Direct Reader");
+        memberRepository.deleteByName("Direct Reader Two");
+    }
+
+    @Test
+    void testPagesMatchDatabind() throws IOException {
+        assertEquals(databind(bookService.getBooksPage(null, 2)), direct(bookService.getBooksPageJson(null, 2)));
+        assertEquals(databind(bookService.getBooksPage(null, 500)), direct(bookService.getBooksPageJson(null, 500)));
+        assertEquals(databind(memberService.getMembersPage(null, 1)), direct(memberService.getMembersPageJson(null, 1)));
+        assertEquals(databind(memberService.getMembersPage(null, 500)), direct(memberService.getMembersPageJson(null, 500)));
+    }
+
+    @Test
+    void testSearchesMatchDatabind() throws IOException {
+        JsonNode byTitle = direct(bookService.searchBooksByTitleJson("Direct Dunes!"));
+        assertEquals(databind(bookService.searchBooksByTitle("Direct Dunes!").body()), byTitle);
+        assertTrue(byTitle.has("Warning"));
+        assertEquals("Direct Dunes", byTitle.get("books").get(0).get("title").asText(), "Rank order should be kept");
+
+        assertEquals(databind(bookService.searchBooksByAuthor("Harshit").body()), direct(bookService.searchBooksByAuthorJson("Harshit")));
+        assertEquals(databind(bookService.searchBooksByYearRange(1841, 1842).body()), direct(bookService.searchBooksByYearRangeJson(1841, 1842)));
+        assertEquals(databind(bookService.searchBooksByTitleAndYearRange("Direct", 1842, 1843).body()),
+                direct(bookService.searchBooksByTitleAndYearRangeJson("Direct", 1842, 1843)));
+        assertEquals(databind(bookService.searchBooksByTitle("Nothing like it").body()), direct(bookService.searchBooksByTitleJson("Nothing like it")));
+    }
+
+    @Test
+    void testLoanReportMatchesDatabind() throws IOException {
+        CursorPage<LoanReportEntry> page = new CursorPage<>(List.of(
+                new LoanReportEntry(1L, 2L, "Direct Dunes", 3L, "Direct Reader", LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 16)),
+                new LoanReportEntry(4L, 5L, "Direct Deltas", 6L, "Direct Reader", LocalDate.of(2024, 2, 3), LocalDate.of(2024, 2, 17))), 4L);
+        CursorPage<LoanReportEntry> last = new CursorPage<>(List.of(), null);
+
+        assertEquals(databind(page), read(rowJsonWriter.loans(page)));
+        assertEquals(databind(last), read(rowJsonWriter.loans(last)));
+    }
+
+    @Test
+    void testControllerUsesDirectPath() {
+        HttpResponse<?> response = bookReadController.getAllBooks(null, 1);
+        ByteBuf body = assertInstanceOf(ByteBuf.class, response.body());
+        body.release();
+    }
+
+    private JsonNode databind(Object value) throws IOException {
+        return objectMapper.readTree(objectMapper.writeValueAsBytes(value));
+    }
+
+    private JsonNode direct(HttpResponse<?> response) throws IOException {
+        return read(assertInstanceOf(ByteBuf.class, response.body()));
+    }
+
+    private JsonNode read(ByteBuf body) throws IOException {
+        try {
+            return objectMapper.readTree(ByteBufUtil.getBytes(body));
+        } finally {
+            body.release();
+        }
+    }
+}
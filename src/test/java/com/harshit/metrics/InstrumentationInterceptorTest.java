@@ -0,0 +1,84 @@
+package com.harshit.metrics;
+
+import com.harshit.entity.Book;
+import com.harshit.repository.BookRepository;
+import com.harshit.service.BookService;
+import com.harshit.service.MemberService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+class InstrumentationInterceptorTest {
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberService memberService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteByTitle("Metered Title");
+    }
+
+    @Test
+    void testServiceAndRepositoryCallsAreTimed() {
+        Book book = new Book();
+        book.setTitle("Metered Title");
+        book.setQuantity(1);
+        bookService.saveBook(book);
+
+        Timer service = meterRegistry.find("library.method")
+                .tags("class", "BookService", "method", "saveBook", "exception", "none").timer();
+        assertNotNull(service, "Service calls should be timed");
+        assertEquals(1, service.count());
+
+        Timer repository = meterRegistry.find("library.method")
+                .tags("class", "BookRepository", "method", "save").timer();
+        assertNotNull(repository, "Repository calls should be timed");
+
+        Timer transaction = meterRegistry.find("library.transaction")
+                .tags("entry", "BookService.saveBook", "status", "committed").timer();
+        assertNotNull(transaction, "The transaction should be timed from the service call that opened it");
+        assertEquals(1, transaction.count());
+    }
+
+    @Test
+    void testRowsAndFailuresAreRecorded() {
+        Book book = new Book();
+        book.setTitle("Metered Title");
+        book.setQuantity(1);
+        bookRepository.save(book);
+
+        bookRepository.findByTitleIn(List.of("Metered Title", "Not There"));
+        DistributionSummary rows = meterRegistry.find("library.method.rows")
+                .tags("class", "BookRepository", "method", "findByTitleIn").summary();
+        assertNotNull(rows);
+        assertEquals(1.0, rows.totalAmount(), "The number of rows returned should be recorded");
+
+        assertThrows(RuntimeException.class, () -> memberService.deleteMember("Nobody At All"));
+        assertNotNull(meterRegistry.find("library.method")
+                .tags("class", "MemberService", "method", "deleteMember", "exception", "RuntimeException").timer(),
+                "Failed calls should be timed separately, tagged with the exception");
+    }
+
+    @Test
+    void testConnectionPoolWaitIsPublished() {
+        assertNotNull(meterRegistry.find("hikaricp.connections.acquire").timer(), "Hikari should publish its connection acquire timer");
+    }
+}
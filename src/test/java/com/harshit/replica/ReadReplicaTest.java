@@ -0,0 +1,151 @@
+package com.harshit.replica;
+
+import com.harshit.entity.Book;
+import com.harshit.repository.BookRepository;
+import com.harshit.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.context.ServerRequestContext;
+import io.micronaut.http.cookie.Cookie;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A second in-memory H2 database stands in for the replica. Its lag is whatever replica_lag holds
+@MicronautTest(transactional = false)
+@Property(name = "library.replica.enabled", value = "true")
+@Property(name = "library.replica.url", value = ReadReplicaTest.REPLICA_URL)
+@Property(name = "library.replica.username", value = "sa")
+@Property(name = "library.replica.password", value = "")
+@Property(name = "library.replica.lag-query", value = "SELECT seconds FROM replica_lag")
+@Property(name = "library.replica.lag-check-interval", value = "1h")
+@Property(name = "library.replica.max-lag", value = "5s")
+class ReadReplicaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Inject
+    ReadReplica readReplica;
+
+    @Inject
+    ReadYourWritesFilter readYourWritesFilter;
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration").load().migrate();
+        replica("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)");
+        replica("DELETE FROM replica_lag");
+        replica("INSERT INTO replica_lag VALUES (0)");
+        replica("INSERT INTO books (title, author, quantity, published_year, title_norm, author_norm) "
+                + "VALUES ('Only On The Replica', 'Harshit sharma', 1, 1901, 'onlyonthereplica', 'harshitsharma')");
+        readReplica.checkLag();
+    }
+
+    @AfterEach
+    void cleanUp() throws SQLException {
+        replica("DELETE FROM books");
+        bookService.deleteBook("Written To The Primary");
+    }
+
+    @Test
+    void testReadOnlyMethodsUseTheReplica() {
+        assertTrue(readReplica.isUsable());
+        assertEquals(List.of("Only On The Replica"), titles(bookService.getListOfBooks()));
+        assertEquals(List.of("Only On The Replica"), titles(bookService.getBooksPage(null, 10).getItems()));
+        assertTrue(bookRepository.findByTitle("Only On The Replica").isEmpty(), "Other queries stay on the primary");
+    }
+
+    @Test
+    void testWritesGoToThePrimary() {
+        Book book = new Book();
+        book.setTitle("Written To The Primary");
+        book.setQuantity(1);
+        bookService.saveBook(book);
+
+        assertTrue(bookRepository.findByTitle("Written To The Primary").isPresent());
+        assertFalse(titles(bookService.getListOfBooks()).contains("Written To The Primary"), "Nothing replicates in this test");
+    }
+
+    @Test
+    void testClientsThatJustWroteReadThePrimary() {
+        MutableHttpRequest<?> write = HttpRequest.POST("/books/add", "{}");
+        MutableHttpResponse<?> response = Mono.from(readYourWritesFilter.doFilter(write,
+                request -> Mono.just(HttpResponse.ok()))).block();
+        String setCookie = response.getHeaders().get(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie, "A successful write should set the cookie");
+        assertTrue(setCookie.startsWith(ReadReplica.PRIMARY_UNTIL_COOKIE + "="), setCookie);
+        Cookie cookie = Cookie.of(ReadReplica.PRIMARY_UNTIL_COOKIE, setCookie.substring(setCookie.indexOf('=') + 1, setCookie.indexOf(';')));
+
+        MutableHttpRequest<?> afterWrite = HttpRequest.GET("/books/getAll").cookie(cookie);
+        List<String> read = readAs(afterWrite);
+        assertFalse(read.contains("Only On The Replica"));
+        assertTrue(afterWrite.getAttribute(ReadReplica.SERVED_ATTRIBUTE).isEmpty());
+
+        MutableHttpRequest<?> other = HttpRequest.GET("/books/getAll");
+        read = readAs(other);
+        assertEquals(List.of("Only On The Replica"), read);
+        assertTrue(other.getAttribute(ReadReplica.SERVED_ATTRIBUTE).isPresent());
+
+        MutableHttpResponse<?> failed = Mono.from(readYourWritesFilter.doFilter(HttpRequest.POST("/books/add", "{}"),
+                request -> Mono.just(HttpResponse.status(HttpStatus.BAD_REQUEST)))).block();
+        assertNull(failed.getHeaders().get(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void testLaggingOrUnreachableReplicaIsSkipped() throws SQLException {
+        replica("UPDATE replica_lag SET seconds = 60");
+        readReplica.checkLag();
+        assertFalse(readReplica.isUsable());
+        assertEquals(60.0, meterRegistry.find("library.replica.lag").gauge().value());
+        assertFalse(titles(bookService.getListOfBooks()).contains("Only On The Replica"));
+
+        replica("DROP TABLE replica_lag");
+        readReplica.checkLag();
+        assertEquals(Double.POSITIVE_INFINITY, readReplica.getLagSeconds());
+        assertFalse(titles(bookService.getListOfBooks()).contains("Only On The Replica"));
+    }
+
+    private List<String> readAs(HttpRequest<?> request) {
+        return ServerRequestContext.with(request, (Supplier<List<String>>) () -> titles(bookService.getListOfBooks()));
+    }
+
+    private static List<String> titles(Iterable<Book> books) {
+        return StreamSupport.stream(books.spliterator(), false).map(Book::getTitle).toList();
+    }
+
+    private static void replica(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.harshit.report;
+
+import com.harshit.dto.CursorPage;
+import com.harshit.dto.LoanReportEntry;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class LoanReportIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+
+    @Inject
+    LoanReportIndex loanReportIndex;
+
+    @Inject
+    ActiveLoanIndex activeLoanIndex;
+
+    @BeforeEach
+    void loadLoans() {
+        loanReportIndex.rebuild(List.of(
+                loan(1L, "Dune", "Alice", TODAY.minusDays(3)),
+                loan(2L, "Emma", "Bob", TODAY.minusDays(10)),
+                loan(3L, "Dune", "Bob", TODAY.minusDays(3)),
+                loan(4L, "Ulysses", "Alice", TODAY),
+                loan(5L, "Emma", "Alice", TODAY.plusDays(7)),
+                loan(6L, "Dune", "Carol", TODAY.plusDays(1))));
+    }
+
+    @Test
+    void testOverdueOrderedByDueDate() {
+        CursorPage<LoanReportEntry> page = loanReportIndex.overdue(TODAY, null, null, null, null);
+        assertEquals(List.of(2L, 1L, 3L), ids(page), "Oldest due date first, ties broken by loan id");
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testCurrentlyBorrowedExcludesDueToday() {
+        assertEquals(List.of(6L, 5L), ids(loanReportIndex.currentlyBorrowed(TODAY, null, null, null, null)));
+    }
+
+    @Test
+    void testFilters() {
+        assertEquals(List.of(1L), ids(loanReportIndex.overdue(TODAY, "Alice", null, null, null)));
+        assertEquals(List.of(1L, 3L), ids(loanReportIndex.overdue(TODAY, null, "Dune", null, null)));
+        assertEquals(List.of(3L), ids(loanReportIndex.overdue(TODAY, "Bob", "Dune", null, null)));
+        assertTrue(loanReportIndex.overdue(TODAY, "Nobody", null, null, null).getItems().isEmpty());
+    }
+
+    @Test
+    void testPagination() {
+        List<Long> seen = new ArrayList<>();
+        Long after = null;
+        do {
+            CursorPage<LoanReportEntry> page = loanReportIndex.overdue(TODAY, null, null, after, 2);
+            assertTrue(page.getItems().size() <= 2);
+            seen.addAll(ids(page));
+            after = page.getNextCursor();
+        } while (after != null);
+        assertEquals(List.of(2L, 1L, 3L), seen, "Paging should visit every loan once, in order");
+    }
+
+    @Test
+    void testReturnAndBorrowUpdateTheReport() {
+        loanReportIndex.remove(2L);
+        loanReportIndex.add(loan(7L, "Emma", "Carol", TODAY.minusDays(1)));
+
+        assertEquals(List.of(1L, 3L, 7L), ids(loanReportIndex.overdue(TODAY, null, null, null, null)));
+        assertEquals(List.of(7L), ids(loanReportIndex.overdue(TODAY, null, "Emma", null, null)));
+        assertTrue(loanReportIndex.overdue(TODAY, "Bob", "Emma", null, null).getItems().isEmpty());
+    }
+
+    @Test
+    void testActiveLoanIndexFollowsReport() {
+        assertEquals(List.of("Carol", "Bob", "Alice"), activeLoanIndex.holders("Dune".hashCode()));
+        assertEquals(List.of("Emma", "Ulysses", "Dune"), activeLoanIndex.loans("Alice".hashCode()));
+
+        loanReportIndex.remove(1L);
+        loanReportIndex.add(loan(8L, "Dune", "Bob", TODAY.plusDays(14)));
+
+        assertEquals(List.of("Bob", "Carol", "Bob"), activeLoanIndex.holders("Dune".hashCode()), "A second copy shows up twice");
+        assertEquals(List.of("Emma", "Ulysses"), activeLoanIndex.loans("Alice".hashCode()));
+        assertEquals(6, activeLoanIndex.size());
+    }
+
+    private static LoanReportEntry loan(Long id, String book, String member, LocalDate dueDate) {
+        return new LoanReportEntry(id, (long) book.hashCode(), book, (long) member.hashCode(), member, dueDate.minusDays(14), dueDate);
+    }
+
+    private static List<Long> ids(CursorPage<LoanReportEntry> page) {
+        return page.getItems().stream().map(LoanReportEntry::getBorrowingId).toList();
+    }
+}
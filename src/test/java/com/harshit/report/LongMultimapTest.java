@@ -0,0 +1,63 @@
+package com.harshit.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongMultimapTest {
+
+    @Test
+    void testPutGetAndRemove() {
+        LongMultimap map = new LongMultimap();
+        map.put(1, "Dune", 10);
+        map.put(1, "Dune", 11);
+        map.put(1, "Dune", 10);
+        map.put(2, "Emma", 10);
+
+        assertArrayEquals(new long[]{10, 11, 10}, map.get(1));
+        assertEquals("Emma", map.label(2));
+        assertEquals(4, map.size());
+
+        assertTrue(map.remove(1, 10));
+        assertArrayEquals(new long[]{11, 10}, map.get(1), "Only one occurrence should go");
+        assertFalse(map.remove(2, 11));
+        assertTrue(map.remove(2, 10));
+        assertFalse(map.containsKey(2), "The last value should take its key with it");
+        assertNull(map.label(2));
+        assertEquals(0, map.get(2).length);
+    }
+
+    @Test
+    void testMatchesReferenceUnderRandomChanges() {
+        LongMultimap map = new LongMultimap(4);
+        Map<Long, List<Long>> reference = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(500) + 1;
+            long value = random.nextInt(20);
+            if (random.nextInt(3) > 0) {
+                map.put(key, "k" + key, value);
+                reference.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            } else {
+                List<Long> values = reference.get(key);
+                boolean expected = values != null && values.remove(value);
+                if (values != null && values.isEmpty()) reference.remove(key);
+                assertEquals(expected, map.remove(key, value));
+            }
+        }
+
+        assertEquals(reference.size(), map.keyCount());
+        assertEquals(reference.values().stream().mapToInt(List::size).sum(), map.size());
+        for (long key = 1; key <= 500; key++) {
+            List<Long> expected = new ArrayList<>(reference.getOrDefault(key, List.of()));
+            List<Long> actual = new ArrayList<>();
+            for (long value : map.get(key)) actual.add(value);
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual, "Values of key " + key);
+            assertEquals(reference.containsKey(key) ? "k" + key : null, map.label(key));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.harshit.repository;
 
 import com.harshit.entity.Book;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,4 +39,63 @@ class BookRepositoryTest {
         Optional<Book> deletedBook = bookRepository.findByTitle("Scary nights");
         assertFalse(deletedBook.isPresent(), "Book should be deleted from the repository");
     }
+
+    @Test
+    void testNormalizedColumnsFollowWrites() {
+        Book book = new Book();
+        book.setTitle("Dune: Part Two");
+        book.setAuthor("Frank Herbert");
+        book.setQuantity(1);
+        book = bookRepository.save(book);
+        assertEquals("duneparttwo", book.getTitleNorm());
+        assertEquals("frankherbert", book.getAuthorNorm());
+
+        book.setTitle("Dune Messiah");
+        book = bookRepository.update(book);
+        bookRepository.flush();
+        assertEquals("dunemessiah", book.getTitleNorm());
+
+        bookRepository.deleteByTitle("Dune Messiah");
+    }
+
+    @Test
+    void testKeysetPagination() {
+        for (String title : List.of("Keyset one", "Keyset two", "Keyset three")) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Harshit sharma");
+            book.setQuantity(1);
+            bookRepository.save(book);
+        }
+
+        Pageable firstTwo = Pageable.from(0, 2, Sort.of(Sort.Order.asc("id")));
+        List<Book> page = bookRepository.findByIdGreaterThan(0L, firstTwo);
+        assertEquals(2, page.size(), "Page should be limited to the requested size");
+        assertTrue(page.get(0).getId() < page.get(1).getId(), "Page should be ordered by id");
+
+        List<Book> next = bookRepository.findByIdGreaterThan(page.get(1).getId(), firstTwo);
+        assertFalse(next.isEmpty(), "Next page should continue after the cursor");
+        assertTrue(next.get(0).getId() > page.get(1).getId(), "Next page should only hold later ids");
+
+        for (String title : List.of("Keyset one", "Keyset two", "Keyset three")) {
+            bookRepository.deleteByTitle(title);
+        }
+    }
+
+    @Test
+    void testConditionalQuantityUpdates() {
+        Book book = new Book();
+        book.setTitle("Last copy");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        book = bookRepository.save(book);
+
+        assertEquals(1, bookRepository.decrementQuantity(book.getId()), "The last copy should be taken");
+        assertEquals(0, bookRepository.decrementQuantity(book.getId()), "No copy should be taken from an empty shelf");
+
+        assertEquals(1, bookRepository.incrementQuantity(book.getId()));
+        assertEquals(1, bookRepository.decrementQuantity(book.getId()), "Returned copy should be back on the shelf");
+
+        bookRepository.deleteByTitle("Last copy");
+    }
 }
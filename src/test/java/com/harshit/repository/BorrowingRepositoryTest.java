@@ -0,0 +1,127 @@
+package com.harshit.repository;
+
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.service.BorrowingService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements each borrowing operation issues, so that an association that starts loading eagerly
+ * again, or a query that loses its join fetch, shows up as a failure.
+ */
+@MicronautTest
+@Property(name = "jpa.default.properties.hibernate.generate_statistics", value = "true")
+class BorrowingRepositoryTest {
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private Statistics statistics;
+
+    // Called from each test rather than @BeforeEach, so the rows are rolled back with the test transaction
+    private void seed() {
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book();
+            book.setTitle("Fetch plan " + i);
+            book.setAuthor("Harshit sharma");
+            book.setQuantity(1);
+            bookRepository.save(book);
+
+            Member member = new Member();
+            member.setName("Fetch reader " + i);
+            memberRepository.save(member);
+
+            Borrowing borrowing = new Borrowing();
+            borrowing.setBook(book);
+            borrowing.setMember(member);
+            borrowing.setBookName(book.getTitle());
+            borrowing.setMemberName(member.getName());
+            borrowing.setBorrowDate(LocalDate.now());
+            borrowing.setReturnDate(LocalDate.now().plusDays(14));
+            borrowingRepository.save(borrowing);
+        }
+        // Start every test from an empty persistence context, as a new request would
+        entityManager.flush();
+        entityManager.clear();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindByIdLeavesAssociationsUnloaded() {
+        seed();
+        Long id = borrowingRepository.findByBookTitleAndMemberNameAndReturnedDateIsNull("Fetch plan 0", "Fetch reader 0").get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Borrowing borrowing = borrowingRepository.findById(id).get();
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Loading a loan should be a single select");
+        assertFalse(Hibernate.isInitialized(borrowing.getBook()), "Book should not be loaded");
+        assertFalse(Hibernate.isInitialized(borrowing.getMember()), "Member should not be loaded");
+    }
+
+    @Test
+    void testFindOpenLoanByBookTitleAndMemberNameJoinFetches() {
+        seed();
+        List<Borrowing> borrowing = borrowingRepository.findByBookTitleAndMemberNameAndReturnedDateIsNull("Fetch plan 1", "Fetch reader 1");
+
+        assertEquals(1, borrowing.size());
+        assertEquals("Fetch plan 1", borrowing.get(0).getBook().getTitle());
+        assertEquals("Fetch reader 1", borrowing.get(0).getMember().getName());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Loan, book and member should come from one select");
+    }
+
+    @Test
+    void testOpenLoanProjectionsLoadNoEntities() {
+        seed();
+        List<LoanReportEntry> loans = borrowingRepository.findOpenLoansByNames(
+                Set.of("Fetch plan 0", "Fetch plan 1", "Fetch plan 2"), Set.of("Fetch reader 0", "Fetch reader 1"));
+        List<LoanReportEntry> all = borrowingRepository.findOpenLoans();
+
+        assertEquals(2, loans.size());
+        assertTrue(all.size() >= 3);
+        assertEquals(2, statistics.getPrepareStatementCount(), "Each projection should be a single select");
+        assertEquals(0, statistics.getEntityLoadCount(), "Projections should not load entities");
+    }
+
+    @Test
+    void testReturnBookStatementCount() {
+        seed();
+        borrowingService.returnBook("Fetch plan 2", "Fetch reader 2");
+        entityManager.flush();
+
+        // Select the loan with its book and member, put the copy back, close the loan
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.harshit.schema;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database as hbm2ddl: update left it before the migrations existed, migrated with the settings in application.yml
+class BaselineMigrationTest {
+
+    private String url;
+    private Connection connection;
+
+    @BeforeEach
+    void createBaselineSchema() throws SQLException {
+        url = "jdbc:h2:mem:baseline-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        connection = DriverManager.getConnection(url, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE books (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "author VARCHAR(255), published_year INTEGER NOT NULL, quantity INTEGER NOT NULL, title VARCHAR(255))");
+            statement.execute("CREATE TABLE member (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "email VARCHAR(255), name VARCHAR(255))");
+            statement.execute("CREATE TABLE borrowing (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "book_name VARCHAR(255), borrow_date DATE, member_name VARCHAR(255), return_date DATE, "
+                    + "book_id BIGINT NOT NULL REFERENCES books (id), member_id BIGINT NOT NULL REFERENCES member (id))");
+            statement.execute("INSERT INTO books (id, title, author, quantity, published_year) VALUES (1, 'Old Book', 'Someone', 1, 1990)");
+            statement.execute("INSERT INTO member (id, name) VALUES (1, 'Old Reader')");
+            statement.execute("INSERT INTO borrowing (book_id, member_id, borrow_date, return_date, book_name, member_name) "
+                    + "VALUES (1, 1, DATE '2024-01-01', DATE '2024-01-15', 'Old Book', 'Old Reader')");
+            // Returned early, so return_date was overwritten with the day it came back
+            statement.execute("INSERT INTO borrowing (book_id, member_id, borrow_date, return_date, book_name, member_name) "
+                    + "VALUES (1, 1, DATE '2023-06-01', DATE '2023-06-05', 'Old Book', 'Old Reader')");
+        }
+    }
+
+    @AfterEach
+    void dropDatabase() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+
+    @Test
+    void testExistingSchemaIsBaselinedAndMigrated() throws SQLException {
+        migrate();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT borrow_date, returned_date FROM borrowing ORDER BY borrow_date")) {
+            assertTrue(rows.next());
+            assertEquals(LocalDate.of(2023, 6, 5), rows.getObject(2, LocalDate.class), "A past return is filled in");
+            assertTrue(rows.next());
+            assertNull(rows.getObject(2), "A loan still on its original due date stays open");
+            assertFalse(rows.next());
+        }
+        try (Statement statement = connection.createStatement()) {
+            assertThrows(SQLException.class, () -> statement.execute(
+                    "INSERT INTO books (id, title, author, quantity, published_year) VALUES (2, 'Old Book', 'Someone', 1, 1990)"),
+                    "V2 makes titles unique");
+        }
+    }
+
+    @Test
+    void testDuplicateNamesStopTheMigrationBeforeV2() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO books (id, title, author, quantity, published_year) VALUES (2, 'Old Book', 'Someone', 2, 1991)");
+            statement.execute("INSERT INTO member (id, name) VALUES (2, 'Old Reader')");
+        }
+
+        String message = messages(assertThrows(FlywayException.class, this::migrate));
+        assertTrue(message.contains("books.title value(s): Old Book"), message);
+        assertTrue(message.contains("member.name value(s): Old Reader"), message);
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM books")) {
+            assertTrue(rows.next());
+            assertEquals(2, rows.getInt(1), "Nothing is changed");
+        }
+    }
+
+    // Flyway wraps the failing migration's exception in its own
+    private static String messages(Throwable failure) {
+        StringBuilder messages = new StringBuilder();
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            messages.append(t.getMessage()).append('\n');
+        }
+        return messages.toString();
+    }
+
+    private void migrate() {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+}
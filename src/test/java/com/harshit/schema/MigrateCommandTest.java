@@ -0,0 +1,32 @@
+package com.harshit.schema;
+
+import com.harshit.journal.WriteBehindBorrowing;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.transaction.jdbc.DelegatingDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrateCommandTest {
+
+    @Test
+    void testMigratesFromTheFastStartEnvironment() throws Exception {
+        try (ApplicationContext context = MigrateCommand.start("fast-start")) {
+            assertTrue(context.containsBean(SchemaIndexCheck.class), "Indexes are checked even though fast-start skips it");
+            assertFalse(context.containsBean(WriteBehindBorrowing.class), "The journal is left to the instances");
+
+            DataSource dataSource = DelegatingDataSource.unwrapDataSource(context.getBean(DataSource.class));
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM flyway_schema_history WHERE success")) {
+                assertTrue(rows.next());
+                assertTrue(rows.getInt(1) > 0, "Flyway ran");
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.harshit.schema;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.transaction.jdbc.DelegatingDataSource;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+class SchemaIndexCheckTest {
+
+    @Inject
+    SchemaIndexCheck schemaIndexCheck;
+
+    @Inject
+    DataSource dataSource;
+
+    @Test
+    void testMigrationsCreateRequiredIndexes() throws Exception {
+        assertEquals(List.of(), schemaIndexCheck.missingIndexes(), "Migrations should create every required index");
+    }
+
+    @Test
+    void testReportsMissingIndex() throws Exception {
+        try (Connection connection = DelegatingDataSource.unwrapDataSource(dataSource).getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX borrowing_names_idx");
+            try {
+                assertEquals(List.of("borrowing.borrowing_names_idx"), schemaIndexCheck.missingIndexes());
+            } finally {
+                statement.execute("CREATE INDEX borrowing_names_idx ON borrowing (book_name, member_name)");
+            }
+        }
+    }
+}
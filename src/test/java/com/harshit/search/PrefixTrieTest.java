@@ -0,0 +1,80 @@
+package com.harshit.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixTrieTest {
+
+    @Test
+    void testTopRanksByScoreWithinPrefix() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.put("The Hobbit", 5);
+        trie.put("The Hound of the Baskervilles", 9);
+        trie.put("The Hours", 1);
+        trie.put("Dune", 20);
+
+        assertEquals(List.of("The Hound of the Baskervilles", "The Hobbit"), texts(trie.top("the ho", 10)),
+                "Only the best entries up to the capacity should come back");
+        assertEquals(List.of("The Hound of the Baskervilles"), texts(trie.top("THEHO", 1)), "Case and spaces should not matter");
+        assertEquals(List.of("The Hours"), texts(trie.top("thehour", 10)), "A prefix ending inside an edge should match");
+        assertTrue(trie.top("thex", 10).isEmpty());
+
+        trie.put("The Hours", 10);
+        assertEquals(List.of("The Hours", "The Hound of the Baskervilles"), texts(trie.top("the h", 10)));
+        assertEquals(10, trie.top("the hours", 1).get(0).getScore());
+    }
+
+    @Test
+    void testRemoveMergesNodesBack() {
+        PrefixTrie trie = new PrefixTrie(5);
+        trie.put("Dune", 1);
+        trie.put("Dune Messiah", 2);
+        trie.put("DUNE", 3);
+
+        trie.remove("Dune Messiah");
+        assertEquals(List.of("DUNE", "Dune"), texts(trie.top("du", 5)), "Texts sharing a normalized key are kept apart");
+        trie.remove("DUNE");
+        trie.remove("Dune");
+        trie.remove("Dune");
+        assertEquals(0, trie.size());
+        assertTrue(trie.top("d", 5).isEmpty());
+
+        trie.put("Dunes", 4);
+        assertEquals(List.of("Dunes"), texts(trie.top("dun", 5)));
+    }
+
+    @Test
+    void testMatchesBruteForceUnderRandomChanges() {
+        Random random = new Random(42);
+        String[] words = {"a", "ab", "abc", "b", "ba", "bab", "c"};
+        PrefixTrie trie = new PrefixTrie(3);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String text = words[random.nextInt(words.length)] + words[random.nextInt(words.length)];
+            if (random.nextInt(3) == 0) {
+                trie.remove(text);
+                expected.remove(text);
+            } else {
+                long score = random.nextInt(50);
+                trie.put(text, score);
+                expected.put(text, score);
+            }
+
+            String prefix = words[random.nextInt(words.length)];
+            List<String> brute = expected.keySet().stream()
+                    .filter(t -> t.startsWith(prefix))
+                    .sorted(Comparator.<String>comparingLong(expected::get).reversed().thenComparing(Comparator.naturalOrder()))
+                    .limit(3)
+                    .toList();
+            assertEquals(brute, texts(trie.top(prefix, 3)), "Step " + i + ", prefix " + prefix);
+        }
+        assertEquals(expected.size(), trie.size());
+    }
+
+    private static List<String> texts(List<PrefixTrie.Entry> entries) {
+        return entries.stream().map(PrefixTrie.Entry::getText).toList();
+    }
+}
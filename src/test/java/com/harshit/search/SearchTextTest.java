@@ -0,0 +1,41 @@
+package com.harshit.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTextTest {
+
+    private static final List<String> SAMPLES = List.of("", " ", "Micronaut", "micronaut in action 2",
+            "Micronaut!@#", "!leading", "trailing?", "The Lord of the Rings: Part 1", "Ünïcödé Tïtlé", "a-b_c.d",
+            "ALL CAPS", "tab\tand\nnewline", "Kelvin");
+
+    @Test
+    void testMatchesTheRegexes() {
+        Random random = new Random(42);
+        List<String> inputs = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < 1000; i++) {
+            char[] chars = new char[random.nextInt(20)];
+            for (int j = 0; j < chars.length; j++) chars[j] = (char) (random.nextInt(0x250));
+            inputs.add(new String(chars));
+        }
+        for (String input : inputs) {
+            assertEquals(input.replaceAll("[^a-zA-Z0-9 ]", ""), SearchText.clean(input), input);
+            assertEquals(input.replaceAll("[^a-zA-Z0-9]+", "").toLowerCase(Locale.ROOT), SearchText.normalize(input), input);
+        }
+    }
+
+    @Test
+    void testCleanTermsAreReturnedAsIs() {
+        String clean = "Micronaut in Action 2";
+        assertSame(clean, SearchText.clean(clean));
+        String normal = "micronautinaction2";
+        assertSame(normal, SearchText.normalize(normal));
+        assertEquals("", SearchText.normalize(null));
+    }
+}
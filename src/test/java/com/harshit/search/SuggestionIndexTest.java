@@ -0,0 +1,104 @@
+package com.harshit.search;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.Suggestion;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.MemberRepository;
+import com.harshit.service.BookService;
+import com.harshit.service.BorrowingService;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.harshit.dto.Suggestion.Type.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+class SuggestionIndexTest {
+
+    private static final List<String> TITLES = List.of("Suggested Atlas", "Suggested Bestiary", "Renamed Bestiary");
+
+    @Inject
+    SuggestionIndex suggestionIndex;
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @BeforeEach
+    void setUp() {
+        for (String title : TITLES.subList(0, 2)) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Suggested Author");
+            book.setQuantity(3);
+            bookService.saveBook(book);
+        }
+        Member member = new Member();
+        member.setName("Suggesting Reader");
+        memberRepository.save(member);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        borrowingRepository.deleteAll(borrowingRepository.findByBookNameInAndMemberNameIn(Set.copyOf(TITLES), List.of("Suggesting Reader")));
+        TITLES.forEach(bookService::deleteBook);
+        memberRepository.deleteByName("Suggesting Reader");
+        catalogLookupCache.evictAll();
+    }
+
+    @Test
+    void testBorrowsRankCompletions() {
+        assertEquals(List.of(
+                new Suggestion("Suggested Atlas", TITLE, 0),
+                new Suggestion("Suggested Bestiary", TITLE, 0),
+                new Suggestion("Suggested Author", AUTHOR, 0)), suggestionIndex.suggest("sugg", null));
+
+        borrowingService.borrowBook("Suggested Bestiary", "Suggesting Reader");
+        borrowingService.borrowBook("Suggested Bestiary", "Suggesting Reader");
+
+        assertEquals(List.of(
+                new Suggestion("Suggested Bestiary", TITLE, 2),
+                new Suggestion("Suggested Author", AUTHOR, 2),
+                new Suggestion("Suggested Atlas", TITLE, 0)), suggestionIndex.suggest("Suggested", 5), "Titles come first on a tie");
+        assertEquals(List.of(new Suggestion("Suggested Bestiary", TITLE, 2)), suggestionIndex.suggest("SUGGESTED-B", 1));
+        assertTrue(suggestionIndex.suggest(" - ", null).isEmpty(), "A prefix with nothing to match on suggests nothing");
+    }
+
+    @Test
+    void testCatalogChangesAreFollowed() {
+        borrowingService.borrowBook("Suggested Bestiary", "Suggesting Reader");
+        Book rename = new Book();
+        rename.setTitle("Renamed Bestiary");
+        rename.setAuthor("Renamed Author");
+        bookService.updateBook("Suggested Bestiary", rename, false);
+
+        assertEquals(List.of(new Suggestion("Renamed Bestiary", TITLE, 1)), suggestionIndex.suggest("renamed b", null),
+                "A renamed book keeps its borrow count");
+        assertEquals(List.of(new Suggestion("Renamed Author", AUTHOR, 1)), suggestionIndex.suggest("renamed a", null));
+        assertEquals(List.of(
+                new Suggestion("Suggested Atlas", TITLE, 0),
+                new Suggestion("Suggested Author", AUTHOR, 0)), suggestionIndex.suggest("suggested", null));
+
+        bookService.deleteBook("Suggested Atlas");
+        assertTrue(suggestionIndex.suggest("suggested", null).isEmpty(), "An author with no books left is dropped");
+    }
+}
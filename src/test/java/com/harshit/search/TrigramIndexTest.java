@@ -0,0 +1,59 @@
+package com.harshit.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    @Test
+    void testSimilarityMatchesPgTrgm() {
+        // Reference values from PostgreSQL: SELECT similarity('word', 'two words') -> 0.36363637
+        int common = 0;
+        for (String trigram : TrigramIndex.wordTrigrams("word")) {
+            if (TrigramIndex.wordTrigrams("two words").contains(trigram)) common++;
+        }
+        double score = TrigramIndex.similarity(common, TrigramIndex.wordTrigrams("word").size(),
+                TrigramIndex.wordTrigrams("two words").size());
+        assertEquals(0.363636, score, 0.00001, "Similarity should follow pg_trgm's formula");
+    }
+
+    @Test
+    void testSearchRanksBySimilarity() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "The Lord of the Rings");
+        index.put(2L, "Lord Jim");
+        index.put(3L, "Lords");
+        index.put(4L, "Cooking for Beginners");
+
+        List<Long> ids = index.search("Lord", 0.3);
+        assertEquals(List.of(3L, 2L, 1L), ids, "Closest titles should come first and unrelated ones should be left out");
+    }
+
+    @Test
+    void testSearchMatchesIgnoringPunctuationAndCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Harry Potter and the Half-Blood Prince");
+        index.put(2L, "Gardening Basics");
+
+        assertEquals(List.of(1L), index.search("halfblood", 0.3), "Punctuation should be ignored when matching");
+        assertEquals(List.of(1L), index.search("POTTER", 0.3), "Matching should be case-insensitive");
+        assertEquals(2, index.search("", 0.3).size(), "An empty query should match everything");
+    }
+
+    @Test
+    void testRemoveAndReplace() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Micronaut in Action");
+        index.put(1L, "Gardening Basics");
+
+        assertTrue(index.search("Micronaut", 0.3).isEmpty(), "Re-indexing should drop the old text");
+        assertEquals(List.of(1L), index.search("Gardening", 0.3));
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertTrue(index.search("Gardening", 0.3).isEmpty());
+    }
+}
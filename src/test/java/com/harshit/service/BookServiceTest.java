@@ -1,13 +1,18 @@
 package com.harshit.service;
 
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.CursorPage;
 import com.harshit.entity.Book;
 import com.harshit.repository.BookRepository;
+import com.harshit.search.BookSearchIndex;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.test.annotation.MockBean;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Map;
@@ -16,9 +21,11 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
-@MicronautTest
+@MicronautTest(transactional = false)
 class BookServiceTest {
 
     @Inject
@@ -27,17 +34,54 @@ class BookServiceTest {
     @Inject
     BookRepository bookRepository;
 
+    @Inject
+    BookSearchIndex bookSearchIndex;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
     @MockBean(BookRepository.class)
     BookRepository bookRepository() {
         return Mockito.mock(BookRepository.class);
     }
 
+    // Lookups are cached across tests; each test stubs its own repository answers
+    @BeforeEach
+    void clearLookupCache() {
+        catalogLookupCache.evictAll();
+    }
+
     @Test
     void testGetListOfBooks() {
         when(bookRepository.findAll()).thenReturn(createDummyBooks());
         Iterable<Book> books = bookService.getListOfBooks();
         assertNotNull(books, "List of books should not be null");
     }
+
+    @Test
+    void testGetBooksPage() {
+        List<Book> books = createIndexedBooks();
+        when(bookRepository.findByIdGreaterThan(eq(0L), any())).thenReturn(books);
+
+        CursorPage<Book> page = bookService.getBooksPage(null, 2);
+        assertEquals(2, page.getItems().size(), "Page should be capped at the requested size");
+        assertEquals(2L, page.getNextCursor(), "Cursor should point at the last book of the page");
+
+        when(bookRepository.findByIdGreaterThan(eq(2L), any())).thenReturn(books.subList(2, 3));
+        page = bookService.getBooksPage(2L, 2);
+        assertEquals(1, page.getItems().size(), "Last page should hold the remaining book");
+        assertNull(page.getNextCursor(), "Last page should not have a cursor");
+    }
+
+    @Test
+    void testStreamBooks() {
+        List<Book> books = createIndexedBooks();
+        when(bookRepository.findByIdGreaterThan(eq(0L), any())).thenReturn(books);
+
+        List<Book> streamed = Flux.from(bookService.streamBooks()).collectList().block();
+        assertEquals(books, streamed, "Every book should be streamed in id order");
+        verify(bookRepository, times(1)).findByIdGreaterThan(any(), any());
+    }
 //
 //    @Test
 //    void testGetBookById() {
@@ -149,7 +193,8 @@ class BookServiceTest {
 
     @Test
     void testSearchBooksByAuthor() {
-        when(bookRepository.searchBooksByAuthor("%Jane%")).thenReturn(createDummyBooks());
+        List<Book> books = createIndexedBooks();
+        when(bookRepository.findByIdIn(anyCollection())).thenReturn(books);
 
         HttpResponse<Map<String, Object>> response = bookService.searchBooksByAuthor("Jane");
         assertEquals(2, ((List<?>) response.body().get("books")).size(), "Should find books matching the author");
@@ -160,7 +205,8 @@ class BookServiceTest {
 
     @Test
     void testSearchBooksByTitle() {
-        when(bookRepository.searchBooks("%Micronaut%")).thenReturn(createDummyBooks());
+        List<Book> books = createIndexedBooks();
+        when(bookRepository.findByIdIn(anyCollection())).thenReturn(books);
 
         HttpResponse<Map<String, Object>> response = bookService.searchBooksByTitle("Micronaut");
         assertEquals(2, ((List<?>) Objects.requireNonNull(response.body()).get("books")).size(), "Should find books matching the title");
@@ -169,6 +215,26 @@ class BookServiceTest {
         assertTrue(Objects.requireNonNull(response.body()).containsKey("Warning"), "Should contain warning for invalid characters");
     }
 
+    @Test
+    void testSearchIndexFollowsCatalogChanges() {
+        List<Book> books = createIndexedBooks();
+        when(bookRepository.findByIdIn(anyCollection())).thenReturn(books);
+        when(bookRepository.findByTitle("Gardening Basics")).thenReturn(Optional.of(books.get(2)));
+
+        Book renamed = new Book();
+        renamed.setTitle("Micronaut Gardening");
+        bookService.updateBook("Gardening Basics", renamed, false);
+
+        HttpResponse<Map<String, Object>> response = bookService.searchBooksByTitle("Micronaut");
+        assertEquals(3, ((List<?>) response.body().get("books")).size(), "Renamed book should be searchable by its new title");
+
+        when(bookRepository.findByTitle("Micronaut Gardening")).thenReturn(Optional.of(books.get(2)));
+        bookService.deleteBook("Micronaut Gardening");
+
+        response = bookService.searchBooksByTitle("Micronaut");
+        assertEquals(2, ((List<?>) response.body().get("books")).size(), "Deleted book should no longer be searchable");
+    }
+
 
     @Test
     void testSearchBooksByYearRange() {
@@ -183,7 +249,8 @@ class BookServiceTest {
 
     @Test
     void testSearchBooksByTitleAndYearRange() {
-        when(bookRepository.searchBooksByTitleAndYearRange("%Micronaut%", 2000, 2022)).thenReturn(createDummyBooks());
+        List<Book> books = createIndexedBooks();
+        when(bookRepository.findByIdIn(anyCollection())).thenReturn(books);
 
         HttpResponse<Map<String, Object>> response = bookService.searchBooksByTitleAndYearRange("Micronaut", 2000, 2022);
         assertEquals(2, ((List<?>) response.body().get("books")).size(), "Should find books with title and within year range");
@@ -216,4 +283,23 @@ class BookServiceTest {
 
         return List.of(book1, book2);
     }
+
+    private List<Book> createIndexedBooks() {
+        List<Book> books = List.of(
+                createBook(1L, "Micronaut in Action", "Jane Doe", 2005),
+                createBook(2L, "Micronaut Testing Guide", "Jane Smith", 2010),
+                createBook(3L, "Gardening Basics", "Tom Green", 1999));
+        bookSearchIndex.rebuild(books);
+        return books;
+    }
+
+    private Book createBook(Long id, String title, String author, int publishedYear) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setQuantity(1);
+        book.setPublishedYear(publishedYear);
+        return book;
+    }
 }
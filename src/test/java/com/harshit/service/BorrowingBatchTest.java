@@ -0,0 +1,135 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.BorrowingOutcome;
+import com.harshit.dto.BorrowingRequest;
+import com.harshit.dto.LoanReportEntry;
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.MemberRepository;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static com.harshit.dto.BorrowingOutcome.Status.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+class BorrowingBatchTest {
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @AfterEach
+    void cleanUp() {
+        borrowingRepository.deleteAll(borrowingRepository.findByBookNameInAndMemberNameIn(
+                Set.of("Batch Book"), Set.of("Batch Reader", "Other Reader")));
+        bookRepository.deleteByTitle("Batch Book");
+        memberRepository.deleteByName("Batch Reader");
+        memberRepository.deleteByName("Other Reader");
+        // Each test recreates the rows under new ids
+        catalogLookupCache.evictAll();
+    }
+
+    @Test
+    void testBorrowAndReturnInBulk() {
+        Book book = new Book();
+        book.setTitle("Batch Book");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(2);
+        bookRepository.save(book);
+        for (String name : List.of("Batch Reader", "Other Reader")) {
+            Member member = new Member();
+            member.setName(name);
+            memberRepository.save(member);
+        }
+
+        List<BorrowingOutcome> borrowed = borrowingService.borrowBooks(List.of(
+                new BorrowingRequest("Batch Book", "Batch Reader"),
+                new BorrowingRequest("Missing Book", "Batch Reader"),
+                new BorrowingRequest("Batch Book", "Other Reader"),
+                new BorrowingRequest("Batch Book", "Batch Reader")));
+
+        assertEquals(List.of(BORROWED, NOT_FOUND, BORROWED, NOT_AVAILABLE), statuses(borrowed), "Outcomes should be reported per item, in order");
+        assertEquals(0, bookRepository.findByTitle("Batch Book").get().getQuantity(), "Both copies should be on loan");
+        assertEquals(2, borrowingRepository.findByBookNameInAndMemberNameIn(Set.of("Batch Book"), Set.of("Batch Reader", "Other Reader")).size());
+        assertEquals(2, borrowingService.getCurrentlyBorrowedBooks(null, null, "Batch Book", null, null).getItems().size(), "Both loans should be in the report");
+
+        List<BorrowingOutcome> returned = borrowingService.returnBooks(List.of(
+                new BorrowingRequest("Batch Book", "Batch Reader"),
+                new BorrowingRequest("Batch Book", "Batch Reader"),
+                new BorrowingRequest("Batch Book", "Other Reader")));
+
+        assertEquals(List.of(RETURNED, NO_RECORD, RETURNED), statuses(returned), "A loan should only be returned once per batch");
+        assertEquals(2, bookRepository.findByTitle("Batch Book").get().getQuantity(), "Both copies should be back on the shelf");
+        assertTrue(borrowingService.getCurrentlyBorrowedBooks(null, null, "Batch Book", null, null).getItems().isEmpty(), "Returned loans should leave the report");
+    }
+
+    @Test
+    void testSingleBorrowAndReturnUpdateTheReport() {
+        Book book = new Book();
+        book.setTitle("Batch Book");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        Member member = new Member();
+        member.setName("Batch Reader");
+        memberRepository.save(member);
+
+        Borrowing borrowing = borrowingService.borrowBook("Batch Book", "Batch Reader");
+        List<LoanReportEntry> loans = borrowingService.getCurrentlyBorrowedBooks(null, "Batch Reader", null, null, null).getItems();
+        assertEquals(1, loans.size());
+        assertEquals(borrowing.getId(), loans.get(0).getBorrowingId());
+        assertEquals(LocalDate.now().plusDays(14), loans.get(0).getDueDate());
+
+        borrowingService.returnBook("Batch Book", "Batch Reader");
+        assertTrue(borrowingService.getCurrentlyBorrowedBooks(null, "Batch Reader", null, null, null).getItems().isEmpty());
+        assertThrows(RuntimeException.class, () -> borrowingService.returnBook("Batch Book", "Batch Reader"), "A loan can only be returned once");
+    }
+
+    @Test
+    void testBorrowingAgainAfterAReturn() {
+        Book book = new Book();
+        book.setTitle("Batch Book");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        Member member = new Member();
+        member.setName("Batch Reader");
+        memberRepository.save(member);
+
+        Borrowing first = borrowingService.borrowBook("Batch Book", "Batch Reader");
+        borrowingService.returnBook("Batch Book", "Batch Reader");
+        Borrowing second = borrowingService.borrowBook("Batch Book", "Batch Reader");
+
+        Borrowing returned = borrowingService.returnBook("Batch Book", "Batch Reader");
+        assertEquals(second.getId(), returned.getId(), "The open loan should be closed, not the returned one");
+        assertNotNull(borrowingRepository.findById(first.getId()).get().getReturnedDate());
+        assertEquals(1, bookRepository.findByTitle("Batch Book").get().getQuantity());
+        assertThrows(RuntimeException.class, () -> borrowingService.returnBook("Batch Book", "Batch Reader"));
+    }
+
+    private List<BorrowingOutcome.Status> statuses(List<BorrowingOutcome> outcomes) {
+        return outcomes.stream().map(BorrowingOutcome::getStatus).toList();
+    }
+}
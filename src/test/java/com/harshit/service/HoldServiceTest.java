@@ -0,0 +1,201 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.dto.BorrowingOutcome;
+import com.harshit.dto.BorrowingRequest;
+import com.harshit.dto.HoldPosition;
+import com.harshit.entity.Book;
+import com.harshit.entity.Hold;
+import com.harshit.entity.Member;
+import com.harshit.exception.BookNotAvailableException;
+import com.harshit.exception.HoldNotAllowedException;
+import com.harshit.inventory.AvailabilityEngine;
+import com.harshit.inventory.HoldQueue;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.HoldRepository;
+import com.harshit.repository.MemberRepository;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+class HoldServiceTest {
+
+    private static final List<String> READERS = List.of("First Reader", "Second Reader", "Third Reader");
+
+    @Inject
+    HoldService holdService;
+
+    @Inject
+    HoldQueue holdQueue;
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    HoldRepository holdRepository;
+
+    @Inject
+    MemberService memberService;
+
+    @Inject
+    AvailabilityEngine availabilityEngine;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @BeforeEach
+    void setUp() {
+        Book book = new Book();
+        book.setTitle("Held Book");
+        book.setAuthor("Harshit sharma");
+        book.setQuantity(1);
+        bookRepository.save(book);
+        for (String name : READERS) {
+            Member member = new Member();
+            member.setName(name);
+            memberRepository.save(member);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        borrowingRepository.deleteAll(borrowingRepository.findByBookNameInAndMemberNameIn(Set.of("Held Book"), READERS));
+        // Takes the holds with it
+        bookRepository.deleteByTitle("Held Book");
+        READERS.forEach(memberRepository::deleteByName);
+        // Each test recreates the rows under new ids
+        catalogLookupCache.evictAll();
+    }
+
+    @Test
+    void testReturnedCopyGoesToTheNextHold() {
+        assertThrows(HoldNotAllowedException.class, () -> holdService.placeHold("Held Book", "Second Reader", 0),
+                "No hold while a copy is on the shelf");
+        borrowingService.borrowBook("Held Book", "First Reader");
+
+        holdService.placeHold("Held Book", "Second Reader", 0);
+        holdService.placeHold("Held Book", "Third Reader", 0);
+        assertThrows(HoldNotAllowedException.class, () -> holdService.placeHold("Held Book", "Third Reader", 0));
+        assertEquals(1, position("Second Reader").getPosition());
+        assertEquals(2, position("Third Reader").getPosition());
+        assertEquals(2, position("Third Reader").getWaiting());
+
+        borrowingService.returnBook("Held Book", "First Reader");
+        HoldPosition ready = position("Second Reader");
+        assertEquals(Hold.Status.READY, ready.getStatus());
+        assertEquals(0, ready.getPosition());
+        assertEquals(LocalDate.now().plusDays(3), ready.getReadyUntil());
+        assertEquals(1, position("Third Reader").getPosition());
+        assertEquals(1, bookRepository.findByTitle("Held Book").get().getQuantity(), "The copy is back in stock");
+        assertThrows(BookNotAvailableException.class, () -> borrowingService.borrowBook("Held Book", "Third Reader"),
+                "but kept for the first hold");
+
+        borrowingService.borrowBook("Held Book", "Second Reader");
+        assertTrue(holdService.getHoldPosition("Held Book", "Second Reader").isEmpty(), "The hold is fulfilled");
+        assertEquals(0, bookRepository.findByTitle("Held Book").get().getQuantity());
+
+        borrowingService.returnBook("Held Book", "Second Reader");
+        assertEquals(Hold.Status.READY, position("Third Reader").getStatus());
+        assertTrue(holdService.cancelHold("Held Book", "Third Reader"));
+        assertFalse(holdService.cancelHold("Held Book", "Third Reader"));
+        borrowingService.borrowBook("Held Book", "First Reader");
+
+        assertEquals(List.of(Hold.Status.FULFILLED, Hold.Status.CANCELLED), statuses());
+    }
+
+    @Test
+    void testPriorityAndLapsedHolds() {
+        borrowingService.borrowBook("Held Book", "First Reader");
+        holdService.placeHold("Held Book", "Second Reader", 0);
+        holdService.placeHold("Held Book", "Third Reader", 5);
+        assertEquals(1, position("Third Reader").getPosition(), "A higher priority goes first");
+        assertEquals(2, position("Second Reader").getPosition());
+
+        borrowingService.returnBook("Held Book", "First Reader");
+        assertEquals(Hold.Status.READY, position("Third Reader").getStatus());
+
+        // Third Reader never comes for the copy
+        Long bookId = bookRepository.findByTitle("Held Book").get().getId();
+        Long memberId = memberRepository.findByName("Third Reader").get().getId();
+        holdQueue.find(bookId, memberId).get().setReadyUntil(LocalDate.now().minusDays(1));
+        holdService.expireLapsedHolds();
+
+        assertTrue(holdService.getHoldPosition("Held Book", "Third Reader").isEmpty());
+        assertEquals(Hold.Status.READY, position("Second Reader").getStatus(), "The copy passes to the next hold");
+        borrowingService.borrowBook("Held Book", "Second Reader");
+        assertEquals(List.of(Hold.Status.FULFILLED, Hold.Status.EXPIRED), statuses(), "In the order the holds were placed");
+    }
+
+    @Test
+    void testBatchBorrowClaimsTheHeldCopy() {
+        borrowingService.borrowBook("Held Book", "First Reader");
+        holdService.placeHold("Held Book", "Second Reader", 0);
+        borrowingService.returnBook("Held Book", "First Reader");
+        assertEquals(Hold.Status.READY, position("Second Reader").getStatus());
+
+        List<BorrowingOutcome> outcomes = borrowingService.borrowBooks(List.of(
+                new BorrowingRequest("Held Book", "Third Reader"),
+                new BorrowingRequest("Held Book", "Second Reader")));
+
+        assertEquals(BorrowingOutcome.Status.NOT_AVAILABLE, outcomes.get(0).getStatus(), "The copy is kept for the hold");
+        assertEquals(BorrowingOutcome.Status.BORROWED, outcomes.get(1).getStatus(), "and its member gets it");
+        assertTrue(holdService.getHoldPosition("Held Book", "Second Reader").isEmpty(), "The hold is fulfilled");
+        assertEquals(0, bookRepository.findByTitle("Held Book").get().getQuantity());
+        assertEquals(List.of(Hold.Status.FULFILLED), statuses());
+    }
+
+    @Test
+    void testDeletedHoldsPassTheCopyOn() {
+        borrowingService.borrowBook("Held Book", "First Reader");
+        holdService.placeHold("Held Book", "Second Reader", 0);
+        holdService.placeHold("Held Book", "Third Reader", 0);
+        borrowingService.returnBook("Held Book", "First Reader");
+        assertEquals(Hold.Status.READY, position("Second Reader").getStatus());
+
+        memberService.deleteMember("Second Reader");
+        assertEquals(Hold.Status.READY, position("Third Reader").getStatus(), "The copy passes to the next hold");
+
+        // Deleted without telling the queue; the lapsed hold is found gone when it expires
+        Long bookId = bookRepository.findByTitle("Held Book").get().getId();
+        Long memberId = memberRepository.findByName("Third Reader").get().getId();
+        holdQueue.find(bookId, memberId).get().setReadyUntil(LocalDate.now().minusDays(1));
+        memberRepository.deleteByName("Third Reader");
+        holdService.expireLapsedHolds();
+
+        assertTrue(holdQueue.find(bookId, memberId).isEmpty());
+        assertEquals(0, availabilityEngine.heldFor(bookId));
+        borrowingService.borrowBook("Held Book", "First Reader");
+    }
+
+    private HoldPosition position(String memberName) {
+        return holdService.getHoldPosition("Held Book", memberName).orElseThrow();
+    }
+
+    private List<Hold.Status> statuses() {
+        return holdRepository.findByStatusIn(List.of(Hold.Status.values())).stream()
+                .filter(hold -> hold.getBookName().equals("Held Book"))
+                .sorted(Comparator.comparing(Hold::getId))
+                .map(Hold::getStatus)
+                .toList();
+    }
+}
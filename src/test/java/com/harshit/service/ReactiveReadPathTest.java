@@ -0,0 +1,112 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.controller.BookReadController;
+import com.harshit.controller.ReactiveBookReadController;
+import com.harshit.dto.CursorPage;
+import com.harshit.entity.Book;
+import com.harshit.entity.Member;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.MemberRepository;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(environments = "reactive", transactional = false)
+class ReactiveReadPathTest {
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Inject
+    ReactiveBookService reactiveBookService;
+
+    @Inject
+    ReactiveMemberService reactiveMemberService;
+
+    @Inject
+    BookService bookService;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @BeforeEach
+    void setUp() {
+        catalogLookupCache.evictAll();
+        for (String title : List.of("Reactive Rivers", "Reactive Roads")) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Harshit sharma");
+            book.setQuantity(2);
+            book.setPublishedYear(1871);
+            bookService.saveBook(book);
+        }
+        Member member = new Member();
+        member.setName("Reactive Reader");
+        member.setEmail("reactive@example.com");
+        memberRepository.save(member);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookService.deleteBook("Reactive Rivers");
+        bookService.deleteBook("Reactive Roads");
+        memberRepository.deleteByName("Reactive Reader");
+    }
+
+    @Test
+    void testOnlyTheReactiveControllersAreRegistered() {
+        assertTrue(applicationContext.containsBean(ReactiveBookReadController.class));
+        assertFalse(applicationContext.containsBean(BookReadController.class), "Both read paths would serve the same routes");
+    }
+
+    @Test
+    void testLookupsAndListings() {
+        HttpResponse<Book> found = reactiveBookService.getBookByName("Reactive Rivers").block();
+        assertEquals(HttpStatus.OK, found.getStatus());
+        assertEquals(1871, found.body().getPublishedYear());
+        assertEquals(HttpStatus.NOT_FOUND, reactiveBookService.getBookByName("No Such Reactive Book").block().getStatus());
+
+        Long rivers = found.body().getId();
+        CursorPage<Book> page = reactiveBookService.getBooksPage(rivers - 1, 1).block();
+        assertEquals(List.of("Reactive Rivers"), page.getItems().stream().map(Book::getTitle).toList());
+        assertEquals(rivers, page.getNextCursor(), "A full page should hand back a cursor");
+
+        assertEquals("reactive@example.com", reactiveMemberService.getMemberByName("Reactive Reader").block().getEmail());
+        assertNull(reactiveMemberService.getMemberByName("Nobody Reactive").block());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearchesMatchTheBlockingPath() {
+        Map<String, Object> reactive = reactiveBookService.searchBooksByTitle("Reactive R!").block().body();
+        Map<String, Object> blocking = bookService.searchBooksByTitle("Reactive R!").body();
+        assertEquals(blocking.get("Warning"), reactive.get("Warning"));
+        assertEquals(titles((List<Book>) blocking.get("books")), titles((List<Book>) reactive.get("books")));
+
+        List<Book> byYear = (List<Book>) reactiveBookService.searchBooksByYearRange(1870, 1872).block().body().get("books");
+        assertEquals(List.of("Reactive Rivers", "Reactive Roads"), titles(byYear).stream().sorted().toList());
+
+        assertEquals(HttpStatus.BAD_REQUEST, reactiveBookService.searchBooksByYearRange(-1, 1872).block().getStatus());
+    }
+
+    private static List<String> titles(List<Book> books) {
+        return books.stream().map(Book::getTitle).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.harshit.service;
+
+import com.harshit.cache.CatalogLookupCache;
+import com.harshit.entity.Book;
+import com.harshit.entity.Borrowing;
+import com.harshit.entity.Member;
+import com.harshit.exception.BookNotAvailableException;
+import com.harshit.repository.BookRepository;
+import com.harshit.repository.BorrowingRepository;
+import com.harshit.repository.MemberRepository;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.annotation.MockBean;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// The CTE statements need PostgreSQL, so this only checks that the service routes through them when enabled
+@MicronautTest
+@Property(name = "library.borrowing.single-statement", value = "true")
+class SingleStatementBorrowingTest {
+
+    @Inject
+    BorrowingService borrowingService;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    BorrowingRepository borrowingRepository;
+
+    @Inject
+    SingleStatementBorrowing singleStatementBorrowing;
+
+    @Inject
+    CatalogLookupCache catalogLookupCache;
+
+    @MockBean(BookRepository.class)
+    BookRepository bookRepository() {
+        return Mockito.mock(BookRepository.class);
+    }
+
+    @MockBean(MemberRepository.class)
+    MemberRepository memberRepository() {
+        return Mockito.mock(MemberRepository.class);
+    }
+
+    @MockBean(BorrowingRepository.class)
+    BorrowingRepository borrowingRepository() {
+        return Mockito.mock(BorrowingRepository.class);
+    }
+
+    @MockBean(SingleStatementBorrowing.class)
+    SingleStatementBorrowing singleStatementBorrowing() {
+        return Mockito.mock(SingleStatementBorrowing.class);
+    }
+
+    @BeforeEach
+    void clearLookupCache() {
+        catalogLookupCache.evictAll();
+    }
+
+    @Test
+    void testBorrowUsesSingleStatement() {
+        Book book = createDummyBook(11L);
+        Member member = createDummyMember();
+        Borrowing loan = new Borrowing();
+        loan.setId(7L);
+        loan.setBook(book);
+        loan.setMember(member);
+        when(bookRepository.findByTitle("Micronaut Testing")).thenReturn(Optional.of(book));
+        when(memberRepository.findByName("John Doe")).thenReturn(Optional.of(member));
+        when(singleStatementBorrowing.borrow(book, member)).thenReturn(loan);
+
+        assertSame(loan, borrowingService.borrowBook("Micronaut Testing", "John Doe"));
+        verify(bookRepository, never()).decrementQuantity(any());
+        verify(borrowingRepository, never()).save(any(Borrowing.class));
+    }
+
+    @Test
+    void testBorrowRejectedBySingleStatement() {
+        Book book = createDummyBook(12L);
+        Member member = createDummyMember();
+        when(bookRepository.findByTitle("Micronaut Testing")).thenReturn(Optional.of(book));
+        when(memberRepository.findByName("John Doe")).thenReturn(Optional.of(member));
+        when(singleStatementBorrowing.borrow(book, member)).thenReturn(null);
+
+        assertThrows(BookNotAvailableException.class, () -> borrowingService.borrowBook("Micronaut Testing", "John Doe"));
+    }
+
+    @Test
+    void testReturnUsesSingleStatement() {
+        Borrowing loan = new Borrowing();
+        loan.setId(8L);
+        loan.setBook(createDummyBook(13L));
+        loan.setBookName("Micronaut Testing");
+        loan.setReturnedDate(LocalDate.now());
+        when(singleStatementBorrowing.returnBook("Micronaut Testing", "John Doe")).thenReturn(loan);
+        when(singleStatementBorrowing.returnBook("Micronaut Testing", "Jane Doe")).thenReturn(null);
+
+        assertSame(loan, borrowingService.returnBook("Micronaut Testing", "John Doe"));
+        assertThrows(RuntimeException.class, () -> borrowingService.returnBook("Micronaut Testing", "Jane Doe"));
+        verify(borrowingRepository, never()).findByBookTitleAndMemberNameAndReturnedDateIsNull(any(), any());
+        verify(bookRepository, never()).incrementQuantity(any());
+    }
+
+    private Book createDummyBook(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Micronaut Testing");
+        book.setAuthor("Jane Doe");
+        book.setQuantity(5);
+        return book;
+    }
+
+    private Member createDummyMember() {
+        Member member = new Member();
+        member.setId(1L);
+        member.setName("John Doe");
+        return member;
+    }
+}